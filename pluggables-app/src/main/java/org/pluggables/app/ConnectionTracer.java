@@ -0,0 +1,250 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import org.pluggables.app.api.ConnectionTrace;
+import org.pluggables.app.api.PhaseSummary;
+import org.pluggables.app.api.TraceEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the timeline of the provisioning and deletion runs of the connections.
+ * The last runs are kept in a ring buffer of fixed capacity, the oldest being
+ * overwritten by the newest; each run keeps a bounded number of phases.
+ * Phases may be started and ended concurrently, e.g. the edit-configs of the two
+ * endpoints, and after the run itself completed, e.g. the link notifications.
+ */
+final class ConnectionTracer {
+
+    /** Phase names. */
+    static final String EDIT_CONFIG = "edit-config";
+    static final String LINK_UP = "link-up";
+    static final String LINK_DOWN = "link-down";
+    static final String INTENT_INSTALL = "intent-install";
+    static final String NOTIFY = "notify";
+
+    private static final int MAX_EVENTS_PER_RUN = 64;
+
+    /** Recorded runs; guarded by this. */
+    private final Run[] runs;
+    private int next;
+
+    /**
+     * Creates a tracer.
+     * @param capacity number of runs kept
+     */
+    ConnectionTracer(int capacity) {
+        this.runs = new Run[capacity];
+    }
+
+    /**
+     * Starts recording a run.
+     * @param connectionName identify the connection
+     * @param operation the operation run on the connection
+     * @return the running trace
+     */
+    Run start(String connectionName, ConnectionTrace.Operation operation) {
+        Run run = new Run(connectionName, operation);
+        synchronized (this) {
+            runs[next] = run;
+            next = (next + 1) % runs.length;
+        }
+        return run;
+    }
+
+    /**
+     * Returns the recorded runs of a connection.
+     * @param connectionName identify the connection
+     * @return the traces of the runs still in the buffer, oldest first
+     */
+    List<ConnectionTrace> traces(String connectionName) {
+        List<Run> matching = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < runs.length; i++) {
+                Run run = runs[(next + i) % runs.length];
+                if (run != null && run.connectionName.equals(connectionName)) {
+                    matching.add(run);
+                }
+            }
+        }
+        ImmutableList.Builder<ConnectionTrace> traces = ImmutableList.builder();
+        matching.forEach(run -> traces.add(run.trace()));
+        return traces.build();
+    }
+
+    /**
+     * Summarises the durations of each phase over a set of runs. Percentiles are
+     * computed over the successful occurrences only, failed ones are counted apart.
+     * @param traces the runs
+     * @return the summary of each phase, by phase name in order of first occurrence
+     */
+    static Map<String, PhaseSummary> summarize(List<ConnectionTrace> traces) {
+        Map<String, List<Long>> durations = new LinkedHashMap<>();
+        Map<String, Integer> failures = new LinkedHashMap<>();
+        for (ConnectionTrace trace : traces) {
+            for (TraceEvent event : trace.getEvents()) {
+                durations.computeIfAbsent(event.getPhase(), k -> new ArrayList<>());
+                if (event.getStatus() == TraceEvent.Status.SUCCEEDED) {
+                    durations.get(event.getPhase()).add(event.getDurationMillis());
+                } else if (event.getStatus() == TraceEvent.Status.FAILED) {
+                    failures.merge(event.getPhase(), 1, Integer::sum);
+                }
+            }
+        }
+        ImmutableMap.Builder<String, PhaseSummary> summary = ImmutableMap.builder();
+        durations.forEach((phase, values) -> {
+            long[] sorted = Longs.toArray(values);
+            Arrays.sort(sorted);
+            summary.put(phase, new PhaseSummary(sorted.length, failures.getOrDefault(phase, 0),
+                                                percentile(sorted, 50), percentile(sorted, 99),
+                                                sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        });
+        return summary.build();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * A run being recorded.
+     */
+    static final class Run {
+        private final String connectionName;
+        private final ConnectionTrace.Operation operation;
+        private final long startMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+
+        /** Phases of the run and outcome; guarded by this. */
+        private final List<Span> spans = new ArrayList<>();
+        private TraceEvent.Status status = TraceEvent.Status.RUNNING;
+        private String failure;
+
+        private Run(String connectionName, ConnectionTrace.Operation operation) {
+            this.connectionName = connectionName;
+            this.operation = operation;
+        }
+
+        /**
+         * Starts a phase of the run.
+         * @param phase name of the phase
+         * @param scope the device, link, intent or subscriber the phase applies to
+         * @return the running phase; not recorded if the run has too many phases already
+         */
+        Span start(String phase, String scope) {
+            Span span = new Span(this, phase, scope);
+            synchronized (this) {
+                if (spans.size() < MAX_EVENTS_PER_RUN) {
+                    spans.add(span);
+                }
+            }
+            return span;
+        }
+
+        /**
+         * Marks the run as successfully completed.
+         */
+        synchronized void succeed() {
+            status = TraceEvent.Status.SUCCEEDED;
+        }
+
+        /**
+         * Marks the run as failed.
+         * @param reason reason of the failure
+         */
+        synchronized void fail(String reason) {
+            status = TraceEvent.Status.FAILED;
+            failure = reason;
+        }
+
+        private synchronized ConnectionTrace trace() {
+            List<TraceEvent> events = new ArrayList<>(spans.size());
+            spans.forEach(span -> events.add(span.event()));
+            return ConnectionTrace.of(connectionName, operation, startMillis, status, failure, events);
+        }
+    }
+
+    /**
+     * A phase being recorded, ended once by either a success or a failure;
+     * later ends are ignored.
+     */
+    static final class Span {
+        private final Run run;
+        private final String phase;
+        private final String scope;
+        private final long startNanos = System.nanoTime();
+
+        /** Outcome of the phase; guarded by the run. */
+        private long durationNanos = -1;
+        private TraceEvent.Status status = TraceEvent.Status.RUNNING;
+        private String detail;
+
+        private Span(Run run, String phase, String scope) {
+            this.run = run;
+            this.phase = phase;
+            this.scope = scope;
+        }
+
+        /**
+         * Ends the phase successfully.
+         */
+        void succeed() {
+            end(TraceEvent.Status.SUCCEEDED, null);
+        }
+
+        /**
+         * Ends the phase with a failure.
+         * @param reason reason of the failure
+         */
+        void fail(String reason) {
+            end(TraceEvent.Status.FAILED, reason);
+        }
+
+        private void end(TraceEvent.Status outcome, String reason) {
+            long elapsed = System.nanoTime() - startNanos;
+            synchronized (run) {
+                if (status == TraceEvent.Status.RUNNING) {
+                    durationNanos = elapsed;
+                    status = outcome;
+                    detail = reason;
+                }
+            }
+        }
+
+        // Called with the run lock held
+        private TraceEvent event() {
+            return TraceEvent.of(phase, scope, TimeUnit.NANOSECONDS.toMillis(startNanos - run.startNanos),
+                                 durationNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                                 status, detail);
+        }
+    }
+}
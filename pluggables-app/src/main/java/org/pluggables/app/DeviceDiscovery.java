@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.onosproject.net.DeviceId;
+import org.slf4j.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Runs the initial inventory of the discovered devices off the event dispatch thread.
+ * Discovered devices wait in a queue holding each device at most once, so that a burst
+ * of events costs the listener no more than a set insertion and the queue no more than
+ * the number of devices; a bounded number of workers drains it, which bounds the NETCONF
+ * sessions opened concurrently to the devices.
+ */
+final class DeviceDiscovery {
+
+    private final Logger log = getLogger(getClass());
+
+    private final Consumer<DeviceId> inventory;
+    private final ExecutorService executor =
+            Executors.newCachedThreadPool(groupedThreads("onos/pluggables", "discovery-%d", log));
+
+    /** Devices waiting for their inventory, in discovery order; guarded by this. */
+    private final Set<DeviceId> pending = new LinkedHashSet<>();
+    private int workers;
+    private int maxWorkers = 1;
+
+    /**
+     * Creates a device discovery.
+     * @param inventory reads and stores the pluggables of a device; may block
+     */
+    DeviceDiscovery(Consumer<DeviceId> inventory) {
+        this.inventory = inventory;
+    }
+
+    /**
+     * Sets the number of devices inventoried concurrently.
+     * Lowering it takes effect as the running workers complete their device.
+     * @param threads maximum number of workers
+     */
+    synchronized void configure(int threads) {
+        maxWorkers = Math.max(1, threads);
+        startWorkers(pending.size());
+    }
+
+    /**
+     * Queues the inventory of a device, unless it is queued already. Never blocks.
+     * @param deviceId identify the device
+     */
+    synchronized void submit(DeviceId deviceId) {
+        if (!pending.add(deviceId)) {
+            log.debug("Inventory of {} already pending", deviceId);
+            return;
+        }
+        startWorkers(1);
+    }
+
+    /**
+     * Drops the pending inventory of a device, e.g. once removed.
+     * @param deviceId identify the device
+     */
+    synchronized void cancel(DeviceId deviceId) {
+        pending.remove(deviceId);
+    }
+
+    /**
+     * Stops the workers; pending devices are discarded.
+     */
+    void shutdown() {
+        synchronized (this) {
+            pending.clear();
+        }
+        executor.shutdownNow();
+    }
+
+    // Called with the lock held
+    private void startWorkers(int wanted) {
+        for (int i = 0; i < wanted && workers < maxWorkers; i++) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+            workers++;
+        }
+    }
+
+    private void drain() {
+        DeviceId deviceId;
+        while ((deviceId = next()) != null) {
+            try {
+                inventory.accept(deviceId);
+            } catch (RuntimeException e) {
+                log.error("Unable to inventory the pluggables of {}", deviceId, e);
+            }
+        }
+    }
+
+    private synchronized DeviceId next() {
+        if (pending.isEmpty() || workers > maxWorkers || Thread.currentThread().isInterrupted()) {
+            workers--;
+            return null;
+        }
+        Iterator<DeviceId> iterator = pending.iterator();
+        DeviceId next = iterator.next();
+        iterator.remove();
+        return next;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.onosproject.net.DeviceId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Hands out the connections of a bulk request to concurrent workers, so that the
+ * connections sharing a device run one after the other, in request order, and
+ * all the others concurrently. A connection is ready once none of its devices is
+ * used by a running connection nor by an earlier connection still pending.
+ *
+ * @param <T> type of the connections
+ */
+final class DeviceLanes<T> {
+
+    private final Function<T, Collection<DeviceId>> devices;
+
+    /** Connections not handed out yet, in request order; guarded by this. */
+    private final List<T> pending;
+    /** Devices of the running connections; guarded by this. */
+    private final Set<DeviceId> busy = new HashSet<>();
+
+    /**
+     * Creates the lanes of a bulk request.
+     * @param connections the connections, in request order
+     * @param devices gives the devices of a connection
+     */
+    DeviceLanes(Collection<T> connections, Function<T, Collection<DeviceId>> devices) {
+        this.pending = new LinkedList<>(connections);
+        this.devices = devices;
+    }
+
+    /**
+     * Hands out the next ready connection, if any.
+     * @return the connection, to be released once done; null if none is ready
+     */
+    synchronized T poll() {
+        Set<DeviceId> blocked = new HashSet<>(busy);
+        for (Iterator<T> iterator = pending.iterator(); iterator.hasNext();) {
+            T connection = iterator.next();
+            Collection<DeviceId> used = devices.apply(connection);
+            if (used.stream().noneMatch(blocked::contains)) {
+                iterator.remove();
+                busy.addAll(used);
+                return connection;
+            }
+            // The later connections of these devices wait for this one
+            blocked.addAll(used);
+        }
+        return null;
+    }
+
+    /**
+     * Hands out the next ready connection, waiting for one to be released if none is.
+     * @return the connection, to be released once done; null if all were handed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized T take() throws InterruptedException {
+        T connection;
+        while ((connection = poll()) == null && !pending.isEmpty()) {
+            wait();
+        }
+        return connection;
+    }
+
+    /**
+     * Releases the devices of a connection handed out, once it ran.
+     * @param connection the connection
+     */
+    synchronized void release(T connection) {
+        busy.removeAll(devices.apply(connection));
+        notifyAll();
+    }
+
+    /**
+     * Removes the connections not handed out yet, e.g. when the workers stop.
+     * @return the removed connections, in request order
+     */
+    synchronized List<T> clear() {
+        List<T> removed = new ArrayList<>(pending);
+        pending.clear();
+        notifyAll();
+        return removed;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onlab.util.ItemNotFoundException;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.config.Config;
+import org.onosproject.net.config.NetworkConfigRegistry;
+import org.onosproject.net.driver.Driver;
+import org.onosproject.net.driver.DriverService;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Strings.nullToEmpty;
+import static org.onosproject.net.config.basics.SubjectFactories.DEVICE_SUBJECT_FACTORY;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Selects the devices whose pluggables are managed. A device is selected if it
+ * matches any of the configured selectors:
+ * <ul>
+ *     <li>its id is listed;</li>
+ *     <li>its driver, or one the driver inherits from, is listed;</li>
+ *     <li>it carries a listed annotation, {@code key} alone matching any value
+ *     and {@code key=value} that value only;</li>
+ *     <li>it has a network configuration under a listed device config key,
+ *     e.g. {@code netconf}.</li>
+ * </ul>
+ * Each selector is given as a comma separated list; an empty list selects nothing.
+ * The config keys are resolved on every match, so that a key registered after the
+ * selector was created, e.g. by an application activated later, is taken into account.
+ */
+final class DeviceSelector {
+
+    private static final Splitter LIST = Splitter.on(',').trimResults().omitEmptyStrings();
+    private static final Splitter KEY_VALUE = Splitter.on('=').limit(2).trimResults();
+
+    private final Logger log = getLogger(getClass());
+
+    private final DriverService driverService;
+    private final NetworkConfigRegistry netCfgService;
+    private final Set<DeviceId> devices;
+    private final Set<String> drivers;
+    private final List<Map.Entry<String, String>> annotations;
+    private final List<String> configs;
+    /** Config keys found unknown, warned about once. */
+    private final Set<String> unknownConfigs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a device selector.
+     * @param driverService service resolving the driver of the devices
+     * @param netCfgService registry of the network configuration of the devices
+     * @param devices the listed device ids
+     * @param drivers the listed driver names
+     * @param annotations the listed annotations
+     * @param configs the listed device config keys; unknown keys match no device
+     */
+    DeviceSelector(DriverService driverService, NetworkConfigRegistry netCfgService,
+                   String devices, String drivers, String annotations, String configs) {
+        this.driverService = driverService;
+        this.netCfgService = netCfgService;
+
+        ImmutableSet.Builder<DeviceId> deviceIds = ImmutableSet.builder();
+        LIST.split(nullToEmpty(devices)).forEach(id -> deviceIds.add(DeviceId.deviceId(id)));
+        this.devices = deviceIds.build();
+
+        this.drivers = ImmutableSet.copyOf(LIST.split(nullToEmpty(drivers)));
+
+        // A null value matches any value of the key
+        ImmutableList.Builder<Map.Entry<String, String>> keyValues = ImmutableList.builder();
+        LIST.split(nullToEmpty(annotations)).forEach(annotation -> {
+            List<String> keyValue = KEY_VALUE.splitToList(annotation);
+            keyValues.add(Maps.immutableEntry(keyValue.get(0), keyValue.size() > 1 ? keyValue.get(1) : null));
+        });
+        this.annotations = keyValues.build();
+
+        this.configs = ImmutableList.copyOf(LIST.split(nullToEmpty(configs)));
+    }
+
+    /**
+     * Tells whether the pluggables of a device are managed.
+     * @param device the device
+     * @return true if the device matches any of the selectors
+     */
+    boolean matches(Device device) {
+        return devices.contains(device.id())
+                || matchesDriver(device.id())
+                || matchesAnnotations(device)
+                || matchesConfig(device.id());
+    }
+
+    private boolean matchesDriver(DeviceId deviceId) {
+        if (drivers.isEmpty()) {
+            return false;
+        }
+        Driver driver;
+        try {
+            driver = driverService.getDriver(deviceId);
+        } catch (ItemNotFoundException e) {
+            return false;
+        }
+        return matchesDriver(driver);
+    }
+
+    private boolean matchesDriver(Driver driver) {
+        if (drivers.contains(driver.name())) {
+            return true;
+        }
+        for (Driver parent : driver.parents()) {
+            if (matchesDriver(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesAnnotations(Device device) {
+        for (Map.Entry<String, String> annotation : annotations) {
+            String value = device.annotations().value(annotation.getKey());
+            if (value != null && (annotation.getValue() == null || annotation.getValue().equals(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean matchesConfig(DeviceId deviceId) {
+        for (String configKey : configs) {
+            Class<? extends Config> configClass =
+                    netCfgService.getConfigClass(DEVICE_SUBJECT_FACTORY.subjectClassKey(), configKey);
+            if (configClass == null) {
+                if (unknownConfigs.add(configKey)) {
+                    log.warn("Unknown device config key {}, no device is selected by it until it is registered",
+                             configKey);
+                }
+                continue;
+            }
+            if (netCfgService.getConfig(deviceId, (Class<Config<DeviceId>>) configClass) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("devices", devices)
+                .add("drivers", drivers)
+                .add("annotations", annotations)
+                .add("configs", configs)
+                .toString();
+    }
+}
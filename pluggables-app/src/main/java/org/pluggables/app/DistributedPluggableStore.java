@@ -0,0 +1,261 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+import org.onlab.util.KryoNamespace;
+import org.onosproject.cluster.ClusterService;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.EventuallyConsistentMap;
+import org.onosproject.store.service.EventuallyConsistentMapEvent;
+import org.onosproject.store.service.EventuallyConsistentMapListener;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.Versioned;
+import org.onosproject.store.service.WallClockTimestamp;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.InventorySnapshot;
+import org.pluggables.app.api.NotificationSubscriber;
+import org.pluggables.app.api.PluggableConnection;
+import org.pluggables.app.api.PluggableData;
+import org.pluggables.app.api.PluggableStore;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+import static java.util.Objects.requireNonNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pluggable store shared by the instances of the cluster.
+ * The inventory is held in an eventually consistent map, each instance reading
+ * its pluggables from a local indexed replica kept up to date by the map events.
+ * The connections are held in a consistent map read with relaxed consistency, so
+ * that a connection created on an instance can be deleted through any other, and
+ * so are the notification subscribers, so that every instance notifies all of them.
+ */
+@Component(immediate = true, service = PluggableStore.class)
+public class DistributedPluggableStore implements PluggableStore {
+
+    static final KryoNamespace SERIALIZER = KryoNamespace.newBuilder()
+            .register(KryoNamespaces.API)
+            .register(PluggableData.class,
+                      DevicePluggablesData.class,
+                      PluggableConnection.class,
+                      PluggableConnection.State.class,
+                      NotificationSubscriber.class)
+            .build("PluggableStore");
+
+    private final Logger log = getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected StorageService storageService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ClusterService clusterService;
+
+    private EventuallyConsistentMap<DeviceId, DevicePluggablesData> devices;
+    private ConsistentMap<String, PluggableConnection> connections;
+    private ConsistentMap<String, NotificationSubscriber> subscribers;
+    private SimplePluggableStore replica;
+    private final EventuallyConsistentMapListener<DeviceId, DevicePluggablesData> devicesListener =
+            new InternalDevicesListener();
+
+    @Activate
+    protected void activate() {
+        // The replica version restarts from 0 on every instance and activation: the epoch tells them apart
+        replica = new SimplePluggableStore(epoch(clusterService.getLocalNode().id().id(),
+                                                 System.currentTimeMillis()));
+        devices = storageService.<DeviceId, DevicePluggablesData>eventuallyConsistentMapBuilder()
+                .withName("pluggables-devices")
+                .withSerializer(KryoNamespace.newBuilder().register(SERIALIZER))
+                .withTimestampProvider((deviceId, devicePluggables) -> new WallClockTimestamp())
+                .build();
+        devices.addListener(devicesListener);
+        // Entries received before the listener was added
+        devices.values().forEach(replica::putDevicePluggables);
+
+        connections = storageService.<String, PluggableConnection>consistentMapBuilder()
+                .withName("pluggables-connections")
+                .withSerializer(Serializer.using(SERIALIZER))
+                .withRelaxedReadConsistency()
+                .build();
+        subscribers = storageService.<String, NotificationSubscriber>consistentMapBuilder()
+                .withName("pluggables-subscribers")
+                .withSerializer(Serializer.using(SERIALIZER))
+                .withRelaxedReadConsistency()
+                .build();
+        log.info("Started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        devices.removeListener(devicesListener);
+        devices.destroy();
+        log.info("Stopped");
+    }
+
+    @Override
+    public synchronized void putDevicePluggables(DevicePluggablesData devicePluggablesData) {
+        requireNonNull(devicePluggablesData);
+        // The local replica is updated first, so that the instance reads its own writes
+        replica.putDevicePluggables(devicePluggablesData);
+        // As stored by the replica, in port order
+        devices.put(devicePluggablesData.getDeviceId(),
+                    replica.getDevicePluggables(devicePluggablesData.getDeviceId()));
+    }
+
+    @Override
+    public synchronized boolean replaceDevicePluggables(DevicePluggablesData expected,
+                                                        DevicePluggablesData devicePluggablesData) {
+        if (!replica.replaceDevicePluggables(expected, devicePluggablesData)) {
+            return false;
+        }
+        devices.put(devicePluggablesData.getDeviceId(),
+                    replica.getDevicePluggables(devicePluggablesData.getDeviceId()));
+        return true;
+    }
+
+    @Override
+    public synchronized DevicePluggablesData removeDevicePluggables(DeviceId deviceId) {
+        DevicePluggablesData removed = replica.removeDevicePluggables(deviceId);
+        devices.remove(deviceId);
+        return removed;
+    }
+
+    @Override
+    public DevicePluggablesData getDevicePluggables(DeviceId deviceId) {
+        return replica.getDevicePluggables(deviceId);
+    }
+
+    @Override
+    public Collection<DevicePluggablesData> getDevicePluggables() {
+        return replica.getDevicePluggables();
+    }
+
+    @Override
+    public Collection<PluggableData> getPluggables(DeviceId deviceId, String pluggableId) {
+        return replica.getPluggables(deviceId, pluggableId);
+    }
+
+    @Override
+    public PluggableData getPluggable(DeviceId deviceId, PortNumber port) {
+        return replica.getPluggable(deviceId, port);
+    }
+
+    @Override
+    public synchronized void updatePluggable(DeviceId deviceId, PluggableData pluggableData) {
+        requireNonNull(pluggableData);
+        replica.updatePluggable(deviceId, pluggableData);
+        DevicePluggablesData updated = replica.getDevicePluggables(deviceId);
+        if (updated != null) {
+            devices.put(deviceId, updated);
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        // Bumped by the local writes and by the events of the other instances alike
+        return replica.getVersion();
+    }
+
+    @Override
+    public InventorySnapshot getSnapshot() {
+        return replica.getSnapshot();
+    }
+
+    @Override
+    public void putConnection(PluggableConnection connection) {
+        requireNonNull(connection);
+        connections.put(connection.getName(), connection);
+    }
+
+    @Override
+    public PluggableConnection removeConnection(String name) {
+        return Versioned.valueOrNull(connections.remove(name));
+    }
+
+    @Override
+    public PluggableConnection getConnection(String name) {
+        return Versioned.valueOrNull(connections.get(name));
+    }
+
+    @Override
+    public Collection<PluggableConnection> getConnections() {
+        return ImmutableList.copyOf(connections.asJavaMap().values());
+    }
+
+    @Override
+    public void putSubscriber(NotificationSubscriber subscriber) {
+        requireNonNull(subscriber);
+        subscribers.put(subscriber.getId(), subscriber);
+    }
+
+    @Override
+    public NotificationSubscriber removeSubscriber(String id) {
+        return Versioned.valueOrNull(subscribers.remove(id));
+    }
+
+    @Override
+    public Collection<NotificationSubscriber> getSubscribers() {
+        return ImmutableList.copyOf(subscribers.asJavaMap().values());
+    }
+
+    /**
+     * Gets the epoch of the local replica, unique to an instance and an activation.
+     * @param nodeId the identifier of the local instance
+     * @param activationMillis the time of the activation
+     * @return the epoch, URL and header safe
+     */
+    static String epoch(String nodeId, long activationMillis) {
+        return BaseEncoding.base64Url().omitPadding()
+                .encode((nodeId + "@" + activationMillis).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Applies to the local replica the inventory changes made by the other instances.
+     */
+    private class InternalDevicesListener
+            implements EventuallyConsistentMapListener<DeviceId, DevicePluggablesData> {
+        @Override
+        public void event(EventuallyConsistentMapEvent<DeviceId, DevicePluggablesData> event) {
+            synchronized (DistributedPluggableStore.this) {
+                switch (event.type()) {
+                    case PUT:
+                        if (event.value() != replica.getDevicePluggables(event.key())) {
+                            replica.putDevicePluggables(event.value());
+                        }
+                        break;
+                    case REMOVE:
+                        replica.removeDevicePluggables(event.key());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableMap;
+import org.onosproject.net.PortNumber;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Edit-config bodies of the OpenConfig platform and terminal-device models.
+ * The XML of each fragment is parsed once into literal segments and slots; a body
+ * is then written slot by slot into a per-thread buffer, so that building it does
+ * not allocate anything but the returned string. Text slots are XML escaped,
+ * the other slots are numbers.
+ */
+final class EditConfigTemplates {
+
+    private static final String ENABLED = "ENABLED";
+    private static final String DISABLED = "DISABLED";
+
+    /** Buffers larger than this are not kept by the thread once the body is built. */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private static final String COMPONENTS_START = "<components xmlns='http://openconfig.net/yang/platform'>";
+    private static final String COMPONENTS_END = "</components>";
+    private static final String LOGICAL_CHANNELS_START =
+            "<terminal-device xmlns='http://openconfig.net/yang/terminal-device'><logical-channels>";
+    private static final String LOGICAL_CHANNELS_END = "</logical-channels></terminal-device>";
+
+    private static final Template<PluggableData> OPTICAL_CHANNEL_CONFIG = Template.compile(
+            "<component>" +
+                "<name>channel-${port}</name>" +
+                "<oc-opt-term:optical-channel xmlns:oc-opt-term='http://openconfig.net/yang/terminal-device'>" +
+                    "<oc-opt-term:config>" +
+                        "<oc-opt-term:frequency>${frequency}</oc-opt-term:frequency>" +
+                        "<oc-opt-term:target-output-power>${power}</oc-opt-term:target-output-power>" +
+                        "<oc-opt-term:operational-mode>${opMode}</oc-opt-term:operational-mode>" +
+                    "</oc-opt-term:config>" +
+                "</oc-opt-term:optical-channel>" +
+            "</component>",
+            ImmutableMap.<String, Slot<PluggableData>>of(
+                    "port", (out, pluggable) -> out.append(pluggable.getPort().toLong()),
+                    // The frequency is configured in GHz
+                    "frequency", (out, pluggable) -> out.append((int) pluggable.getFrequency().asGHz()),
+                    "power", (out, pluggable) -> out.append(pluggable.getPower().floatValue()),
+                    "opMode", (out, pluggable) -> escape(out, pluggable.getOpMode())));
+
+    private static final Template<PortNumber> LOGICAL_CHANNEL_ENABLED = logicalChannel(ENABLED);
+    private static final Template<PortNumber> LOGICAL_CHANNEL_DISABLED = logicalChannel(DISABLED);
+
+    private EditConfigTemplates() {
+    }
+
+    private static Template<PortNumber> logicalChannel(String adminState) {
+        return Template.compile(
+                "<channel>" +
+                    "<index>${index}</index>" +
+                    "<config><admin-state>" + adminState + "</admin-state></config>" +
+                "</channel>",
+                ImmutableMap.<String, Slot<PortNumber>>of("index", (out, port) -> out.append(port.toLong())));
+    }
+
+    /**
+     * Builds the body configuring the optical channels of the pluggables and enabling
+     * their logical channels.
+     * @param pluggables the pluggables, with the frequency, power and operational mode to set
+     * @return the edit-config body
+     * @throws IllegalArgumentException if a pluggable lacks one of the values to set
+     */
+    static String configureChannels(Collection<PluggableData> pluggables) {
+        checkArgument(!pluggables.isEmpty(), "No channel to configure");
+        StringBuilder out = buffer();
+        out.append(COMPONENTS_START);
+        for (PluggableData pluggable : pluggables) {
+            checkArgument(pluggable.getFrequency() != null && pluggable.getPower() != null
+                                  && pluggable.getOpMode() != null,
+                          "Channel %s needs a frequency, a power and an operational mode", pluggable.getPort());
+            OPTICAL_CHANNEL_CONFIG.render(out, pluggable);
+        }
+        out.append(COMPONENTS_END);
+        out.append(LOGICAL_CHANNELS_START);
+        for (PluggableData pluggable : pluggables) {
+            LOGICAL_CHANNEL_ENABLED.render(out, pluggable.getPort());
+        }
+        out.append(LOGICAL_CHANNELS_END);
+        return release(out);
+    }
+
+    /**
+     * Builds the body disabling logical channels.
+     * @param channels the indexes of the logical channels
+     * @return the edit-config body
+     */
+    static String disableChannels(Collection<PortNumber> channels) {
+        checkArgument(!channels.isEmpty(), "No channel to disable");
+        StringBuilder out = buffer();
+        out.append(LOGICAL_CHANNELS_START);
+        for (PortNumber channel : channels) {
+            LOGICAL_CHANNEL_DISABLED.render(out, channel);
+        }
+        out.append(LOGICAL_CHANNELS_END);
+        return release(out);
+    }
+
+    /**
+     * Appends a text as XML character data, escaping the markup characters.
+     * @param out the buffer the text is appended to
+     * @param text the text
+     */
+    static void escape(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '\'':
+                    out.append("&apos;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                default:
+                    out.append(c);
+                    break;
+            }
+        }
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        return out;
+    }
+
+    private static String release(StringBuilder out) {
+        String body = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return body;
+    }
+
+    /**
+     * Writes the value of a slot.
+     * @param <T> type of the object the template is filled from
+     */
+    @FunctionalInterface
+    interface Slot<T> {
+        void append(StringBuilder out, T value);
+    }
+
+    /**
+     * An XML fragment with {@code ${name}} slots, split once into literal segments
+     * and the slots between them.
+     * @param <T> type of the object the template is filled from
+     */
+    static final class Template<T> {
+        private final String[] literals;
+        private final Slot<T>[] slots;
+
+        private Template(String[] literals, Slot<T>[] slots) {
+            this.literals = literals;
+            this.slots = slots;
+        }
+
+        /**
+         * Parses a template.
+         * @param text the fragment, with {@code ${name}} slots
+         * @param slots the writer of each slot, by name
+         * @param <T> type of the object the template is filled from
+         * @return the parsed template
+         * @throws IllegalArgumentException if a slot is unterminated or has no writer
+         */
+        @SuppressWarnings("unchecked")
+        static <T> Template<T> compile(String text, Map<String, Slot<T>> slots) {
+            List<String> literals = new ArrayList<>();
+            List<Slot<T>> writers = new ArrayList<>();
+            int from = 0;
+            int start;
+            while ((start = text.indexOf("${", from)) >= 0) {
+                int end = text.indexOf('}', start);
+                checkArgument(end > 0, "Unterminated slot at %s", start);
+                String name = text.substring(start + 2, end);
+                Slot<T> writer = slots.get(name);
+                checkArgument(writer != null, "No writer for slot %s", name);
+                literals.add(text.substring(from, start));
+                writers.add(writer);
+                from = end + 1;
+            }
+            literals.add(text.substring(from));
+            return new Template<>(literals.toArray(new String[0]), writers.toArray(new Slot[0]));
+        }
+
+        /**
+         * Appends the template filled from a value.
+         * @param out the buffer the fragment is appended to
+         * @param value the object the slots are filled from
+         */
+        void render(StringBuilder out, T value) {
+            for (int i = 0; i < slots.length; i++) {
+                out.append(literals[i]);
+                slots[i].append(out, value);
+            }
+            out.append(literals[slots.length]);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.Sets;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+import org.slf4j.Logger;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A listener for Intent events that completes the pending waits once an intent
+ * is installed, or fails them once it cannot be.
+ */
+final class IntentWaiter implements IntentListener {
+
+    private final Logger log = getLogger(getClass());
+
+    private final IntentService intentService;
+    private final Set<PendingWait> pending = Sets.newConcurrentHashSet();
+    private final ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(1, groupedThreads("onos/pluggables", "intent-waiter", log));
+
+    /**
+     * Creates an intent waiter.
+     * @param intentService service queried for the current state of the intents
+     */
+    IntentWaiter(IntentService intentService) {
+        this.intentService = intentService;
+        // The timeouts of the completed waits are cancelled, they must not pile up in the queue
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Waits for an intent to be installed.
+     * @param key key of the submitted intent
+     * @param timeoutMillis milliseconds to wait before failing
+     * @return a future completed once the intent is installed, failed with an
+     * IllegalStateException if the intent fails or with a TimeoutException once the
+     * deadline is over
+     */
+    CompletableFuture<Void> awaitInstalled(Key key, long timeoutMillis) {
+        PendingWait wait = new PendingWait(key);
+        // Registered before checking the current state, so that no event is missed in between
+        pending.add(wait);
+        wait.future.whenComplete((r, e) -> pending.remove(wait));
+
+        IntentState state = intentService.getIntentState(key);
+        if (state != null) {
+            wait.update(state);
+        }
+        if (wait.future.isDone()) {
+            return wait.future;
+        }
+        ScheduledFuture<?> timeout = timer.schedule(() -> wait.future.completeExceptionally(new TimeoutException(
+                String.format("Intent %s not installed within %d ms", key, timeoutMillis))),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        wait.future.whenComplete((r, e) -> timeout.cancel(false));
+        return wait.future;
+    }
+
+    /**
+     * Fails all the pending waits and stops the timer.
+     */
+    void shutdown() {
+        timer.shutdownNow();
+        pending.forEach(wait -> wait.future.cancel(false));
+        pending.clear();
+    }
+
+    @Override
+    public void event(IntentEvent event) {
+        Key key = event.subject().key();
+        IntentState state = intentState(event);
+        pending.forEach(wait -> {
+            if (wait.key.equals(key)) {
+                wait.update(state);
+            }
+        });
+    }
+
+    private static IntentState intentState(IntentEvent event) {
+        switch (event.type()) {
+            case INSTALLED:
+                return IntentState.INSTALLED;
+            case FAILED:
+                return IntentState.FAILED;
+            case WITHDRAWN:
+                return IntentState.WITHDRAWN;
+            default:
+                return null;
+        }
+    }
+
+    private static final class PendingWait {
+        private final Key key;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWait(Key key) {
+            this.key = key;
+        }
+
+        private void update(IntentState state) {
+            if (state == IntentState.INSTALLED) {
+                future.complete(null);
+            } else if (state == IntentState.FAILED || state == IntentState.WITHDRAWN) {
+                future.completeExceptionally(new IllegalStateException(
+                        String.format("Intent %s %s", key, state.toString().toLowerCase())));
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.Sets;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.netconf.NetconfException;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+import org.pluggables.app.api.PluggableStore;
+import org.slf4j.Logger;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Periodically re-reads the pluggables of the devices in the store and applies
+ * only what changed since the previous read. A read is applied only if the
+ * stored pluggables were not written meanwhile, e.g. by a provisioning or a
+ * notification, as it may predate that write; the next refresh catches up.
+ * Each device is refreshed at a random offset within the interval, so that the
+ * devices are not all queried at the same time. Devices pushing their changes
+ * through notifications are not polled, and only the devices this cluster node
+ * is the master of are refreshed.
+ */
+final class InventoryRefresher {
+
+    /** Fraction of the interval the refresh of each device is spread over. */
+    private static final double JITTER = 0.25;
+
+    private final Logger log = getLogger(getClass());
+
+    private final PluggableStore store;
+    private final InventoryReader reader;
+    private final Predicate<DeviceId> pushed;
+    private final Predicate<DeviceId> local;
+    private final Set<DeviceId> inFlight = Sets.newConcurrentHashSet();
+    private final ScheduledThreadPoolExecutor executor =
+            new ScheduledThreadPoolExecutor(1, groupedThreads("onos/pluggables", "inventory-%d", log));
+    private ScheduledFuture<?> refreshTask;
+    private volatile long intervalMillis;
+
+    /**
+     * Reads the current pluggables of a device.
+     */
+    interface InventoryReader {
+        /**
+         * Reads the pluggables of a device.
+         * @param deviceId identify the device where the pluggables are attached
+         * @return the pluggables currently attached to the device
+         * @throws NetconfException if the device cannot be queried
+         * @throws XMLStreamException if the device reply is not well formed
+         */
+        List<PluggableData> read(DeviceId deviceId) throws NetconfException, XMLStreamException;
+    }
+
+    /**
+     * Creates an inventory refresher.
+     * @param store store holding the last known pluggables of each device
+     * @param reader reads the pluggables from the devices
+     * @param pushed tells whether a device pushes its changes, in which case it is not polled
+     * @param local tells whether this node is the master of a device, otherwise it is not refreshed
+     */
+    InventoryRefresher(PluggableStore store, InventoryReader reader, Predicate<DeviceId> pushed,
+                       Predicate<DeviceId> local) {
+        this.store = store;
+        this.reader = reader;
+        this.pushed = pushed;
+        this.local = local;
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * (Re)schedules the periodic refresh.
+     * @param interval seconds between two refreshes of a device; 0 disables the refresh
+     * @param threads maximum number of devices refreshed concurrently
+     */
+    synchronized void configure(int interval, int threads) {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+        executor.setCorePoolSize(Math.max(1, threads));
+        intervalMillis = TimeUnit.SECONDS.toMillis(interval);
+        if (interval > 0) {
+            refreshTask = executor.scheduleAtFixedRate(this::schedule, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Refreshes a device as soon as possible, whether it pushes its changes or not.
+     * @param deviceId identify the device where the pluggables are attached
+     */
+    void refreshNow(DeviceId deviceId) {
+        if (!executor.isShutdown()) {
+            executor.execute(() -> refresh(deviceId));
+        }
+    }
+
+    /**
+     * Stops the periodic refresh.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule() {
+        long jitterMillis = (long) (intervalMillis * JITTER);
+        store.getDevicePluggables().forEach(devicePluggables -> {
+            DeviceId deviceId = devicePluggables.getDeviceId();
+            if (!local.test(deviceId)) {
+                return;
+            }
+            long delay = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis) : 0;
+            executor.schedule(() -> poll(deviceId), delay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void poll(DeviceId deviceId) {
+        if (pushed.test(deviceId)) {
+            log.trace("{} pushes its changes, not polled", deviceId);
+            return;
+        }
+        refresh(deviceId);
+    }
+
+    /**
+     * Refreshes a device, on the calling thread.
+     * @param deviceId identify the device where the pluggables are attached
+     */
+    void refresh(DeviceId deviceId) {
+        if (!local.test(deviceId)) {
+            log.trace("{} is refreshed by its master", deviceId);
+            return;
+        }
+        // A slow device is not queried again until its previous refresh is over
+        if (!inFlight.add(deviceId)) {
+            log.debug("Refresh of {} still in progress, skipped", deviceId);
+            return;
+        }
+        try {
+            DevicePluggablesData stored = store.getDevicePluggables(deviceId);
+            if (stored == null) {
+                return;
+            }
+            List<PluggableData> fresh = reader.read(deviceId);
+            if (!apply(stored, fresh)) {
+                log.debug("Pluggables of {} written during their refresh, left to the next one", deviceId);
+            }
+        } catch (NetconfException e) {
+            log.warn("Unable to refresh the pluggables of {}: {}", deviceId, e.getMessage());
+        } catch (XMLStreamException e) {
+            log.warn("Unable to parse the pluggables of {}: {}", deviceId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Unable to refresh the pluggables of {}", deviceId, e);
+        } finally {
+            inFlight.remove(deviceId);
+        }
+    }
+
+    /**
+     * Writes the changes between the stored and the fresh pluggables of a device,
+     * unless the stored ones were replaced meanwhile.
+     * @return false if the stored pluggables were replaced, true otherwise
+     */
+    private boolean apply(DevicePluggablesData stored, List<PluggableData> fresh) {
+        DeviceId deviceId = stored.getDeviceId();
+        Set<PortNumber> storedPorts = stored.getPluggables().stream()
+                .map(PluggableData::getPort).collect(Collectors.toSet());
+        Set<PortNumber> freshPorts = fresh.stream()
+                .map(PluggableData::getPort).collect(Collectors.toSet());
+
+        if (!storedPorts.equals(freshPorts)) {
+            // Pluggables were inserted or removed, the whole device is replaced
+            log.info("Pluggables of {} moved from ports {} to {}", deviceId, storedPorts, freshPorts);
+            return store.replaceDevicePluggables(stored, DevicePluggablesData.of(deviceId, fresh));
+        }
+
+        // The unchanged pluggables are kept, and the device is written once whatever the number of changes
+        Map<PortNumber, PluggableData> byPort = new HashMap<>();
+        stored.getPluggables().forEach(pluggableData -> byPort.put(pluggableData.getPort(), pluggableData));
+        List<PluggableData> merged = new ArrayList<>(fresh.size());
+        boolean changed = false;
+        for (PluggableData pluggableData : fresh) {
+            PluggableData current = byPort.get(pluggableData.getPort());
+            List<String> changes = changes(current, pluggableData);
+            if (changes.isEmpty()) {
+                merged.add(current);
+            } else {
+                log.info("Pluggable {} of {} changed {}", pluggableData.getPort(), deviceId, changes);
+                merged.add(pluggableData);
+                changed = true;
+            }
+        }
+        return !changed || store.replaceDevicePluggables(stored, DevicePluggablesData.of(deviceId, merged));
+    }
+
+    private static List<String> changes(PluggableData current, PluggableData fresh) {
+        List<String> changes = new ArrayList<>();
+        if (current == null) {
+            changes.add("port");
+            return changes;
+        }
+        if (!Objects.equals(current.getPluggableID(), fresh.getPluggableID())) {
+            changes.add("pluggableID");
+        }
+        if (!Objects.equals(current.getIsEnable(), fresh.getIsEnable())) {
+            changes.add("isEnabled");
+        }
+        if (!Objects.equals(current.getPluggableType(), fresh.getPluggableType())) {
+            changes.add("pluggableType");
+        }
+        if (!Objects.equals(current.getPluggableSpeed(), fresh.getPluggableSpeed())) {
+            changes.add("pluggableSpeed");
+        }
+        if (!Objects.equals(current.getPortType(), fresh.getPortType())) {
+            changes.add("portType");
+        }
+        if (!Objects.equals(current.getPortSpeed(), fresh.getPortSpeed())) {
+            changes.add("portSpeed");
+        }
+        if (!Objects.equals(current.getOpMode(), fresh.getOpMode())) {
+            changes.add("opMode");
+        }
+        if (!Objects.equals(current.getFrequency(), fresh.getFrequency())) {
+            changes.add("frequency");
+        }
+        if (!Objects.equals(current.getPower(), fresh.getPower())) {
+            changes.add("power");
+        }
+        return changes;
+    }
+}
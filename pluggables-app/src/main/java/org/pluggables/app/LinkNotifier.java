@@ -0,0 +1,422 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.Link;
+import org.pluggables.app.api.NotificationSubscriber;
+import org.pluggables.app.api.NotifierStatistics;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Notifies the links created and removed by the connections to the registered subscribers.
+ * Each subscriber has its own bounded queue and delivery thread, so that a slow or
+ * unreachable subscriber delays neither the provisioning nor the other subscribers.
+ * While a queue is backed up, a newer notification of a connection replaces the one
+ * still queued; a failed delivery is retried with an exponential backoff unless a
+ * newer notification of the same connection was queued in the meantime.
+ */
+final class LinkNotifier {
+
+    /** Id of the subscriber configured through the component properties. */
+    static final String DEFAULT_SUBSCRIBER = "default";
+
+    private static final String SRC = "src";
+    private static final String DST = "dst";
+    private static final String PORT = "port";
+    private static final String DEVICE = "device";
+    private static final String TYPE = "type";
+    private static final String STATE = "state";
+    private static final String CONNECTION_NAME = "connection-name";
+    private static final String POST = "POST";
+    private static final String DELETE = "DELETE";
+
+    private static final int MAX_PENDING = 1024;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger log = getLogger(getClass());
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+    private final Supplier<Collection<NotificationSubscriber>> registry;
+    private final PluggableMetrics metrics;
+    private final Map<String, SubscriberQueue> queues = Maps.newConcurrentMap();
+
+    private volatile NotificationSubscriber defaultSubscriber;
+    private volatile int maxRetries;
+
+    /**
+     * Creates a link notifier.
+     * @param registry provides the currently registered subscribers
+     * @param metrics metrics the deliveries are measured in
+     */
+    LinkNotifier(Supplier<Collection<NotificationSubscriber>> registry, PluggableMetrics metrics) {
+        this.registry = registry;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the subscriber configured through the component properties and the retries.
+     * @param endpoint URL of the default subscriber; empty if there is none
+     * @param username user of the basic authentication
+     * @param password password of the basic authentication
+     * @param maxRetries attempts made after a failed delivery before giving up
+     */
+    void configure(String endpoint, String username, String password, int maxRetries) {
+        this.defaultSubscriber = isNullOrEmpty(endpoint) ? null :
+                NotificationSubscriber.of(DEFAULT_SUBSCRIBER, endpoint.trim(), username, password);
+        this.maxRetries = maxRetries;
+        sync();
+    }
+
+    /**
+     * Notifies a link brought up by a connection.
+     * @param connectionName identify the connection
+     * @param src first end of the link
+     * @param dst second end of the link
+     * @param trace the run the delivery to each subscriber is traced in
+     */
+    void linkUp(String connectionName, ConnectPoint src, ConnectPoint dst, ConnectionTracer.Run trace) {
+        submit(POST, connectionName, src, dst, Link.State.ACTIVE, trace);
+    }
+
+    /**
+     * Notifies a link removed by the deletion of a connection.
+     * @param connectionName identify the connection
+     * @param src first end of the link
+     * @param dst second end of the link
+     * @param trace the run the delivery to each subscriber is traced in
+     */
+    void linkDown(String connectionName, ConnectPoint src, ConnectPoint dst, ConnectionTracer.Run trace) {
+        submit(DELETE, connectionName, src, dst, Link.State.INACTIVE, trace);
+    }
+
+    /**
+     * Aligns the delivery queues with the registered subscribers: queues are started
+     * for new subscribers and stopped for the removed or changed ones.
+     */
+    synchronized void sync() {
+        Map<String, NotificationSubscriber> subscribers = Maps.newHashMap();
+        registry.get().forEach(subscriber -> subscribers.put(subscriber.getId(), subscriber));
+        NotificationSubscriber configured = defaultSubscriber;
+        if (configured != null) {
+            subscribers.put(configured.getId(), configured);
+        }
+
+        Iterator<SubscriberQueue> iterator = queues.values().iterator();
+        while (iterator.hasNext()) {
+            SubscriberQueue queue = iterator.next();
+            if (!queue.subscriber.equals(subscribers.get(queue.subscriber.getId()))) {
+                iterator.remove();
+                queue.close();
+                if (!subscribers.containsKey(queue.subscriber.getId())) {
+                    metrics.removeScope(queue.subscriber.getId());
+                }
+                log.info("Stopped the link notifications to {}", queue.subscriber);
+            }
+        }
+        subscribers.values().forEach(subscriber -> queues.computeIfAbsent(subscriber.getId(), id -> {
+            log.info("Started the link notifications to {}", subscriber);
+            return new SubscriberQueue(subscriber);
+        }));
+    }
+
+    /**
+     * Returns the current counters of each subscriber.
+     * @return the notifier statistics, by subscriber id
+     */
+    Map<String, NotifierStatistics> statistics() {
+        ImmutableMap.Builder<String, NotifierStatistics> statistics = ImmutableMap.builder();
+        queues.forEach((id, queue) -> statistics.put(id, queue.statistics()));
+        return statistics.build();
+    }
+
+    /**
+     * Stops the delivery; pending notifications are discarded.
+     */
+    synchronized void shutdown() {
+        queues.values().forEach(SubscriberQueue::close);
+        queues.clear();
+    }
+
+    private void submit(String method, String connectionName, ConnectPoint src, ConnectPoint dst,
+                        Link.State state, ConnectionTracer.Run trace) {
+        sync();
+        if (queues.isEmpty()) {
+            log.debug("No subscriber, {} of {} not sent", method, connectionName);
+            return;
+        }
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(body(connectionName, src, dst, state));
+        } catch (JsonProcessingException e) {
+            log.error("Unable to encode the link of {}", connectionName, e);
+            return;
+        }
+        Map<String, ConnectionTracer.Span> spans = Maps.newHashMap();
+        queues.keySet().forEach(id -> spans.put(id, trace.start(ConnectionTracer.NOTIFY, id)));
+        Notification notification = new Notification(connectionName, method, body, spans);
+        queues.values().forEach(queue -> queue.offer(notification));
+    }
+
+    private ObjectNode body(String connectionName, ConnectPoint src, ConnectPoint dst, Link.State state) {
+        ObjectNode body = mapper.createObjectNode();
+        body.putObject(SRC)
+                .put(PORT, src.port().toString())
+                .put(DEVICE, src.deviceId().toString());
+        body.putObject(DST)
+                .put(PORT, dst.port().toString())
+                .put(DEVICE, dst.deviceId().toString());
+        body.put(TYPE, Link.Type.DIRECT.toString());
+        body.put(STATE, state.toString());
+        body.put(CONNECTION_NAME, connectionName);
+        return body;
+    }
+
+    /**
+     * A link notification, encoded once and shared by the subscribers,
+     * with the traced delivery to each of them.
+     */
+    private static final class Notification {
+        private final String connectionName;
+        private final String method;
+        private final byte[] body;
+        private final Map<String, ConnectionTracer.Span> spans;
+
+        private Notification(String connectionName, String method, byte[] body,
+                             Map<String, ConnectionTracer.Span> spans) {
+            this.connectionName = connectionName;
+            this.method = method;
+            this.body = body;
+            this.spans = spans;
+        }
+
+        private void delivered(String subscriberId) {
+            ConnectionTracer.Span span = spans.get(subscriberId);
+            if (span != null) {
+                span.succeed();
+            }
+        }
+
+        private void undelivered(String subscriberId, String reason) {
+            ConnectionTracer.Span span = spans.get(subscriberId);
+            if (span != null) {
+                span.fail(reason);
+            }
+        }
+    }
+
+    /**
+     * Queue and delivery thread of a subscriber.
+     */
+    private final class SubscriberQueue {
+        private final NotificationSubscriber subscriber;
+        private final URI endpoint;
+        private final String authorization;
+        private final ExecutorService deliveryThread;
+
+        /** Notifications waiting for delivery, at most one per connection; guarded by this. */
+        private final LinkedHashMap<String, Notification> queue = new LinkedHashMap<>();
+        private volatile boolean inFlight;
+        private volatile boolean closed;
+
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong superseded = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+        private final AtomicLong totalLatencyMillis = new AtomicLong();
+
+        private SubscriberQueue(NotificationSubscriber subscriber) {
+            this.subscriber = subscriber;
+            this.endpoint = URI.create(subscriber.getEndpoint());
+            this.authorization = isNullOrEmpty(subscriber.getUsername()) ? null :
+                    "Basic " + Base64.getEncoder().encodeToString(
+                            (subscriber.getUsername() + ":" + subscriber.getPassword())
+                                    .getBytes(StandardCharsets.UTF_8));
+            this.deliveryThread = Executors.newSingleThreadExecutor(
+                    groupedThreads("onos/pluggables", "link-notifier-" + subscriber.getId(), log));
+            deliveryThread.execute(this::deliverAll);
+        }
+
+        private synchronized void offer(Notification notification) {
+            if (closed) {
+                notification.undelivered(subscriber.getId(), "subscriber removed");
+                return;
+            }
+            if (queue.containsKey(notification.connectionName)) {
+                // Backed up: only the last state of the connection matters
+                queue.put(notification.connectionName, notification)
+                        .undelivered(subscriber.getId(), "superseded");
+                coalesced.incrementAndGet();
+            } else if (queue.size() >= MAX_PENDING) {
+                dropped.incrementAndGet();
+                notification.undelivered(subscriber.getId(), "dropped");
+                log.warn("Too many pending link notifications for {}, {} of {} dropped",
+                         subscriber.getId(), notification.method, notification.connectionName);
+                return;
+            } else {
+                queue.put(notification.connectionName, notification);
+            }
+            notifyAll();
+        }
+
+        private synchronized Notification take() throws InterruptedException {
+            while (queue.isEmpty()) {
+                wait();
+            }
+            Iterator<Notification> iterator = queue.values().iterator();
+            Notification next = iterator.next();
+            iterator.remove();
+            return next;
+        }
+
+        private synchronized boolean isQueued(String connectionName) {
+            return queue.containsKey(connectionName);
+        }
+
+        private void deliverAll() {
+            try {
+                while (!closed) {
+                    Notification notification = take();
+                    inFlight = true;
+                    try {
+                        deliver(notification);
+                    } finally {
+                        inFlight = false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void deliver(Notification notification) throws InterruptedException {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint)
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method(notification.method, HttpRequest.BodyPublishers.ofByteArray(notification.body));
+            if (authorization != null) {
+                builder.header("Authorization", authorization);
+            }
+            HttpRequest request = builder.build();
+
+            for (int attempt = 0; ; attempt++) {
+                String failure;
+                long start = System.currentTimeMillis();
+                PluggableMetrics.Sample sample = metrics.start(PluggableMetrics.Phase.REST_NOTIFY, subscriber.getId());
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    int status = response.statusCode();
+                    if (status < 300) {
+                        sample.success();
+                        notification.delivered(subscriber.getId());
+                        delivered.incrementAndGet();
+                        totalLatencyMillis.addAndGet(System.currentTimeMillis() - start);
+                        log.debug("{} of {} delivered to {}: {}", notification.method,
+                                  notification.connectionName, subscriber.getId(), status);
+                        return;
+                    }
+                    if (status < 500 && status != 429) {
+                        // Rejected by the subscriber, a retry would be rejected as well
+                        sample.error();
+                        notification.undelivered(subscriber.getId(), "HTTP " + status);
+                        failures.incrementAndGet();
+                        log.error("{} of {} rejected by {}: {}", notification.method,
+                                  notification.connectionName, subscriber.getId(), status);
+                        return;
+                    }
+                    failure = "HTTP " + status;
+                    sample.error();
+                } catch (IOException e) {
+                    failure = e.toString();
+                    sample.failure(e);
+                }
+
+                if (attempt >= maxRetries) {
+                    notification.undelivered(subscriber.getId(), failure);
+                    failures.incrementAndGet();
+                    log.error("Giving up {} of {} to {} after {} attempts: {}", notification.method,
+                              notification.connectionName, subscriber.getId(), attempt + 1, failure);
+                    return;
+                }
+                long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << attempt);
+                retries.incrementAndGet();
+                log.warn("{} of {} to {} failed ({}), retrying in {} ms", notification.method,
+                         notification.connectionName, subscriber.getId(), failure, backoff);
+                Thread.sleep(backoff);
+                if (isQueued(notification.connectionName)) {
+                    notification.undelivered(subscriber.getId(), "superseded");
+                    superseded.incrementAndGet();
+                    return;
+                }
+            }
+        }
+
+        private NotifierStatistics statistics() {
+            int pending;
+            synchronized (this) {
+                pending = queue.size();
+            }
+            long deliveredCount = delivered.get();
+            return new NotifierStatistics(pending + (inFlight ? 1 : 0), deliveredCount, retries.get(),
+                    failures.get(), dropped.get(), superseded.get(), coalesced.get(),
+                    deliveredCount == 0 ? 0 : totalLatencyMillis.get() / deliveredCount);
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                queue.values().forEach(notification ->
+                        notification.undelivered(subscriber.getId(), "subscriber removed"));
+                queue.clear();
+            }
+            deliveryThread.shutdownNow();
+        }
+    }
+}
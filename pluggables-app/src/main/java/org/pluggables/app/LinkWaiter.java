@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.Sets;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.Link;
+import org.onosproject.net.link.LinkEvent;
+import org.onosproject.net.link.LinkListener;
+import org.onosproject.net.link.LinkService;
+import org.slf4j.Logger;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A listener for Link events that completes the pending waits once the link
+ * between two connect points is detected or removed.
+ */
+final class LinkWaiter implements LinkListener {
+
+    private final Logger log = getLogger(getClass());
+
+    private final LinkService linkService;
+    private final Set<PendingWait> pending = Sets.newConcurrentHashSet();
+    private final ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(1, groupedThreads("onos/pluggables", "link-waiter", log));
+
+    /**
+     * Creates a link waiter.
+     * @param linkService service queried for the current state of the links
+     */
+    LinkWaiter(LinkService linkService) {
+        this.linkService = linkService;
+        // The timeouts of the completed waits are cancelled, they must not pile up in the queue
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Waits for a link, in any direction, between two connect points.
+     * @param one first end of the link
+     * @param two second end of the link
+     * @param timeoutMillis milliseconds to wait before failing
+     * @return a future completed once the link is detected, or failed with a
+     * TimeoutException once the deadline is over
+     */
+    CompletableFuture<Void> awaitLinkUp(ConnectPoint one, ConnectPoint two, long timeoutMillis) {
+        return await(one, two, true, timeoutMillis);
+    }
+
+    /**
+     * Waits for the link between two connect points to disappear in both directions.
+     * @param one first end of the link
+     * @param two second end of the link
+     * @param timeoutMillis milliseconds to wait before failing
+     * @return a future completed once the link is removed, or failed with a
+     * TimeoutException once the deadline is over
+     */
+    CompletableFuture<Void> awaitLinkDown(ConnectPoint one, ConnectPoint two, long timeoutMillis) {
+        return await(one, two, false, timeoutMillis);
+    }
+
+    /**
+     * Fails all the pending waits and stops the timer.
+     */
+    void shutdown() {
+        timer.shutdownNow();
+        pending.forEach(wait -> wait.future.cancel(false));
+        pending.clear();
+    }
+
+    @Override
+    public void event(LinkEvent event) {
+        Link link = event.subject();
+        boolean up = event.type() != LinkEvent.Type.LINK_REMOVED;
+        pending.forEach(wait -> {
+            if (wait.matches(link) && (wait.up ? up : !isLinkUp(wait.one, wait.two))) {
+                wait.future.complete(null);
+            }
+        });
+    }
+
+    private CompletableFuture<Void> await(ConnectPoint one, ConnectPoint two, boolean up, long timeoutMillis) {
+        PendingWait wait = new PendingWait(one, two, up);
+        // Registered before checking the current state, so that no event is missed in between
+        pending.add(wait);
+        wait.future.whenComplete((r, e) -> pending.remove(wait));
+
+        if (isLinkUp(one, two) == up) {
+            wait.future.complete(null);
+            return wait.future;
+        }
+        ScheduledFuture<?> timeout = timer.schedule(() -> wait.future.completeExceptionally(new TimeoutException(
+                String.format("Link %s between %s and %s not %s within %d ms",
+                              up ? "up" : "down", one, two, up ? "detected" : "removed", timeoutMillis))),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        wait.future.whenComplete((r, e) -> timeout.cancel(false));
+        return wait.future;
+    }
+
+    private boolean isLinkUp(ConnectPoint one, ConnectPoint two) {
+        return linkService.getLink(one, two) != null || linkService.getLink(two, one) != null;
+    }
+
+    private static final class PendingWait {
+        private final ConnectPoint one;
+        private final ConnectPoint two;
+        private final boolean up;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWait(ConnectPoint one, ConnectPoint two, boolean up) {
+            this.one = one;
+            this.two = two;
+            this.up = up;
+        }
+
+        private boolean matches(Link link) {
+            return (link.src().equals(one) && link.dst().equals(two))
+                    || (link.src().equals(two) && link.dst().equals(one));
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.Maps;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.config.NetworkConfigRegistry;
+import org.onosproject.netconf.NetconfController;
+import org.onosproject.netconf.NetconfDevice;
+import org.onosproject.netconf.NetconfException;
+import org.onosproject.netconf.NetconfSession;
+import org.onosproject.netconf.config.NetconfDeviceConfig;
+import org.pluggables.app.api.SessionPoolStatistics;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pool of long-lived NETCONF sessions, one per device hosting pluggables.
+ * The session of a device is the one the NETCONF controller holds for it,
+ * connected if needed from the NETCONF configuration of the device itself
+ * (address, port and credentials). Sessions are resolved lazily on first use,
+ * leased to the following RPCs, health-checked periodically with a cheap RPC
+ * and, if opened by the pool, closed once no longer leased and idle for too long.
+ * The health checks run on a bounded pool, so that a few unresponsive devices
+ * cannot hold back the checks and evictions of all the others.
+ */
+final class NetconfSessionManager {
+
+    private final Logger log = getLogger(getClass());
+
+    /** Cheapest RPC a device answers: a get whose empty filter selects no data (RFC 6241, 6.4.2). */
+    private static final String PROBE_RPC = "<rpc xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<get><filter type=\"subtree\"/></get></rpc>";
+
+    /** Maximum number of health checks running concurrently. */
+    private static final int PROBE_THREADS = 8;
+
+    private final NetconfController netconfController;
+    private final NetworkConfigRegistry netCfgService;
+    private final PluggableMetrics metrics;
+
+    private final Map<DeviceId, PooledSession> sessions = Maps.newConcurrentMap();
+    /** Serialize the connections to a device; dropped along with its session. */
+    private final Map<DeviceId, ReentrantLock> locks = Maps.newConcurrentMap();
+    private final ScheduledExecutorService maintenanceExecutor =
+            Executors.newSingleThreadScheduledExecutor(groupedThreads("onos/pluggables", "netconf-sessions", log));
+    private final ExecutorService probeExecutor =
+            Executors.newFixedThreadPool(PROBE_THREADS, groupedThreads("onos/pluggables", "netconf-probe-%d", log));
+    private ScheduledFuture<?> maintenanceTask;
+    private volatile long idleTimeoutMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong idleEvictions = new AtomicLong();
+    private final AtomicLong healthCheckFailures = new AtomicLong();
+
+    /**
+     * Creates a session manager.
+     * @param netconfController controller holding the NETCONF sessions of the devices
+     * @param netCfgService registry of the NETCONF configuration of the devices
+     * @param metrics metrics the connections are measured in
+     */
+    NetconfSessionManager(NetconfController netconfController, NetworkConfigRegistry netCfgService,
+                          PluggableMetrics metrics) {
+        this.netconfController = netconfController;
+        this.netCfgService = netCfgService;
+        this.metrics = metrics;
+    }
+
+    /**
+     * (Re)schedules the periodic health check and idle eviction of the pooled sessions.
+     * @param idleTimeout seconds a session may stay unused before being closed
+     * @param healthCheckPeriod seconds between two health checks
+     */
+    synchronized void configure(int idleTimeout, int healthCheckPeriod) {
+        idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeout);
+        if (maintenanceTask != null) {
+            maintenanceTask.cancel(false);
+        }
+        maintenanceTask = maintenanceExecutor.scheduleWithFixedDelay(this::maintain,
+                healthCheckPeriod, healthCheckPeriod, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Leases the open session towards the device, connecting it if needed.
+     * The session is not evicted while leased; the lease must be closed once
+     * the RPCs are sent.
+     * @param deviceId identify the device where the pluggables are attached
+     * @return the lease of the NETCONF session
+     * @throws NetconfException if the device cannot be connected
+     */
+    Lease lease(DeviceId deviceId) throws NetconfException {
+        PooledSession pooled = sessions.get(deviceId);
+        if (pooled != null && pooled.acquire()) {
+            hits.incrementAndGet();
+            return new Lease(pooled);
+        }
+        while (true) {
+            ReentrantLock lock = locks.computeIfAbsent(deviceId, k -> new ReentrantLock());
+            lock.lock();
+            try {
+                // Dropped while waiting for it, the current lock of the device is another one
+                if (locks.get(deviceId) == lock) {
+                    return connectOrReuse(deviceId);
+                }
+            } finally {
+                // Not kept for a device left without a session, e.g. an unreachable one
+                if (!sessions.containsKey(deviceId)) {
+                    locks.remove(deviceId, lock);
+                }
+                lock.unlock();
+            }
+        }
+    }
+
+    // Called with the lock of the device held
+    private Lease connectOrReuse(DeviceId deviceId) throws NetconfException {
+        PooledSession pooled = sessions.get(deviceId);
+        if (pooled != null && pooled.acquire()) {
+            hits.incrementAndGet();
+            return new Lease(pooled);
+        }
+        if (pooled != null) {
+            reconnects.incrementAndGet();
+            // Closed by whoever removes it, here or the maintenance task
+            if (sessions.remove(deviceId, pooled)) {
+                close(pooled);
+            }
+        } else {
+            connects.incrementAndGet();
+        }
+        PluggableMetrics.Sample sample = metrics.start(PluggableMetrics.Phase.CONNECT, deviceId.toString());
+        try {
+            pooled = connect(deviceId);
+            sample.success();
+        } catch (NetconfException | RuntimeException e) {
+            sample.failure(e);
+            throw e;
+        }
+        // A fresh session cannot be evicted before being pooled, only closed meanwhile
+        if (!pooled.acquire()) {
+            throw new NetconfException("NETCONF session to " + deviceId + " closed");
+        }
+        sessions.put(deviceId, pooled);
+        return new Lease(pooled);
+    }
+
+    /**
+     * Drops the pooled session of a device, e.g. after a failed RPC.
+     * The next request towards the device will open a new session.
+     * @param deviceId identify the device where the pluggables are attached
+     */
+    void invalidate(DeviceId deviceId) {
+        PooledSession pooled = sessions.remove(deviceId);
+        if (pooled != null) {
+            pooled.evict();
+            close(pooled);
+        }
+        dropLock(deviceId);
+    }
+
+    /**
+     * Drops the lock of a device without a session, unless a connection to the
+     * device is in progress: that connection still needs it.
+     * @param deviceId identify the device
+     */
+    private void dropLock(DeviceId deviceId) {
+        ReentrantLock lock = locks.get(deviceId);
+        if (lock != null && lock.tryLock()) {
+            try {
+                if (!sessions.containsKey(deviceId)) {
+                    locks.remove(deviceId, lock);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the current counters of the pool.
+     * @return the pool statistics
+     */
+    SessionPoolStatistics statistics() {
+        return new SessionPoolStatistics(sessions.size(), hits.get(), connects.get(), reconnects.get(),
+                idleEvictions.get(), healthCheckFailures.get());
+    }
+
+    /**
+     * Closes all the pooled sessions and stops the maintenance task.
+     */
+    void shutdown() {
+        maintenanceExecutor.shutdownNow();
+        probeExecutor.shutdownNow();
+        sessions.keySet().forEach(this::invalidate);
+    }
+
+    /**
+     * Closes the idle sessions and queues the health checks of the others.
+     */
+    void maintain() {
+        long now = System.currentTimeMillis();
+        sessions.forEach((deviceId, pooled) -> {
+            if (pooled.evictIfIdle(now, idleTimeoutMillis)) {
+                if (sessions.remove(deviceId, pooled)) {
+                    idleEvictions.incrementAndGet();
+                    log.debug("Closing idle NETCONF session of {}", deviceId);
+                    close(pooled);
+                    dropLock(deviceId);
+                }
+            } else if (!pooled.failed && pooled.probing.compareAndSet(false, true)) {
+                // A session whose previous check is still running is not checked again meanwhile
+                try {
+                    probeExecutor.execute(() -> check(pooled));
+                } catch (RejectedExecutionException e) {
+                    pooled.probing.set(false);
+                }
+            }
+        });
+    }
+
+    private void check(PooledSession pooled) {
+        try {
+            if (!probe(pooled) && !pooled.failed) {
+                // Counted once, the session stays pooled until the next request reconnects it
+                pooled.failed = true;
+                healthCheckFailures.incrementAndGet();
+                log.warn("NETCONF session of {} is down", pooled.deviceId);
+            }
+        } finally {
+            pooled.probing.set(false);
+        }
+    }
+
+    /**
+     * Tells whether a session still answers RPCs. A session may look active
+     * long after the device stopped answering, so a cheap RPC is sent on it;
+     * any reply, even an error, tells the session is alive.
+     */
+    private boolean probe(PooledSession pooled) {
+        if (!pooled.device.isActive() || pooled.device.getSession() == null) {
+            return false;
+        }
+        try {
+            pooled.device.getSession().requestSync(PROBE_RPC);
+            return true;
+        } catch (NetconfException | RuntimeException e) {
+            log.debug("Health check of the NETCONF session of {} failed", pooled.deviceId, e);
+            return false;
+        }
+    }
+
+    private PooledSession connect(DeviceId deviceId) throws NetconfException {
+        // Shares the session the controller already holds, e.g. the one of the NETCONF provider
+        NetconfDevice device = netconfController.getNetconfDevice(deviceId);
+        if (device != null && device.isActive() && device.getSession() != null) {
+            return new PooledSession(deviceId, device, false);
+        }
+        if (device != null) {
+            netconfController.disconnectDevice(deviceId, true);
+        }
+        if (netCfgService.getConfig(deviceId, NetconfDeviceConfig.class) == null) {
+            throw new NetconfException("No NETCONF configuration for " + deviceId);
+        }
+        // Connected with the address and credentials of the NETCONF configuration of the device
+        device = netconfController.connectDevice(deviceId);
+        if (device == null || device.getSession() == null) {
+            throw new NetconfException("Unable to open a NETCONF session to " + deviceId);
+        }
+        log.info("Opened NETCONF session to {}", deviceId);
+        return new PooledSession(deviceId, device, true);
+    }
+
+    private void close(PooledSession pooled) {
+        // A session the pool did not open belongs to its owner and stays open
+        if (!pooled.owned) {
+            return;
+        }
+        try {
+            netconfController.disconnectDevice(pooled.deviceId, true);
+        } catch (RuntimeException e) {
+            log.warn("Unable to close the NETCONF session of {}", pooled.deviceId, e);
+        }
+    }
+
+    /**
+     * Lease of a pooled session, to be closed once the RPCs are sent.
+     */
+    static final class Lease implements AutoCloseable {
+        private final PooledSession pooled;
+        private final NetconfSession session;
+
+        private Lease(PooledSession pooled) {
+            this.pooled = pooled;
+            this.session = pooled.device.getSession();
+        }
+
+        /**
+         * Returns the leased session.
+         * @return the NETCONF session
+         */
+        NetconfSession session() {
+            return session;
+        }
+
+        @Override
+        public void close() {
+            pooled.release();
+        }
+    }
+
+    private static final class PooledSession {
+        private final DeviceId deviceId;
+        private final NetconfDevice device;
+        private final boolean owned;
+
+        /** Set once a health check failed; the session is then reconnected on next lease. */
+        private volatile boolean failed;
+        /** Set while a health check of the session is queued or running. */
+        private final AtomicBoolean probing = new AtomicBoolean();
+
+        // Guarded by this
+        private int leases;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean evicted;
+
+        private PooledSession(DeviceId deviceId, NetconfDevice device, boolean owned) {
+            this.deviceId = deviceId;
+            this.device = device;
+            this.owned = owned;
+        }
+
+        private synchronized boolean acquire() {
+            if (evicted || failed || !device.isActive() || device.getSession() == null) {
+                return false;
+            }
+            leases++;
+            lastUsed = System.currentTimeMillis();
+            return true;
+        }
+
+        private synchronized void release() {
+            leases--;
+            lastUsed = System.currentTimeMillis();
+        }
+
+        private synchronized void evict() {
+            evicted = true;
+        }
+
+        private synchronized boolean evictIfIdle(long now, long idleTimeoutMillis) {
+            if (leases == 0 && now - lastUsed > idleTimeoutMillis) {
+                evicted = true;
+            }
+            return evicted;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+/**
+ * Constants for default values of configurable properties.
+ */
+public final class OsgiPropertyConstants {
+
+    private OsgiPropertyConstants() {
+    }
+
+    public static final String SESSION_IDLE_TIMEOUT = "sessionIdleTimeout";
+    public static final int SESSION_IDLE_TIMEOUT_DEFAULT = 300;
+
+    public static final String SESSION_HEALTH_CHECK_PERIOD = "sessionHealthCheckPeriod";
+    public static final int SESSION_HEALTH_CHECK_PERIOD_DEFAULT = 30;
+
+    public static final String LINK_UP_TIMEOUT = "linkUpTimeout";
+    public static final int LINK_UP_TIMEOUT_DEFAULT = 120;
+
+    public static final String LINK_DOWN_TIMEOUT = "linkDownTimeout";
+    public static final int LINK_DOWN_TIMEOUT_DEFAULT = 60;
+
+    public static final String INTENT_INSTALL_TIMEOUT = "intentInstallTimeout";
+    public static final int INTENT_INSTALL_TIMEOUT_DEFAULT = 30;
+
+    public static final String PROVISIONING_THREADS = "provisioningThreads";
+    public static final int PROVISIONING_THREADS_DEFAULT = 8;
+
+    public static final String BULK_CONCURRENCY = "bulkConcurrency";
+    public static final int BULK_CONCURRENCY_DEFAULT = 4;
+
+    public static final String INVENTORY_REFRESH_INTERVAL = "inventoryRefreshInterval";
+    public static final int INVENTORY_REFRESH_INTERVAL_DEFAULT = 60;
+
+    public static final String INVENTORY_REFRESH_THREADS = "inventoryRefreshThreads";
+    public static final int INVENTORY_REFRESH_THREADS_DEFAULT = 4;
+
+    public static final String NOTIFICATION_ENDPOINT = "notificationEndpoint";
+    public static final String NOTIFICATION_ENDPOINT_DEFAULT = "";
+
+    public static final String NOTIFICATION_USERNAME = "notificationUsername";
+    public static final String NOTIFICATION_USERNAME_DEFAULT = "";
+
+    public static final String NOTIFICATION_PASSWORD = "notificationPassword";
+    public static final String NOTIFICATION_PASSWORD_DEFAULT = "";
+
+    public static final String NOTIFICATION_MAX_RETRIES = "notificationMaxRetries";
+    public static final int NOTIFICATION_MAX_RETRIES_DEFAULT = 5;
+
+    public static final String DISCOVERY_DEVICES = "discoveryDevices";
+    public static final String DISCOVERY_DEVICES_DEFAULT = "";
+
+    public static final String DISCOVERY_DRIVERS = "discoveryDrivers";
+    public static final String DISCOVERY_DRIVERS_DEFAULT = "";
+
+    public static final String DISCOVERY_ANNOTATIONS = "discoveryAnnotations";
+    public static final String DISCOVERY_ANNOTATIONS_DEFAULT = "";
+
+    public static final String DISCOVERY_CONFIGS = "discoveryConfigs";
+    public static final String DISCOVERY_CONFIGS_DEFAULT = "netconf";
+
+    public static final String DISCOVERY_THREADS = "discoveryThreads";
+    public static final int DISCOVERY_THREADS_DEFAULT = 8;
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Unmodifiable hash map whose updates return a new map, sharing with the
+ * previous one all but the path to the updated key. The map is a trie of
+ * 32-way branches on successive 5 bits of the key hashes, each branch holding
+ * only its present children; an update copies one branch per level, so that
+ * it costs O(log32 n) whatever the size of the map. Keys and values are not null.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    /** A Leaf, a Collision or a Branch; null if empty. */
+    private final Object root;
+    private final int size;
+
+    private PersistentHashMap(Object root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns a map with a key mapped to a value, replacing any previous value.
+     * @param key the key
+     * @param value the value
+     * @return the updated map; this map is unchanged
+     */
+    PersistentHashMap<K, V> plus(K key, V value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        int newSize = containsKey(key) ? size : size + 1;
+        return new PersistentHashMap<>(put(root, 0, new Leaf(hash(key), key, value)), newSize);
+    }
+
+    /**
+     * Returns a map without a key.
+     * @param key the key
+     * @return the updated map, or this map if the key is not mapped
+     */
+    PersistentHashMap<K, V> minus(Object key) {
+        if (key == null || !containsKey(key)) {
+            return this;
+        }
+        return new PersistentHashMap<>(remove(root, 0, hash(key), key), size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = hash(key);
+        Object node = root;
+        for (int shift = 0; node instanceof Branch; shift += BITS) {
+            node = ((Branch) node).child(index(hash, shift));
+        }
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            return leaf.key.equals(key) ? (V) leaf.value : null;
+        }
+        if (node instanceof Collision) {
+            for (Leaf leaf : ((Collision) node).leaves) {
+                if (leaf.key.equals(key)) {
+                    return (V) leaf.value;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        // Spreads the high bits, as HashMap does
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int index(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private static Object put(Object node, int shift, Leaf leaf) {
+        if (node == null) {
+            return leaf;
+        }
+        if (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int index = index(leaf.hash, shift);
+            Object child = branch.child(index);
+            return branch.with(index, child == null ? leaf : put(child, shift + BITS, leaf));
+        }
+        int hash = node instanceof Leaf ? ((Leaf) node).hash : ((Collision) node).hash;
+        if (hash != leaf.hash) {
+            // Pushes the node down a branch, where the new leaf goes apart from it
+            return put(Branch.EMPTY.with(index(hash, shift), node), shift, leaf);
+        }
+        if (node instanceof Leaf) {
+            Leaf existing = (Leaf) node;
+            return existing.key.equals(leaf.key) ? leaf : new Collision(hash, new Leaf[] {existing, leaf});
+        }
+        return ((Collision) node).with(leaf);
+    }
+
+    private static Object remove(Object node, int shift, int hash, Object key) {
+        if (node instanceof Leaf) {
+            return ((Leaf) node).key.equals(key) ? null : node;
+        }
+        if (node instanceof Collision) {
+            return ((Collision) node).without(key);
+        }
+        Branch branch = (Branch) node;
+        int index = index(hash, shift);
+        Object child = branch.child(index);
+        if (child == null) {
+            return branch;
+        }
+        Branch updated = branch.with(index, remove(child, shift + BITS, hash, key));
+        if (updated.children.length == 0) {
+            return null;
+        }
+        // A single leaf needs no branch, it goes back up to where it was before the split
+        if (updated.children.length == 1 && !(updated.children[0] instanceof Branch)) {
+            return updated.children[0];
+        }
+        return updated;
+    }
+
+    /**
+     * A key and its value.
+     */
+    private static final class Leaf implements Map.Entry<Object, Object> {
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        private Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> that = (Map.Entry<?, ?>) o;
+            return key.equals(that.getKey()) && value.equals(that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Leaves of distinct keys of the same hash.
+     */
+    private static final class Collision {
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private Collision(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        private Collision with(Leaf leaf) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    Leaf[] updated = leaves.clone();
+                    updated[i] = leaf;
+                    return new Collision(hash, updated);
+                }
+            }
+            Leaf[] updated = Arrays.copyOf(leaves, leaves.length + 1);
+            updated[leaves.length] = leaf;
+            return new Collision(hash, updated);
+        }
+
+        private Object without(Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] updated = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, updated, 0, i);
+                    System.arraycopy(leaves, i + 1, updated, i, leaves.length - i - 1);
+                    return new Collision(hash, updated);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * The present children of a trie node, in index order, with a bitmap of their indexes.
+     */
+    private static final class Branch {
+        private static final Branch EMPTY = new Branch(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] children;
+
+        private Branch(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private Object child(int index) {
+            int bit = 1 << index;
+            return (bitmap & bit) != 0 ? children[position(bit)] : null;
+        }
+
+        /**
+         * Returns a copy of the branch with a child set, replaced or, if null, removed.
+         */
+        private Branch with(int index, Object child) {
+            int bit = 1 << index;
+            int position = position(bit);
+            if ((bitmap & bit) != 0) {
+                if (child == children[position]) {
+                    return this;
+                }
+                if (child != null) {
+                    Object[] updated = children.clone();
+                    updated[position] = child;
+                    return new Branch(bitmap, updated);
+                }
+                Object[] updated = new Object[children.length - 1];
+                System.arraycopy(children, 0, updated, 0, position);
+                System.arraycopy(children, position + 1, updated, position, children.length - position - 1);
+                return new Branch(bitmap & ~bit, updated);
+            }
+            if (child == null) {
+                return this;
+            }
+            Object[] updated = new Object[children.length + 1];
+            System.arraycopy(children, 0, updated, 0, position);
+            updated[position] = child;
+            System.arraycopy(children, position, updated, position + 1, children.length - position);
+            return new Branch(bitmap | bit, updated);
+        }
+
+        private int position(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    /**
+     * Walks the leaves of the trie depth first.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Iterator<Object>> path = new ArrayDeque<>();
+        private Leaf next;
+
+        private EntryIterator(Object root) {
+            if (root != null) {
+                path.push(Arrays.asList(root).iterator());
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !path.isEmpty()) {
+                Iterator<Object> current = path.peek();
+                if (!current.hasNext()) {
+                    path.pop();
+                    continue;
+                }
+                Object node = current.next();
+                if (node instanceof Leaf) {
+                    next = (Leaf) node;
+                } else if (node instanceof Collision) {
+                    path.push(Arrays.asList((Object[]) ((Collision) node).leaves).iterator());
+                } else {
+                    path.push(Arrays.asList(((Branch) node).children).iterator());
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> entry = (Map.Entry<K, V>) (Map.Entry<?, ?>) next;
+            advance();
+            return entry;
+        }
+    }
+}
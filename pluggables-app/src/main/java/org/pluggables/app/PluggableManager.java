@@ -15,36 +15,43 @@
  */
 package org.pluggables.app;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
-import org.apache.commons.configuration.HierarchicalConfiguration;
-import org.apache.commons.configuration.XMLConfiguration;
-import org.apache.commons.configuration.tree.xpath.XPathExpressionEngine;
-import org.onlab.packet.IpAddress;
+import com.google.common.primitives.Ints;
+import com.codahale.metrics.Metric;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.SharedExecutors;
 import org.onosproject.app.ApplicationAdminService;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.codec.CodecService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
+import org.onosproject.mastership.MastershipEvent;
+import org.onosproject.mastership.MastershipListener;
+import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.*;
 
+import org.onosproject.net.config.NetworkConfigEvent;
+import org.onosproject.net.config.NetworkConfigListener;
 import org.onosproject.net.config.NetworkConfigRegistry;
 import org.onosproject.net.device.*;
+import org.onosproject.net.driver.DriverService;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentService;
-import org.onosproject.net.intent.Key;
 import org.onosproject.net.intent.PointToPointIntent;
 import org.onosproject.net.link.*;
 import org.onosproject.netconf.*;
-import org.onosproject.drivers.utilities.XmlConfigParser;
 
 
-import org.onosproject.netconf.config.NetconfDeviceConfig;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.pluggables.app.api.*;
@@ -53,23 +60,91 @@ import org.slf4j.LoggerFactory;
 
 import org.pluggables.app.rest.PluggableCodec;
 import org.pluggables.app.rest.PluggablesCodec;
+import org.pluggables.app.rest.ProvisioningJobCodec;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
-
-import java.io.IOException;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
+import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.getIntegerProperty;
+import static org.pluggables.app.OsgiPropertyConstants.BULK_CONCURRENCY;
+import static org.pluggables.app.OsgiPropertyConstants.BULK_CONCURRENCY_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_ANNOTATIONS;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_ANNOTATIONS_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_CONFIGS;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_CONFIGS_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_DEVICES;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_DEVICES_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_DRIVERS;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_DRIVERS_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_THREADS;
+import static org.pluggables.app.OsgiPropertyConstants.DISCOVERY_THREADS_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.INTENT_INSTALL_TIMEOUT;
+import static org.pluggables.app.OsgiPropertyConstants.INTENT_INSTALL_TIMEOUT_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.INVENTORY_REFRESH_INTERVAL;
+import static org.pluggables.app.OsgiPropertyConstants.INVENTORY_REFRESH_INTERVAL_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.INVENTORY_REFRESH_THREADS;
+import static org.pluggables.app.OsgiPropertyConstants.INVENTORY_REFRESH_THREADS_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.LINK_DOWN_TIMEOUT;
+import static org.pluggables.app.OsgiPropertyConstants.LINK_DOWN_TIMEOUT_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.LINK_UP_TIMEOUT;
+import static org.pluggables.app.OsgiPropertyConstants.LINK_UP_TIMEOUT_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_ENDPOINT;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_ENDPOINT_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_MAX_RETRIES;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_MAX_RETRIES_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_PASSWORD;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_PASSWORD_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_USERNAME;
+import static org.pluggables.app.OsgiPropertyConstants.NOTIFICATION_USERNAME_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.PROVISIONING_THREADS;
+import static org.pluggables.app.OsgiPropertyConstants.PROVISIONING_THREADS_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.SESSION_HEALTH_CHECK_PERIOD;
+import static org.pluggables.app.OsgiPropertyConstants.SESSION_HEALTH_CHECK_PERIOD_DEFAULT;
+import static org.pluggables.app.OsgiPropertyConstants.SESSION_IDLE_TIMEOUT;
+import static org.pluggables.app.OsgiPropertyConstants.SESSION_IDLE_TIMEOUT_DEFAULT;
+
+import javax.xml.stream.XMLStreamException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.groupedThreads;
+
 /**
  * Application that manage the pluggables attached to a certain device .
  */
 @Component(immediate = true,
-           service = {DevicePluggables.class}
-           )
+           service = {DevicePluggables.class},
+           property = {
+                   SESSION_IDLE_TIMEOUT + ":Integer=" + SESSION_IDLE_TIMEOUT_DEFAULT,
+                   SESSION_HEALTH_CHECK_PERIOD + ":Integer=" + SESSION_HEALTH_CHECK_PERIOD_DEFAULT,
+                   LINK_UP_TIMEOUT + ":Integer=" + LINK_UP_TIMEOUT_DEFAULT,
+                   LINK_DOWN_TIMEOUT + ":Integer=" + LINK_DOWN_TIMEOUT_DEFAULT,
+                   INTENT_INSTALL_TIMEOUT + ":Integer=" + INTENT_INSTALL_TIMEOUT_DEFAULT,
+                   PROVISIONING_THREADS + ":Integer=" + PROVISIONING_THREADS_DEFAULT,
+                   BULK_CONCURRENCY + ":Integer=" + BULK_CONCURRENCY_DEFAULT,
+                   INVENTORY_REFRESH_INTERVAL + ":Integer=" + INVENTORY_REFRESH_INTERVAL_DEFAULT,
+                   INVENTORY_REFRESH_THREADS + ":Integer=" + INVENTORY_REFRESH_THREADS_DEFAULT,
+                   NOTIFICATION_ENDPOINT + "=" + NOTIFICATION_ENDPOINT_DEFAULT,
+                   NOTIFICATION_USERNAME + "=" + NOTIFICATION_USERNAME_DEFAULT,
+                   NOTIFICATION_PASSWORD + "=" + NOTIFICATION_PASSWORD_DEFAULT,
+                   NOTIFICATION_MAX_RETRIES + ":Integer=" + NOTIFICATION_MAX_RETRIES_DEFAULT,
+                   DISCOVERY_DEVICES + "=" + DISCOVERY_DEVICES_DEFAULT,
+                   DISCOVERY_DRIVERS + "=" + DISCOVERY_DRIVERS_DEFAULT,
+                   DISCOVERY_ANNOTATIONS + "=" + DISCOVERY_ANNOTATIONS_DEFAULT,
+                   DISCOVERY_CONFIGS + "=" + DISCOVERY_CONFIGS_DEFAULT,
+                   DISCOVERY_THREADS + ":Integer=" + DISCOVERY_THREADS_DEFAULT,
+           })
 
 public class PluggableManager implements DevicePluggables {
 
@@ -102,42 +177,152 @@ public class PluggableManager implements DevicePluggables {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected CodecService codecService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected DriverService driverService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MastershipService mastershipService;
+
     protected DeviceProviderService deviceProviderService;
     protected LinkProviderService linkProviderService;
     public static final String PLUGGABLE_APP = "org.pluggables.app";
 
-    private static final String OC_PLATFORM_TYPES_TRANSCEIVER =
-            "oc-platform-types:TRANSCEIVER";
-
-    private static final Integer PORT_NETCONF = 2022;
-    private static final String DEVICE_MLNX_1 = "device:10.30.2.44:50001";
-    private static final String DEVICE_MLNX_2 = "device:10.30.2.102:50001";
-    private static final String CONTROLLER_IP= "10.30.2.73";
+    private static final int MAX_PROVISIONING_QUEUE = 1024;
+    private static final int CONFIGURATION_THREADS = 16;
+    private static final int MAX_PROVISIONING_JOBS = 4096;
+    private static final int PROVISIONING_JOB_RETENTION = 60;
+    private static final int MAX_CONNECTION_TRACES = 1024;
+    private static final int MAX_THREADS = 256;
 
-    private ArrayList<DevicePluggablesData> storeDevicePluggables = new ArrayList<>();
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PluggableStore store;
 
     private DeviceListener deviceListenert;
-    private ApplicationId onosnetconf;
     private ApplicationId onosfaultmanagement;
     private ApplicationId appId;
     private final boolean deactivate_onos_app = true;
-    protected Map< String, Map<List<String>,List<DeviceId>>> connectionDB = Maps.newHashMap();
+
+    /** Seconds a pooled NETCONF session may stay unused before being closed. */
+    private int sessionIdleTimeout = SESSION_IDLE_TIMEOUT_DEFAULT;
+
+    /** Seconds between two health checks of the pooled NETCONF sessions. */
+    private int sessionHealthCheckPeriod = SESSION_HEALTH_CHECK_PERIOD_DEFAULT;
+
+    /** Seconds to wait for the link to come up once the pluggables are configured. */
+    private int linkUpTimeout = LINK_UP_TIMEOUT_DEFAULT;
+
+    /** Seconds to wait for the link to go down once the pluggables are disabled. */
+    private int linkDownTimeout = LINK_DOWN_TIMEOUT_DEFAULT;
+
+    /** Seconds to wait for the intents of a connection to be installed in both directions. */
+    private int intentInstallTimeout = INTENT_INSTALL_TIMEOUT_DEFAULT;
+
+    /** Number of threads running the asynchronous provisioning jobs. */
+    private int provisioningThreads = PROVISIONING_THREADS_DEFAULT;
+
+    /** Maximum number of connections of the bulk requests provisioned concurrently. */
+    private int bulkConcurrency = BULK_CONCURRENCY_DEFAULT;
+
+    /** Seconds between two refreshes of the pluggables state of a device; 0 disables the refresh. */
+    private int inventoryRefreshInterval = INVENTORY_REFRESH_INTERVAL_DEFAULT;
+
+    /** Maximum number of devices whose pluggables state is refreshed concurrently. */
+    private int inventoryRefreshThreads = INVENTORY_REFRESH_THREADS_DEFAULT;
+
+    /** URL the links created and removed by the connections are notified to; empty disables it. */
+    private String notificationEndpoint = NOTIFICATION_ENDPOINT_DEFAULT;
+
+    /** User authenticating the link notifications; empty sends them unauthenticated. */
+    private String notificationUsername = NOTIFICATION_USERNAME_DEFAULT;
+
+    /** Password authenticating the link notifications. */
+    private String notificationPassword = NOTIFICATION_PASSWORD_DEFAULT;
+
+    /** Attempts made after a failed link notification before giving up. */
+    private int notificationMaxRetries = NOTIFICATION_MAX_RETRIES_DEFAULT;
+
+    /** Ids of the devices whose pluggables are managed. */
+    private String discoveryDevices = DISCOVERY_DEVICES_DEFAULT;
+
+    /** Drivers of the devices whose pluggables are managed, including the drivers inheriting from them. */
+    private String discoveryDrivers = DISCOVERY_DRIVERS_DEFAULT;
+
+    /** Annotations, as key or key=value, of the devices whose pluggables are managed. */
+    private String discoveryAnnotations = DISCOVERY_ANNOTATIONS_DEFAULT;
+
+    /** Device config keys of the network configuration of the devices whose pluggables are managed. */
+    private String discoveryConfigs = DISCOVERY_CONFIGS_DEFAULT;
+
+    /** Maximum number of discovered devices inventoried concurrently. */
+    private int discoveryThreads = DISCOVERY_THREADS_DEFAULT;
+
+    private PluggableMetrics metrics;
+    private NetconfSessionManager sessionManager;
+    private LinkWaiter linkWaiter;
+    private IntentWaiter intentWaiter;
+    private InventoryRefresher inventoryRefresher;
+    private TransceiverNotifications notifications;
+    private LinkNotifier linkNotifier;
+    private DeviceDiscovery discovery;
+    private volatile DeviceSelector deviceSelector;
+    private final ThreadPoolExecutor provisioningExecutor = new ThreadPoolExecutor(
+            PROVISIONING_THREADS_DEFAULT, PROVISIONING_THREADS_DEFAULT, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_PROVISIONING_QUEUE),
+            groupedThreads("onos/pluggables", "provisioning-%d", log));
+    // Apart from the provisioning executor, so that the workers of bulk requests cannot starve the single ones
+    private final ThreadPoolExecutor bulkExecutor = new ThreadPoolExecutor(
+            BULK_CONCURRENCY_DEFAULT, BULK_CONCURRENCY_DEFAULT, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_PROVISIONING_QUEUE),
+            groupedThreads("onos/pluggables", "bulk-%d", log));
+    private final ExecutorService configurationExecutor = Executors.newFixedThreadPool(
+            CONFIGURATION_THREADS, groupedThreads("onos/pluggables", "configuration-%d", log));
+    private final Cache<String, ProvisioningJob> provisioningJobs = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PROVISIONING_JOBS)
+            .expireAfterWrite(PROVISIONING_JOB_RETENTION, TimeUnit.MINUTES)
+            .build();
+    private final ConnectionTracer tracer = new ConnectionTracer(MAX_CONNECTION_TRACES);
+    private final MastershipListener mastershipListener = new InternalMastershipListener();
+    private final NetworkConfigListener netCfgListener = new InternalNetworkConfigListener();
 
     @Activate
-    protected void activate() {
-        appId = coreService.registerApplication("org.pluggables.app");
-        onosnetconf = coreService.getAppId("org.onosproject.netconf");
-        onosfaultmanagement = coreService.getAppId("org.onosproject.faultmanagement");
+    protected void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        metrics = new PluggableMetrics(metricsService);
+        sessionManager = new NetconfSessionManager(netconfController, netCfgService, metrics);
+        linkNotifier = new LinkNotifier(() -> store.getSubscribers(), metrics);
+        linkWaiter = new LinkWaiter(linkService);
+        linkService.addListener(linkWaiter);
+        intentWaiter = new IntentWaiter(intentService);
+        intentService.addListener(intentWaiter);
+        notifications = new TransceiverNotifications(sessionManager, store,
+                                                     deviceId -> inventoryRefresher.refreshNow(deviceId));
+        inventoryRefresher = new InventoryRefresher(store, this::readPluggables, notifications::subscribe,
+                                                    mastershipService::isLocalMaster);
+        discovery = new DeviceDiscovery(deviceId -> {
+            // The mastership may have moved while the device was queued
+            if (mastershipService.isLocalMaster(deviceId)) {
+                createDevicePluggables(deviceId);
+            }
+        });
+        // Registered before the devices already known are discovered, so that none is missed
         deviceListenert = new DevListener();
         deviceService.addListener(deviceListenert);
+        mastershipService.addListener(mastershipListener);
+        netCfgService.addListener(netCfgListener);
+        modified(context);
+        appId = coreService.registerApplication("org.pluggables.app");
+        onosfaultmanagement = coreService.getAppId("org.onosproject.faultmanagement");
         codecService.registerCodec(DevicePluggablesData.class, new PluggablesCodec());
         codecService.registerCodec(PluggableData.class, new PluggableCodec());
+        codecService.registerCodec(ProvisioningJob.class, new ProvisioningJobCodec());
 
         if (deactivate_onos_app) {
             try {
+                // The NETCONF application is required by this one, hence active already
                 applicationAdminService.activate(onosfaultmanagement);
-                applicationAdminService.activate(onosnetconf);
-                log.info("### Activating Onos Netconf App ###");
             } catch (NullPointerException ne) {
                 log.info(ne.getMessage());
             }
@@ -149,24 +334,211 @@ public class PluggableManager implements DevicePluggables {
     protected void deactivate() {
         cfgService.unregisterProperties(getClass(), false);
         deviceService.removeListener(deviceListenert);
+        mastershipService.removeListener(mastershipListener);
+        netCfgService.removeListener(netCfgListener);
+        linkService.removeListener(linkWaiter);
+        intentService.removeListener(intentWaiter);
+        provisioningExecutor.shutdownNow();
+        bulkExecutor.shutdownNow();
+        configurationExecutor.shutdownNow();
+        discovery.shutdown();
+        inventoryRefresher.shutdown();
+        notifications.shutdown();
+        linkWaiter.shutdown();
+        intentWaiter.shutdown();
+        linkNotifier.shutdown();
+        sessionManager.shutdown();
+        metrics.shutdown();
         deviceProviderService = null;
         linkProviderService = null;
         log.info("Stopped");
     }
 
+    @Modified
+    protected void modified(ComponentContext context) {
+        Dictionary<?, ?> properties = context != null ? context.getProperties() : new Properties();
+
+        // A bad value falls back to the default or to the bound it crosses, never leaving the configuration
+        // half applied
+        sessionIdleTimeout = integerProperty(properties, SESSION_IDLE_TIMEOUT, SESSION_IDLE_TIMEOUT_DEFAULT,
+                                             1, Integer.MAX_VALUE);
+        sessionHealthCheckPeriod = integerProperty(properties, SESSION_HEALTH_CHECK_PERIOD,
+                                                   SESSION_HEALTH_CHECK_PERIOD_DEFAULT, 1, Integer.MAX_VALUE);
+        linkUpTimeout = integerProperty(properties, LINK_UP_TIMEOUT, LINK_UP_TIMEOUT_DEFAULT, 1, Integer.MAX_VALUE);
+        linkDownTimeout = integerProperty(properties, LINK_DOWN_TIMEOUT, LINK_DOWN_TIMEOUT_DEFAULT,
+                                          1, Integer.MAX_VALUE);
+        intentInstallTimeout = integerProperty(properties, INTENT_INSTALL_TIMEOUT, INTENT_INSTALL_TIMEOUT_DEFAULT,
+                                               1, Integer.MAX_VALUE);
+        provisioningThreads = integerProperty(properties, PROVISIONING_THREADS, PROVISIONING_THREADS_DEFAULT,
+                                              1, MAX_THREADS);
+        bulkConcurrency = integerProperty(properties, BULK_CONCURRENCY, BULK_CONCURRENCY_DEFAULT, 1, MAX_THREADS);
+        inventoryRefreshInterval = integerProperty(properties, INVENTORY_REFRESH_INTERVAL,
+                                                   INVENTORY_REFRESH_INTERVAL_DEFAULT, 0, Integer.MAX_VALUE);
+        inventoryRefreshThreads = integerProperty(properties, INVENTORY_REFRESH_THREADS,
+                                                  INVENTORY_REFRESH_THREADS_DEFAULT, 1, MAX_THREADS);
+
+        String s = get(properties, NOTIFICATION_ENDPOINT);
+        notificationEndpoint = s == null ? NOTIFICATION_ENDPOINT_DEFAULT : s.trim();
+
+        s = get(properties, NOTIFICATION_USERNAME);
+        notificationUsername = isNullOrEmpty(s) ? NOTIFICATION_USERNAME_DEFAULT : s.trim();
+
+        s = get(properties, NOTIFICATION_PASSWORD);
+        notificationPassword = isNullOrEmpty(s) ? NOTIFICATION_PASSWORD_DEFAULT : s.trim();
+
+        notificationMaxRetries = integerProperty(properties, NOTIFICATION_MAX_RETRIES,
+                                                 NOTIFICATION_MAX_RETRIES_DEFAULT, 0, Integer.MAX_VALUE);
+
+        s = get(properties, DISCOVERY_DEVICES);
+        discoveryDevices = s == null ? DISCOVERY_DEVICES_DEFAULT : s.trim();
+
+        s = get(properties, DISCOVERY_DRIVERS);
+        discoveryDrivers = s == null ? DISCOVERY_DRIVERS_DEFAULT : s.trim();
+
+        s = get(properties, DISCOVERY_ANNOTATIONS);
+        discoveryAnnotations = s == null ? DISCOVERY_ANNOTATIONS_DEFAULT : s.trim();
+
+        s = get(properties, DISCOVERY_CONFIGS);
+        discoveryConfigs = s == null ? DISCOVERY_CONFIGS_DEFAULT : s.trim();
+
+        discoveryThreads = integerProperty(properties, DISCOVERY_THREADS, DISCOVERY_THREADS_DEFAULT,
+                                           1, MAX_THREADS);
+
+        sessionManager.configure(sessionIdleTimeout, sessionHealthCheckPeriod);
+        linkNotifier.configure(notificationEndpoint, notificationUsername, notificationPassword,
+                               notificationMaxRetries);
+        inventoryRefresher.configure(inventoryRefreshInterval, inventoryRefreshThreads);
+        discovery.configure(discoveryThreads);
+        deviceSelector = new DeviceSelector(driverService, netCfgService, discoveryDevices, discoveryDrivers,
+                                            discoveryAnnotations, discoveryConfigs);
+        discoverDevices();
+        resize(provisioningExecutor, provisioningThreads);
+        resize(bulkExecutor, bulkConcurrency);
+        log.info("Configured. Session idle timeout is {}s, health check period is {}s, " +
+                         "link up timeout is {}s, link down timeout is {}s, intent install timeout is {}s, " +
+                         "provisioning threads are {}, " +
+                         "bulk concurrency is {}, inventory refresh interval is {}s with {} threads, " +
+                         "link notifications to '{}' with {} retries, " +
+                         "discovery of {} with {} threads",
+                 sessionIdleTimeout, sessionHealthCheckPeriod, linkUpTimeout, linkDownTimeout,
+                 intentInstallTimeout, provisioningThreads, bulkConcurrency, inventoryRefreshInterval, inventoryRefreshThreads,
+                 notificationEndpoint, notificationMaxRetries, deviceSelector, discoveryThreads);
+    }
+
+    /**
+     * Gets an integer property, logging and replacing a value that is not a number
+     * by the default and one out of its range by the bound it crosses.
+     * @param properties the component properties
+     * @param name the property name
+     * @param defaultValue the value of a missing or malformed property
+     * @param min the lowest valid value
+     * @param max the highest valid value
+     * @return the property value
+     */
+    private int integerProperty(Dictionary<?, ?> properties, String name, int defaultValue, int min, int max) {
+        String s = get(properties, name);
+        if (!isNullOrEmpty(s) && Ints.tryParse(s.trim()) == null) {
+            log.warn("Rejected {} of {}, not a number, using {}", s, name, defaultValue);
+        }
+        int value = getIntegerProperty(properties, name, defaultValue);
+        int clamped = Math.max(min, Math.min(max, value));
+        if (clamped != value) {
+            log.warn("Rejected {} of {}, out of [{}, {}], using {}", value, name, min, max, clamped);
+        }
+        return clamped;
+    }
+
+    /**
+     * Sets the number of threads of an executor, in the order its bounds allow.
+     * @param executor the executor
+     * @param threads the number of threads
+     */
+    private static void resize(ThreadPoolExecutor executor, int threads) {
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
     @Override
     public DevicePluggablesData createDevicePluggables(DeviceId deviceId) {
         requireNonNull(deviceId);
         DevicePluggablesData devPluggablesData = DevicePluggablesData.of(deviceId,retreivePluggablesData(deviceId));
-        storeDevicePluggables.add(devPluggablesData);
-        log.info(storeDevicePluggables.toString());
+        if (deviceService.getDevice(deviceId) == null) {
+            // Removed while being read, not stored again
+            log.info("{} removed during its inventory", deviceId);
+            return devPluggablesData;
+        }
+        store.putDevicePluggables(devPluggablesData);
+        if (!notifications.subscribe(deviceId)) {
+            log.info("{} does not support notifications, its pluggables are polled", deviceId);
+        }
+        log.info(devPluggablesData.toString());
         return devPluggablesData;
     }
 
     @Override
     public Collection<DevicePluggablesData> allDevicePluggables(){
-        if(storeDevicePluggables.isEmpty()){ return null; }
-        return ImmutableSet.copyOf(storeDevicePluggables);
+        return store.getDevicePluggables();
+    }
+
+    @Override
+    public DevicePluggablesData getDevicePluggables(DeviceId deviceId) {
+        return store.getDevicePluggables(deviceId);
+    }
+
+    @Override
+    public InventorySnapshot inventorySnapshot() {
+        return store.getSnapshot();
+    }
+
+    @Override
+    public SessionPoolStatistics sessionStatistics() {
+        return sessionManager.statistics();
+    }
+
+    @Override
+    public Map<String, NotifierStatistics> notifierStatistics() {
+        return linkNotifier.statistics();
+    }
+
+    @Override
+    public Map<String, Metric> metrics() {
+        return metrics.metrics();
+    }
+
+    @Override
+    public List<ConnectionTrace> connectionTraces(String connectionName) {
+        return tracer.traces(connectionName);
+    }
+
+    @Override
+    public Map<String, PhaseSummary> traceSummary(String connectionName) {
+        return ConnectionTracer.summarize(tracer.traces(connectionName));
+    }
+
+    @Override
+    public void addSubscriber(NotificationSubscriber subscriber) {
+        requireNonNull(subscriber);
+        checkArgument(!LinkNotifier.DEFAULT_SUBSCRIBER.equals(subscriber.getId()),
+                      "Subscriber %s is configured through the component properties", subscriber.getId());
+        store.putSubscriber(subscriber);
+        linkNotifier.sync();
+    }
+
+    @Override
+    public NotificationSubscriber removeSubscriber(String id) {
+        NotificationSubscriber removed = store.removeSubscriber(id);
+        linkNotifier.sync();
+        return removed;
+    }
+
+    @Override
+    public Collection<NotificationSubscriber> getSubscribers() {
+        return store.getSubscribers();
     }
 
 
@@ -180,58 +552,242 @@ public class PluggableManager implements DevicePluggables {
     public void configureDevicePluggable(ArrayList<DevicePluggablesData> deviceConfPluggables,
                                          ArrayList<ConnectPoint> connetPoints, String connectioname)
             throws InterruptedException {
-        List<DeviceId> Deviceplugabble = new ArrayList<>();
-        List<ConnectPoint> connect = new ArrayList<>();
-        deviceConfPluggables.forEach( devConfPlug -> {
-            getStoredPluggables(devConfPlug.getDeviceId()).forEach(pluggableData -> {
-                devConfPlug.getPluggables().forEach(pluggableDataConf -> {
-                    log.info(pluggableDataConf.toString());
-                   if(pluggableData.getPluggableID().equals(pluggableDataConf.getPluggableID())){
-                       pluggableData.setFrequency(pluggableDataConf.getFrequency());
-                       pluggableData.setPower(pluggableDataConf.getPower());
-                       pluggableData.setOpMode(pluggableDataConf.getOpMode());
-                       Deviceplugabble.add(devConfPlug.getDeviceId());
-                       connect.add(ConnectPoint.fromString(devConfPlug.getDeviceId().toString()+"/4"));
-                       configurePluggableData(devConfPlug.getDeviceId(),pluggableData);
-                   }
-                });
+        ProvisioningJob job = ProvisioningJob.of(connectioname);
+        provisioningJobs.put(job.getId(), job);
+        provision(job, deviceConfPluggables, connetPoints, connectioname);
+    }
+
+    @Override
+    public ProvisioningJob configureDevicePluggableAsync(ArrayList<DevicePluggablesData> deviceConfPluggables,
+                                                         ArrayList<ConnectPoint> connetPoints,
+                                                         String connectioname) {
+        ProvisioningJob job = ProvisioningJob.of(connectioname);
+        provisioningJobs.put(job.getId(), job);
+        try {
+            provisioningExecutor.execute(() -> {
+                try {
+                    provision(job, deviceConfPluggables, connetPoints, connectioname);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    log.error("Provisioning of {} failed", connectioname, e);
+                }
             });
+        } catch (RejectedExecutionException e) {
+            job.fail("Too many pending provisioning jobs");
+        }
+        return job;
+    }
+
+    @Override
+    public List<ProvisioningJob> configureDevicePluggables(List<ConnectionRequest> requests) {
+        List<ProvisioningJob> jobs = new ArrayList<>();
+        Map<ConnectionRequest, ProvisioningJob> requestJobs = new IdentityHashMap<>();
+        requests.forEach(request -> {
+            ProvisioningJob job = ProvisioningJob.of(request.getConnectionName());
+            provisioningJobs.put(job.getId(), job);
+            requestJobs.put(request, job);
+            jobs.add(job);
         });
 
-        while(linkService.getLink(ConnectPoint.fromString(deviceConfPluggables.get(0).getDeviceId().toString() +"/4"),
-                ConnectPoint.fromString(deviceConfPluggables.get(1).getDeviceId().toString()+"/4")) == null
-                && linkService.getLink(ConnectPoint.fromString(deviceConfPluggables.get(1).getDeviceId().toString()+"/4"),
-                ConnectPoint.fromString(deviceConfPluggables.get(0).getDeviceId().toString()+"/4")) == null)
-        {
-            log.info("DENTRO WHILE");
-            Thread.sleep(10);
+        DeviceLanes<ConnectionRequest> lanes = new DeviceLanes<>(requests, ConnectionRequest::getDeviceIds);
+        int workers = Math.min(bulkConcurrency, requests.size());
+        int started = 0;
+        for (int i = 0; i < workers; i++) {
+            try {
+                bulkExecutor.execute(() -> provisionLanes(lanes, requestJobs));
+                started++;
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        if (started == 0) {
+            lanes.clear();
+            jobs.forEach(job -> job.fail("Too many pending provisioning jobs"));
+        }
+        log.info("Provisioning {} connections with {} workers", requests.size(), started);
+        return jobs;
+    }
+
+    /**
+     * Provisions the connections of a bulk request until none is left, one connection
+     * at a time per device.
+     * @param lanes the connections still to provision
+     * @param requestJobs the job tracking each connection
+     */
+    private void provisionLanes(DeviceLanes<ConnectionRequest> lanes,
+                                Map<ConnectionRequest, ProvisioningJob> requestJobs) {
+        try {
+            ConnectionRequest request;
+            while ((request = lanes.take()) != null) {
+                try {
+                    provision(requestJobs.get(request), request.getDevicePluggables(), request.getConnectPoints(),
+                              request.getConnectionName());
+                } catch (RuntimeException e) {
+                    log.error("Provisioning of {} failed", request.getConnectionName(), e);
+                } finally {
+                    lanes.release(request);
+                }
+            }
+        } catch (InterruptedException e) {
+            lanes.clear().forEach(request -> requestJobs.get(request).fail("Interrupted"));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public ProvisioningJob getProvisioningJob(String jobId) {
+        return provisioningJobs.getIfPresent(jobId);
+    }
+
+    /**
+     * Runs the provisioning of a connection, tracking its progress in the given job.
+     * @param job the provisioning job
+     * @param deviceConfPluggables contains the pluggables configuration that has to be set to the pluggable
+     * @param connetPoints identify the connect point for enstablishing the connection
+     * @param connectioname identify the connection
+     */
+    private void provision(ProvisioningJob job, ArrayList<DevicePluggablesData> deviceConfPluggables,
+                           ArrayList<ConnectPoint> connetPoints, String connectioname)
+            throws InterruptedException {
+        ConnectionTracer.Run trace = tracer.start(connectioname, ConnectionTrace.Operation.CONFIGURE);
+        try {
+            doProvision(job, deviceConfPluggables, connetPoints, connectioname, trace);
+            job.succeed();
+            trace.succeed();
+        } catch (InterruptedException e) {
+            job.fail("Interrupted");
+            trace.fail("Interrupted");
+            throw e;
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            trace.fail(e.getMessage());
+            throw e;
+        }
+    }
+
+    private void doProvision(ProvisioningJob job, ArrayList<DevicePluggablesData> deviceConfPluggables,
+                             ArrayList<ConnectPoint> connetPoints, String connectioname,
+                             ConnectionTracer.Run trace)
+            throws InterruptedException {
+        job.setPhase(ProvisioningJob.Phase.CONFIGURING_PLUGGABLES);
+        checkArgument(deviceConfPluggables.size() == 2,
+                      "A connection has two sides, %s given", deviceConfPluggables.size());
+        ListMultimap<DeviceId, PluggableData> channels = ArrayListMultimap.create();
+        List<ConnectPoint> linkEnds = new ArrayList<>(2);
+        for (DevicePluggablesData devConfPlug : deviceConfPluggables) {
+            DeviceId deviceId = devConfPlug.getDeviceId();
+            Set<PortNumber> ports = new LinkedHashSet<>();
+            for (PluggableData pluggableDataConf : devConfPlug.getPluggables()) {
+                log.info(pluggableDataConf.toString());
+                PluggableData stored = findPluggable(deviceId, pluggableDataConf);
+                // The stored pluggable is shared with the readers of the store, change a copy of it
+                PluggableData pluggableData = PluggableData.copyOf(stored);
+                pluggableData.setFrequency(pluggableDataConf.getFrequency());
+                pluggableData.setPower(pluggableDataConf.getPower());
+                pluggableData.setOpMode(pluggableDataConf.getOpMode());
+                channels.put(deviceId, pluggableData);
+                ports.add(pluggableData.getPort());
+            }
+            // The side of the link is the port the pluggables of the device are plugged in
+            checkArgument(ports.size() == 1 && !ports.contains(null),
+                          "Pluggables of %s must be plugged in exactly one port, found %s", deviceId, ports);
+            linkEnds.add(new ConnectPoint(deviceId, ports.iterator().next()));
         }
+        Map<DeviceId, List<PortNumber>> enabled = Maps.newHashMap();
+        channels.forEach((deviceId, pluggableData) ->
+                enabled.computeIfAbsent(deviceId, k -> new ArrayList<>()).add(pluggableData.getPort()));
+
         PointToPointIntent.Builder builder = PointToPointIntent.builder();
         builder.appId(appId);
         builder.priority(55);
         builder.filteredIngressPoint(new FilteredConnectPoint(connetPoints.get(0)));
         builder.filteredEgressPoint(new FilteredConnectPoint(connetPoints.get(1)));
-        Map<List<String>, List<DeviceId>> connection = Maps.newHashMap();
-        List<String> key = new ArrayList<>();
-
-        intentService.submit(builder.build());
+        PointToPointIntent forward = builder.build();
 
         PointToPointIntent.Builder builder2 = PointToPointIntent.builder();
         builder2.appId(appId);
         builder2.priority(55);
         builder2.filteredIngressPoint(new FilteredConnectPoint(connetPoints.get(1)));
         builder2.filteredEgressPoint(new FilteredConnectPoint(connetPoints.get(0)));
+        PointToPointIntent backward = builder2.build();
+
+        // Recorded before the first edit-config, so that a connection failing at any step, e.g. the
+        // rejection by one of its endpoints or the link not coming up, can still be deleted and its
+        // channels disabled
+        PluggableConnection connection = PluggableConnection.of(connectioname,
+                ImmutableList.of(forward.key(), backward.key()), enabled, ImmutableList.copyOf(linkEnds));
+        store.putConnection(connection);
+        String[] devices = {linkEnds.get(0).deviceId().toString(), linkEnds.get(1).deviceId().toString()};
+        try {
+            // The endpoints are independent until the link check, configure them concurrently,
+            // all the channels of a device in a single edit-config
+            List<CompletableFuture<Void>> configurations = new ArrayList<>();
+            channels.asMap().forEach((deviceId, pluggables) -> configurations.add(CompletableFuture.runAsync(
+                    () -> configurePluggableData(deviceId, pluggables, trace), configurationExecutor)));
+            await(CompletableFuture.allOf(configurations.toArray(new CompletableFuture[0])));
+            // Stored only once both endpoints accepted their configuration
+            channels.forEach(store::updatePluggable);
+
+            job.setPhase(ProvisioningJob.Phase.WAITING_LINK);
+            PluggableMetrics.Sample linkWait = metrics.start(PluggableMetrics.Phase.LINK_WAIT, devices);
+            ConnectionTracer.Span linkUp = trace.start(ConnectionTracer.LINK_UP,
+                                                       linkEnds.get(0) + "-" + linkEnds.get(1));
+            await(linkWaiter.awaitLinkUp(linkEnds.get(0), linkEnds.get(1),
+                                         TimeUnit.SECONDS.toMillis(linkUpTimeout))
+                          .whenComplete(traced(linkUp)),
+                  linkWait);
+        } catch (IllegalStateException | InterruptedException e) {
+            store.putConnection(connection.withState(PluggableConnection.State.FAILED));
+            throw e;
+        }
 
-        intentService.submit(builder2.build());
+        job.setPhase(ProvisioningJob.Phase.INSTALLING_INTENTS);
+        connection = connection.withState(PluggableConnection.State.INSTALLING);
+        store.putConnection(connection);
+        PluggableMetrics.Sample intentSubmit = metrics.start(PluggableMetrics.Phase.INTENT_SUBMIT, devices);
+        List<CompletableFuture<Void>> installations = new ArrayList<>();
+        for (PointToPointIntent intent : ImmutableList.of(forward, backward)) {
+            ConnectionTracer.Span install = trace.start(ConnectionTracer.INTENT_INSTALL, intent.key().toString());
+            installations.add(intentWaiter.awaitInstalled(intent.key(),
+                                                          TimeUnit.SECONDS.toMillis(intentInstallTimeout))
+                                      .whenComplete(traced(install)));
+            intentService.submit(intent);
+        }
+        try {
+            await(CompletableFuture.allOf(installations.toArray(new CompletableFuture[0])), intentSubmit);
+        } catch (IllegalStateException e) {
+            store.putConnection(connection.withState(PluggableConnection.State.FAILED));
+            throw e;
+        }
+        store.putConnection(connection.withState(PluggableConnection.State.ACTIVE));
+        job.setPhase(ProvisioningJob.Phase.NOTIFYING);
+        linkNotifier.linkUp(connectioname, linkEnds.get(0), linkEnds.get(1), trace);
+    }
 
-        Thread.sleep(100);
-        intentService.getIntents().forEach(intent -> {
-            key.add(intent.key().toString());
-        });
-        connection.put(key, Deviceplugabble);
-        connectionDB.put(connectioname,connection);
-        postLinkREST(CONTROLLER_IP,connectioname,connect.get(0),connect.get(1),
-                        Link.Type.DIRECT.toString());
+    /**
+     * Finds the stored pluggable a connection request configures: the one on the requested
+     * port if given, otherwise the one with the requested pluggable ID, which identifies a
+     * model of pluggable rather than a pluggable and must then be found on a single port.
+     * @param deviceId identify the device where the pluggable is attached
+     * @param pluggableDataConf the requested configuration of the pluggable
+     * @return the stored pluggable
+     * @throws IllegalArgumentException if no pluggable, or several, match the request
+     */
+    PluggableData findPluggable(DeviceId deviceId, PluggableData pluggableDataConf) {
+        String pluggableId = pluggableDataConf.getPluggableID();
+        PortNumber port = pluggableDataConf.getPort();
+        if (port != null) {
+            PluggableData stored = store.getPluggable(deviceId, port);
+            checkArgument(stored != null && Objects.equals(pluggableId, stored.getPluggableID()),
+                          "No pluggable %s on port %s of %s", pluggableId, port, deviceId);
+            return stored;
+        }
+        Collection<PluggableData> stored = store.getPluggables(deviceId, pluggableId);
+        checkArgument(!stored.isEmpty(), "No pluggable %s on %s", pluggableId, deviceId);
+        checkArgument(stored.size() == 1, "Pluggable %s found on %s ports of %s, its port must be given",
+                      pluggableId, stored.size(), deviceId);
+        return stored.iterator().next();
     }
 
     /**
@@ -241,58 +797,212 @@ public class PluggableManager implements DevicePluggables {
     @Override
     public void deleteConfigureDevicePluggable(String connectioname) throws InterruptedException {
         log.info("deleteConfigureDevicePluggable");
-        log.info(connectionDB.toString());
-        connectionDB.get(connectioname).forEach((key, deviceIds) -> {
-            key.forEach(key1-> {
-                Intent intent = intentService.getIntent(Key.of(Long.decode(key1), appId));
-                intentService.withdraw(intent);
-                deviceIds.forEach( deviceId -> {
-                        deleteConfigurePluggableData(deviceId);
-                        }
-                );
+        PluggableConnection connection = store.getConnection(connectioname);
+        checkArgument(connection != null, "Unknown connection %s", connectioname);
+        log.info(connection.toString());
+        ConnectionTracer.Run trace = tracer.start(connectioname, ConnectionTrace.Operation.DELETE);
+        try {
+            connection.getIntentKeys().forEach(key -> {
+                Intent intent = intentService.getIntent(key);
+                if (intent != null) {
+                    intentService.withdraw(intent);
+                }
             });
+            connection.getChannels().forEach((deviceId, channels) ->
+                    deleteConfigurePluggableData(deviceId, channels, trace));
+            List<ConnectPoint> linkEnds = connection.getLinkEnds();
+            PluggableMetrics.Sample linkWait = metrics.start(PluggableMetrics.Phase.LINK_WAIT,
+                                                             linkEnds.get(0).deviceId().toString(),
+                                                             linkEnds.get(1).deviceId().toString());
+            ConnectionTracer.Span linkDown = trace.start(ConnectionTracer.LINK_DOWN,
+                                                         linkEnds.get(0) + "-" + linkEnds.get(1));
+            await(linkWaiter.awaitLinkDown(linkEnds.get(0), linkEnds.get(1),
+                                           TimeUnit.SECONDS.toMillis(linkDownTimeout))
+                          .whenComplete(traced(linkDown)),
+                  linkWait);
+            linkNotifier.linkDown(connectioname, linkEnds.get(0), linkEnds.get(1), trace);
+        } catch (InterruptedException e) {
+            trace.fail("Interrupted");
+            throw e;
+        } catch (RuntimeException e) {
+            trace.fail(e.getMessage());
+            throw e;
+        }
+        trace.succeed();
 
-        });
-        Map<List<String>,List<DeviceId>>  mp = connectionDB.get(connectioname);
-        while(linkService.getLink( ConnectPoint.fromString(mp.entrySet().iterator().next().getValue().get(0).toString() +"/4"),
-                ConnectPoint.fromString(mp.entrySet().iterator().next().getValue().get(1).toString()+"/4")) != null){
-                log.info("while deleteConfigureDevicePluggable");
-                Thread.sleep(100);
+        store.removeConnection(connectioname);
+    }
+
+    /**
+     * Blocks until a provisioning step completes.
+     * @param step the pending step, e.g. the pluggables configuration or a link wait
+     * @throws IllegalStateException if the step fails or is not completed before its deadline
+     */
+    private void await(CompletableFuture<?> step) throws InterruptedException {
+        try {
+            step.get();
+        } catch (ExecutionException e) {
+            log.error(e.getCause().getMessage());
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
         }
-        deleteLinkREST(CONTROLLER_IP,connectioname,
-                    ConnectPoint.fromString(mp.entrySet().iterator().next().getValue().get(0).toString()+"/4"),
-                    ConnectPoint.fromString(mp.entrySet().iterator().next().getValue().get(1).toString()+"/4"));
+    }
 
-        connectionDB.remove(connectioname);
+    /**
+     * Blocks until a provisioning step completes, measuring it.
+     * @param step the pending step
+     * @param sample the measure of the step, started when the step was
+     * @throws IllegalStateException if the step fails or is not completed before its deadline
+     */
+    private void await(CompletableFuture<?> step, PluggableMetrics.Sample sample) throws InterruptedException {
+        try {
+            await(step);
+            sample.success();
+        } catch (IllegalStateException e) {
+            sample.failure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the completion action ending a traced phase with the outcome of its step.
+     * @param span the traced phase
+     * @return the action to run on the completion of the step
+     */
+    private static BiConsumer<Object, Throwable> traced(ConnectionTracer.Span span) {
+        return (result, failure) -> {
+            if (failure == null) {
+                span.succeed();
+            } else {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null ?
+                        failure.getCause() : failure;
+                span.fail(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+        };
+    }
+
+    /**
+     * Queues the inventory of the available devices selected for discovery whose pluggables
+     * are not known yet, e.g. those added before the activation or a change of the selectors.
+     */
+    private void discoverDevices() {
+        DeviceSelector selector = deviceSelector;
+        for (Device device : deviceService.getAvailableDevices()) {
+            if (mastershipService.isLocalMaster(device.id())
+                    && store.getDevicePluggables(device.id()) == null && selector.matches(device)) {
+                discovery.submit(device.id());
+            }
+        }
     }
 
     /**
      * A listener for Device events. Once are detected the devices with the pluggables it triggers the
-     * creation of the related data structure.
+     * creation of the related data structure, on the discovery workers rather than on the event thread.
      */
     class DevListener implements DeviceListener {
         @Override
         public void event(DeviceEvent event) {
-            if (event.type().equals(DeviceEvent.Type.DEVICE_ADDED)) {
+            DeviceSelector selector = deviceSelector;
+            Device device = event.subject();
+            switch (event.type()) {
+                case DEVICE_ADDED:
+                    if (selector != null && mastershipService.isLocalMaster(device.id()) && selector.matches(device)) {
+                        discovery.submit(device.id());
+                    }
+                    break;
+                case DEVICE_AVAILABILITY_CHANGED:
+                    // A selected device unavailable when the selectors were applied is inventoried once available
+                    if (selector != null && deviceService.isAvailable(device.id())
+                            && mastershipService.isLocalMaster(device.id())
+                            && store.getDevicePluggables(device.id()) == null && selector.matches(device)) {
+                        discovery.submit(device.id());
+                    }
+                    break;
+                case DEVICE_REMOVED:
+                    discovery.cancel(device.id());
+                    // Closing the subscription and the session may wait for the device, not done on the event thread
+                    SharedExecutors.getPoolThreadExecutor().execute(() -> releaseDevice(device.id()));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
 
-                if(event.subject().id().toString().equals(DEVICE_MLNX_1) |
-                        event.subject().id().toString().equals(DEVICE_MLNX_2)){
-                    createDevicePluggables(DeviceId.deviceId(event.subject().id().toString()));
+    /**
+     * Moves the per-device work, inventory, refresh and notification subscription,
+     * along with the mastership of the devices: a node becoming the master of a
+     * selected device inventories it and subscribes to it, a node losing it closes
+     * its subscription.
+     */
+    class InternalMastershipListener implements MastershipListener {
+        @Override
+        public void event(MastershipEvent event) {
+            if (event.type() != MastershipEvent.Type.MASTER_CHANGED) {
+                return;
+            }
+            DeviceId deviceId = event.subject();
+            if (mastershipService.isLocalMaster(deviceId)) {
+                DeviceSelector selector = deviceSelector;
+                Device device = deviceService.getDevice(deviceId);
+                if (selector != null && device != null && selector.matches(device)) {
+                    discovery.submit(deviceId);
                 }
+            } else {
+                SharedExecutors.getPoolThreadExecutor().execute(() -> notifications.unsubscribe(deviceId));
+            }
+        }
+    }
+
+    /**
+     * Discovers the devices selected by their network configuration: a device once a
+     * config is added to it, all the available devices once a config key is registered,
+     * e.g. by an application activated after this one.
+     */
+    class InternalNetworkConfigListener implements NetworkConfigListener {
+        @Override
+        public boolean isRelevant(NetworkConfigEvent event) {
+            switch (event.type()) {
+                case CONFIG_REGISTERED:
+                    return true;
+                case CONFIG_ADDED:
+                case CONFIG_UPDATED:
+                    return event.subject() instanceof DeviceId;
+                default:
+                    return false;
             }
+        }
 
+        @Override
+        public void event(NetworkConfigEvent event) {
+            DeviceSelector selector = deviceSelector;
+            if (selector == null) {
+                return;
+            }
+            if (event.type() == NetworkConfigEvent.Type.CONFIG_REGISTERED) {
+                // Walks all the devices, not done on the event thread
+                SharedExecutors.getPoolThreadExecutor().execute(PluggableManager.this::discoverDevices);
+                return;
+            }
+            DeviceId deviceId = (DeviceId) event.subject();
+            Device device = deviceService.getDevice(deviceId);
+            if (device != null && deviceService.isAvailable(deviceId) && mastershipService.isLocalMaster(deviceId)
+                    && store.getDevicePluggables(deviceId) == null && selector.matches(device)) {
+                discovery.submit(deviceId);
+            }
         }
     }
 
     /**
-     * Get the configuration from the xml config.
-     * @return The xml string
+     * Forgets a removed device: its pluggables, its notification subscription,
+     * its pooled NETCONF session and its metrics.
+     * @param deviceId identify the device where the pluggables are attached
      */
-    private String getConfiguration() {
-        StringBuilder filter = new StringBuilder();
-        filter.append("<components xmlns='http://openconfig.net/yang/platform'>");
-        filter.append("</components>");
-        return filter.toString();
+    private void releaseDevice(DeviceId deviceId) {
+        store.removeDevicePluggables(deviceId);
+        notifications.unsubscribe(deviceId);
+        sessionManager.invalidate(deviceId);
+        metrics.removeScope(deviceId.toString());
+        log.info("Released the pluggables of removed device {}", deviceId);
     }
 
     /**
@@ -303,402 +1013,186 @@ public class PluggableManager implements DevicePluggables {
      */
     private ArrayList<PluggableData> retreivePluggablesData(DeviceId deviceId){
 
-        log.info("**********************************************");
-        log.info("DENTRO retreivePluggablesData");
-        log.info("**********************************************");
-
+        log.debug("Retrieving the pluggables of {}", deviceId);
         ArrayList<PluggableData> pluggables = new ArrayList<PluggableData>();
-        DeviceId deviceId1 = DeviceId.deviceId("netconf:"+
-                deviceId.toString().split("device:")[1].split(":")[0]
-                +":2022");
-
-        NetconfDeviceConfig netCfg  = netCfgService.addConfig( deviceId1, NetconfDeviceConfig.class);
-
-        netCfg.setIp(deviceId.toString().split("device:")[1].split(":")[0]);
-        netCfg.setPort(PORT_NETCONF);
-        netCfg.setUsername("admin");
-        netCfg.setPassword("admin");
-
-        NetconfDeviceInfo deviceInfo = new NetconfDeviceInfo(netCfg);
-        netconfController.setNetconfDevice(deviceId1,deviceInfo);
-
-        try {
-
-            netconfController.connectDevice(deviceId1);
-        } catch (NetconfException e) {
-            e.printStackTrace();
-        }
-
-        NetconfDevice conn = netconfController.getNetconfDevice( IpAddress.valueOf(
-                deviceId.toString().split("device:")[1].split(":")[0]),
-                PORT_NETCONF);
         try {
-            String reply = conn.getSession().getConfig(DatastoreId.RUNNING, getConfiguration());
-            XMLConfiguration xconf = (XMLConfiguration) XmlConfigParser.loadXmlString(reply);
-            XPathExpressionEngine xpe = new XPathExpressionEngine();
-            xconf.setExpressionEngine(xpe);
-            HierarchicalConfiguration components = xconf.configurationAt("data/components");
-            pluggables.addAll(parseDevicePluggable(deviceId, components));
-
+            pluggables.addAll(readPluggables(deviceId));
         } catch (NetconfException e) {
-            e.printStackTrace();
+            log.error("Unable to retrieve the pluggables of {}", deviceId, e);
+        } catch (XMLStreamException e) {
+            log.error("Unable to parse the pluggables of {}", deviceId, e);
         }
         return pluggables;
     }
 
     /**
-     * Configure a pluggable attached to a certain device
+     * Read the current state of the pluggables attached to a certain device
      * @param deviceId identify the device where the pluggable is attached
-     * @param confPluggableData contains the pluggable configuration that has to be set.
+     *
+     * @return List of PluggableData
+     * @throws NetconfException if the device cannot be queried
+     * @throws XMLStreamException if the device reply is not well formed
      */
-    private void configurePluggableData(DeviceId deviceId, PluggableData confPluggableData){
-
-        log.info("**********************************************");
-        log.info("DENTRO configurePluggableData");
-        log.info(" conf data" + confPluggableData.toString());
-        log.info("**********************************************");
-
-        //DeviceId deviceId1 = DeviceId.deviceId("netconf:127.0.0.1:2022");
-        DeviceId deviceId1 = DeviceId.deviceId("netconf:"+
-                deviceId.toString().split("device:")[1].split(":")[0]+
-                ":2022");
-        NetconfDeviceConfig netCfg  = netCfgService.addConfig( deviceId1, NetconfDeviceConfig.class);
-
-        //netCfg.setIp("127.0.0.1");
-        netCfg.setIp(deviceId.toString().split("device:")[1].split(":")[0]);
-        netCfg.setPort(PORT_NETCONF);
-        netCfg.setUsername("admin");
-        netCfg.setPassword("admin");
-
-        NetconfDeviceInfo deviceInfo = new NetconfDeviceInfo(netCfg);
-        netconfController.setNetconfDevice(deviceId1,deviceInfo);
-
-        try {
-            netconfController.connectDevice(deviceId1);
-        } catch (NetconfException e) {
-            e.printStackTrace();
-        }
-
-        NetconfDevice conn = netconfController.getNetconfDevice( IpAddress.valueOf(
-                deviceId.toString().split("device:")[1].split(":")[0]),
-                PORT_NETCONF);
-
-        try {
-                conn.getSession().editConfig(DatastoreId.RUNNING, null, setConfPlug(confPluggableData));
-                conn.disconnect();
-
+    private List<PluggableData> readPluggables(DeviceId deviceId) throws NetconfException, XMLStreamException {
+        String reply;
+        try (NetconfSessionManager.Lease lease = sessionManager.lease(deviceId)) {
+            PluggableMetrics.Sample sample = metrics.start(PluggableMetrics.Phase.GET_CONFIG, deviceId.toString());
+            try {
+                // The transceiver leaves are operational state, only a get returns them
+                reply = lease.session().get(TransceiverReplyParser.TRANSCEIVER_STATE_FILTER, null);
+                sample.success();
+            } catch (NetconfException e) {
+                sample.failure(e);
+                throw e;
+            }
         } catch (NetconfException e) {
-            e.printStackTrace();
+            sessionManager.invalidate(deviceId);
+            throw e;
         }
-
+        return parseTransceivers(deviceId, reply);
     }
 
     /**
-     * Disable the pluggable attached to a certain device
-     * @param deviceId identify the device where the pluggable is attached
+     * Configure the pluggables attached to a certain device
+     * @param deviceId identify the device where the pluggables are attached
+     * @param confPluggablesData contains the pluggables configuration that has to be set.
+     * @param trace the run the edit-config is traced in
+     * @throws IllegalStateException if the configuration cannot be pushed to the device or is rejected by it
      */
-    private void deleteConfigurePluggableData(DeviceId deviceId){
-
-        log.info("**********************************************");
-        log.info("DENTRO deleteconfigurePluggableData");
-        log.info("**********************************************");
-
-        DeviceId deviceId1 = DeviceId.deviceId("netconf:"+
-                deviceId.toString().split("device:")[1].split(":")[0]+
-                ":2022");
-        NetconfDeviceConfig netCfg  = netCfgService.addConfig( deviceId1, NetconfDeviceConfig.class);
-
-        netCfg.setIp(deviceId.toString().split("device:")[1].split(":")[0]);
-        netCfg.setPort(PORT_NETCONF);
-        netCfg.setUsername("admin");
-        netCfg.setPassword("admin");
+    private void configurePluggableData(DeviceId deviceId, Collection<PluggableData> confPluggablesData,
+                                        ConnectionTracer.Run trace){
 
-        NetconfDeviceInfo deviceInfo = new NetconfDeviceInfo(netCfg);
-        netconfController.setNetconfDevice(deviceId1,deviceInfo);
+        log.debug("Configuring the pluggables {} of {}", confPluggablesData, deviceId);
 
+        boolean accepted;
         try {
-            netconfController.connectDevice(deviceId1);
+            accepted = editConfig(deviceId, EditConfigTemplates.configureChannels(confPluggablesData), trace);
         } catch (NetconfException e) {
-            e.printStackTrace();
+            sessionManager.invalidate(deviceId);
+            throw new IllegalStateException("Unable to configure the pluggables " +
+                    confPluggablesData.stream().map(PluggableData::getPluggableID).collect(Collectors.toList()) +
+                    " of " + deviceId, e);
         }
-
-        NetconfDevice conn = netconfController.getNetconfDevice( IpAddress.valueOf(
-                deviceId.toString().split("device:")[1].split(":")[0]),
-                PORT_NETCONF);
-
-        try {   //TODO make it better
-            conn.getSession().editConfig(DatastoreId.RUNNING, null, deleteConfPlug());
-            //conn.getSession().editConfig(DatastoreId.RUNNING, null, setConfPower(confPluggableData));
-            //conn.getSession().editConfig(DatastoreId.RUNNING, null, setConfOPmode(confPluggableData));
-            conn.disconnect();
-
-        } catch (NetconfException e) {
-            log.info("MANNAGGIAS");
-            e.printStackTrace();
+        if (!accepted) {
+            throw new IllegalStateException("Configuration of the pluggables " +
+                    confPluggablesData.stream().map(PluggableData::getPluggableID).collect(Collectors.toList()) +
+                    " rejected by " + deviceId);
         }
 
     }
 
     /**
-     * Retrieve all the pluggables information attached to a certain device
+     * Disable the logical channels of the pluggables attached to a certain device
      * @param deviceId identify the device where the pluggables are attached
-     *
-     * @return List of PluggableData
+     * @param channels the logical channels to disable
+     * @param trace the run the edit-config is traced in
      */
-    private ArrayList<PluggableData> getStoredPluggables(DeviceId deviceId){
+    private void deleteConfigurePluggableData(DeviceId deviceId, Collection<PortNumber> channels,
+                                              ConnectionTracer.Run trace){
 
-        ArrayList<PluggableData> pluggableData = new ArrayList<>();
-        storeDevicePluggables.forEach( devplug -> {
-            if(devplug.getDeviceId().equals(deviceId)){
-                pluggableData.addAll(devplug.getPluggables());
+        log.debug("Disabling the channels {} of {}", channels, deviceId);
+
+        try {
+            if (!editConfig(deviceId, EditConfigTemplates.disableChannels(channels), trace)) {
+                log.error("Disabling the channels {} rejected by {}", channels, deviceId);
             }
-        });
+        } catch (NetconfException e) {
+            sessionManager.invalidate(deviceId);
+            log.error("Unable to disable the channels {} of {}", channels, deviceId, e);
+        }
 
-        return pluggableData;
     }
 
     /**
-     * Parses port information from OpenConfig XML configuration.
-     *
-     * @param components the XML document with components root.
-     * @return List of PluggableData
-     *
-     * //CHECKSTYLE:OFF
-     * <pre>{@code
-     *   <components xmlns="http://openconfig.net/yang/platform">
-     *     <component>....
-     *     </component>
-     *     <component>....
-     *     </component>
-     *   </components>
-     * }</pre>
-     * //CHECKSTYLE:ON
+     * Pushes a configuration to the running datastore of a device, measuring the RPC
+     * and tracing it, session opening included.
+     * @param deviceId identify the device where the pluggables are attached
+     * @param config the edit-config body
+     * @param trace the run the edit-config is traced in
+     * @return true if the device accepted the configuration
+     * @throws NetconfException if the device cannot be reached
      */
-    protected List<PluggableData> parseDevicePluggable(DeviceId deviceId, HierarchicalConfiguration components) {
-
-        return components.configurationsAt("component").stream()
-                .filter(component -> {
-                    return !component.getString("name", "unknown").equals("unknown")&&
-                            component.getString("state/type", "unknown")
-                                    .equals(OC_PLATFORM_TYPES_TRANSCEIVER);
-                })
-                .map(component -> {
-                            try {;
-                                // Pass the root document for cross-reference
-                                return parsePluggabeComponent(deviceId, component);
-                            } catch (Exception e) {
-                                return null;
-                            }
-                        }
-                ).filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    private boolean editConfig(DeviceId deviceId, String config, ConnectionTracer.Run trace) throws NetconfException {
+        ConnectionTracer.Span span = trace.start(ConnectionTracer.EDIT_CONFIG, deviceId.toString());
+        NetconfSessionManager.Lease lease;
+        try {
+            lease = sessionManager.lease(deviceId);
+        } catch (NetconfException e) {
+            span.fail(e.getMessage());
+            throw e;
+        }
+        PluggableMetrics.Sample sample = metrics.start(PluggableMetrics.Phase.EDIT_CONFIG, deviceId.toString());
+        boolean accepted;
+        try {
+            accepted = lease.session().editConfig(DatastoreId.RUNNING, null, config);
+        } catch (NetconfException e) {
+            sample.failure(e);
+            span.fail(e.getMessage());
+            throw e;
+        } finally {
+            lease.close();
+        }
+        if (accepted) {
+            sample.success();
+            span.succeed();
+        } else {
+            sample.error();
+            span.fail("Rejected");
+            log.warn("Configuration rejected by {}", deviceId);
+        }
+        return accepted;
     }
 
     /**
-     * Parses a component XML doc into PluggableData.
-     *
-     * @param component subtree to parse. It must be a component ot type PluggableData.
+     * Parses the transceivers carried by a NETCONF reply, resolving their port type and speed
+     * against a single snapshot of the device ports. Frequency, power and operational mode are
+     * taken from the optical channel of the pluggable if reported, kept from the store otherwise.
      * @param deviceId identify the device where the pluggables are attached
+     * @param reply the NETCONF reply
      *
-     * @return PluggableData
+     * @return List of PluggableData
+     * @throws XMLStreamException if the reply is not well formed
      */
-    private PluggableData parsePluggabeComponent(DeviceId deviceId, HierarchicalConfiguration component) {
-        PluggableData pluggableData = PluggableData.of(
-                component.getString("transceiver/state/vendor").concat("-")
-                .concat(component.getString("transceiver/state/vendor-part")).concat("-")
-                .concat(component.getString("transceiver/state/vendor-rev")));
-        pluggableData.setPort(PortNumber.fromString(
-                component.getString("name").split("-")[1]));
-        pluggableData.setPortType(deviceService.getPort(deviceId,PortNumber.fromString(
-                component.getString("name").split("-")[1])).type());
-        pluggableData.setPortSpeed(deviceService.getPort(deviceId,PortNumber.fromString(
-                component.getString("name").split("-")[1])).portSpeed());
-        pluggableData.setPluggableSpeed(Long.decode(component.getString("transceiver/state/ethernet-pmd-preconf")
-                .split(":ETH_")[1].split("GBASE_ZR")[0]));
-        pluggableData.setPluggableType(component.getString("transceiver/state/module-functional-type")
-                .split(":TYPE_")[1]);
-        pluggableData.setIsEnable(Boolean.valueOf(component.getString("transceiver/state/enabled")));
-        return pluggableData;
+    List<PluggableData> parseTransceivers(DeviceId deviceId, String reply) throws XMLStreamException {
+        Map<PortNumber, Port> ports = portSnapshot(deviceId);
+        Map<PortNumber, TransceiverReplyParser.ChannelState> channels = Maps.newHashMap();
+        List<PluggableData> pluggables = new ArrayList<>();
+        TransceiverReplyParser.parse(reply, pluggableData -> {
+            Port port = ports.get(pluggableData.getPort());
+            if (port == null) {
+                log.warn("Port {} of pluggable {} not found on {}", pluggableData.getPort(),
+                         pluggableData.getPluggableID(), deviceId);
+                return;
+            }
+            pluggableData.setPortType(port.type());
+            pluggableData.setPortSpeed(port.portSpeed());
+            pluggables.add(pluggableData);
+        }, channel -> channels.put(channel.port(), channel));
+
+        pluggables.forEach(pluggableData -> {
+            TransceiverReplyParser.ChannelState channel = channels.get(pluggableData.getPort());
+            PluggableData stored = store.getPluggable(deviceId, pluggableData.getPort());
+            if (channel != null) {
+                channel.applyTo(pluggableData);
+            } else if (stored != null) {
+                pluggableData.setFrequency(stored.getFrequency());
+                pluggableData.setPower(stored.getPower());
+                pluggableData.setOpMode(stored.getOpMode());
+            }
+        });
+        return pluggables;
     }
 
     /**
-     * Create a xml string for configuring the pluggable
-     * @param confPluggableData contains the parameter that must be configured on the pluggable
+     * Takes a snapshot of the ports of a device, giving a consistent view of them
+     * for a whole inventory pass.
+     * @param deviceId identify the device where the pluggables are attached
      *
-     * @return The xml string
+     * @return the device ports by number
      */
-    private String setConfPlug(PluggableData confPluggableData) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("<components xmlns='http://openconfig.net/yang/platform'>");
-            sb.append("<component>");
-            sb.append("<name>");
-            sb.append("channel-".concat(confPluggableData.getPort().toString()));
-            sb.append("</name>");
-            sb.append("<oc-opt-term:optical-channel xmlns:oc-opt-term='http://openconfig.net/yang/terminal-device'>");
-            sb.append("<oc-opt-term:config>");
-            sb.append("<oc-opt-term:frequency>".concat(String.valueOf(
-                    (int) confPluggableData.getFrequency().asGHz())));
-            sb.append("</oc-opt-term:frequency>");
-            sb.append("<oc-opt-term:target-output-power>".concat(confPluggableData.getPower().toString()));
-            sb.append("</oc-opt-term:target-output-power>");
-            sb.append("<oc-opt-term:operational-mode>".concat(confPluggableData.getOpMode()));
-            sb.append("</oc-opt-term:operational-mode>");
-            sb.append("</oc-opt-term:config>");
-            sb.append("</oc-opt-term:optical-channel>");
-            sb.append("</component>");
-            sb.append("</components>");
-            sb.append("<terminal-device xmlns='http://openconfig.net/yang/terminal-device'>");
-            sb.append("<logical-channels>");
-            sb.append("<channel>");
-            sb.append("<index>".concat(confPluggableData.getPort().toString()));
-            sb.append("</index>");
-            sb.append("<config>");
-            sb.append("<admin-state>"+"ENABLED");
-            sb.append("</admin-state>");
-            sb.append("</config>");
-            sb.append("</channel>");
-            sb.append("</logical-channels>");
-            sb.append("</terminal-device>");
-
-        return sb.toString();
+    private Map<PortNumber, Port> portSnapshot(DeviceId deviceId) {
+        Map<PortNumber, Port> ports = Maps.newHashMap();
+        deviceService.getPorts(deviceId).forEach(port -> ports.put(port.number(), port));
+        return ports;
     }
-
-    /**
-     * Create a xml string for disabling the pluggable
-     * @return The xml string
-     */
-    private String deleteConfPlug() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("<terminal-device xmlns='http://openconfig.net/yang/terminal-device'>");
-        sb.append("<logical-channels>");
-        sb.append("<channel>");
-        sb.append("<index>".concat("4")); //TODO should do a better implementation
-        sb.append("</index>");
-        sb.append("<config>");
-        sb.append("<admin-state>"+"DISABLED");
-        sb.append("</admin-state>");
-        sb.append("</config>");
-        sb.append("</channel>");
-        sb.append("</logical-channels>");
-        sb.append("</terminal-device>");
-
-        return sb.toString();
-    }
-
-
-    protected void postLinkREST(String controllerIP,
-                                String connectioname,
-                                ConnectPoint src, ConnectPoint dst,
-                                String type) {
-        //Build the POST json
-        ObjectMapper mapper = new ObjectMapper();
-
-        ObjectNode srcData = mapper.createObjectNode();
-        srcData.put("port", src.port().toString());
-        srcData.put("device", src.deviceId().toString());
-
-        ObjectNode dstData = mapper.createObjectNode();
-        dstData.put("port", dst.port().toString());
-        dstData.put("device", dst.deviceId().toString());
-
-        ObjectNode objectNode = mapper.createObjectNode();
-        objectNode.put("src", srcData);
-        objectNode.put("dst", dstData);
-        objectNode.put("type", type);
-        objectNode.put("state", "ACTIVE");
-        objectNode.put("connection-name", connectioname);
-
-        log.info("Pluggable configuration sent to controller {} json {}",
-                controllerIP,
-                objectNode.toString());
-
-        try {
-            URL url = new URL("http://" + controllerIP + ":8181/onos/ecoc21opt-app/listener/links");
-            try {
-
-                String loginPassword = "karaf:karaf";
-                String encoded = Base64.getEncoder().encodeToString(loginPassword.getBytes());
-
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestProperty ("Authorization", "Basic " + encoded);
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setRequestMethod("POST");
-
-
-                conn.setDoOutput(true);
-                OutputStream os = conn.getOutputStream();
-                os.write(objectNode.toString().getBytes());
-                os.flush();
-                os.close();
-
-                log.info(String.valueOf(conn.getResponseCode()));
-                log.info(conn.getResponseMessage());
-                log.info(conn.getRequestMethod());
-
-                //ObjectNode root = readTreeFromStream(mapper, conn.getInputStream());
-                //log.info(root.toString());
-
-            } catch (IOException exe) {
-                exe.printStackTrace();
-            }
-        } catch (MalformedURLException e) {
-            e.printStackTrace();
-        }
-    }
-
-    protected void deleteLinkREST(String controllerIP,String connectioname,
-                                ConnectPoint src, ConnectPoint dst) {
-        //Build the POST json
-        ObjectMapper mapper = new ObjectMapper();
-
-        ObjectNode srcData = mapper.createObjectNode();
-        srcData.put("port", src.port().toString());
-        srcData.put("device", src.deviceId().toString());
-
-        ObjectNode dstData = mapper.createObjectNode();
-        dstData.put("port", dst.port().toString());
-        dstData.put("device", dst.deviceId().toString());
-
-        ObjectNode objectNode = mapper.createObjectNode();
-        objectNode.put("src", srcData);
-        objectNode.put("dst", dstData);
-        objectNode.put("type", Link.Type.DIRECT.toString());
-        objectNode.put("state", Link.State.INACTIVE.toString());
-        objectNode.put("connection-name", connectioname);
-
-        log.info("Pluggable configuration sent to controller {} json {}",
-                controllerIP,
-                objectNode.toString());
-
-        try {
-            URL url = new URL("http://" + controllerIP + ":8181/onos/ecoc21opt-app/listener/links");
-            try {
-
-                String loginPassword = "karaf:karaf";
-                String encoded = Base64.getEncoder().encodeToString(loginPassword.getBytes());
-
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestProperty ("Authorization", "Basic " + encoded);
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setRequestMethod("DELETE");
-
-                conn.setDoOutput(true);
-                OutputStream os = conn.getOutputStream();
-                os.write(objectNode.toString().getBytes());
-                os.flush();
-                os.close();
-
-                log.info(String.valueOf(conn.getResponseCode()));
-                log.info(conn.getResponseMessage());
-                log.info(conn.getRequestMethod());
-
-            } catch (IOException exe) {
-                exe.printStackTrace();
-            }
-        } catch (MalformedURLException e) {
-            e.printStackTrace();
-        }
-    }
-
-
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+
+import java.net.http.HttpTimeoutException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Latency timers and error and timeout counters of the phases of the pluggables
+ * management, registered with the ONOS metrics service.
+ * Each phase is a metrics feature of the "pluggables" component, holding the
+ * metrics of all its scopes (devices, or subscribers of the link notifications)
+ * and those of each scope, e.g. {@code pluggables.edit-config.latency} and
+ * {@code pluggables.edit-config.latency.device:10.30.2.44:50001}.
+ */
+final class PluggableMetrics {
+
+    /** Name of the metrics component of the application. */
+    static final String COMPONENT = "pluggables";
+
+    private static final String LATENCY = "latency";
+    private static final String ERRORS = "errors";
+    private static final String TIMEOUTS = "timeouts";
+
+    /**
+     * Measured phases.
+     */
+    enum Phase {
+        CONNECT("connect"),
+        GET_CONFIG("get-config"),
+        EDIT_CONFIG("edit-config"),
+        LINK_WAIT("link-wait"),
+        INTENT_SUBMIT("intent-submit"),
+        REST_NOTIFY("rest-notify");
+
+        private final String feature;
+
+        Phase(String feature) {
+            this.feature = feature;
+        }
+    }
+
+    private final MetricsService metricsService;
+    private final MetricsComponent component;
+    private final Map<Phase, MetricsFeature> features = new EnumMap<>(Phase.class);
+    private final Map<String, Timer> timers = Maps.newConcurrentMap();
+    private final Map<String, Counter> counters = Maps.newConcurrentMap();
+
+    /**
+     * Creates the metrics of the application.
+     * @param metricsService service the metrics are registered with
+     */
+    PluggableMetrics(MetricsService metricsService) {
+        this.metricsService = metricsService;
+        this.component = metricsService.registerComponent(COMPONENT);
+        for (Phase phase : Phase.values()) {
+            features.put(phase, component.registerFeature(phase.feature));
+        }
+    }
+
+    /**
+     * Starts measuring a phase.
+     * @param phase the phase
+     * @param scopes the devices, or subscribers, the phase is accounted to
+     * @return the running sample
+     */
+    Sample start(Phase phase, String... scopes) {
+        return new Sample(phase, scopes);
+    }
+
+    /**
+     * Removes the metrics of a scope, e.g. of a removed device.
+     * A phase of the scope still running when removed registers its metrics again.
+     * @param scope the device, or subscriber, the metrics are accounted to
+     */
+    void removeScope(String scope) {
+        for (Phase phase : Phase.values()) {
+            for (String metric : new String[] {LATENCY, ERRORS, TIMEOUTS}) {
+                String name = metric + "." + scope;
+                String key = phase.feature + "." + name;
+                if (timers.remove(key) != null || counters.remove(key) != null) {
+                    metricsService.removeMetric(component, features.get(phase), name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the metrics of the application from the metrics service.
+     * The metrics service offers no way to unregister a component, its metrics
+     * are removed instead, whichever scope they belong to.
+     */
+    void shutdown() {
+        timers.clear();
+        counters.clear();
+        String prefix = COMPONENT + ".";
+        metricsService.removeMatching((name, metric) -> name.startsWith(prefix));
+    }
+
+    /**
+     * Returns the metrics of the application.
+     * @return the metrics by name
+     */
+    Map<String, Metric> metrics() {
+        String prefix = COMPONENT + ".";
+        return Maps.filterKeys(metricsService.getMetrics(), name -> name.startsWith(prefix));
+    }
+
+    private Timer timer(Phase phase, String name) {
+        return timers.computeIfAbsent(phase.feature + "." + name,
+                                      k -> metricsService.createTimer(component, features.get(phase), name));
+    }
+
+    private Counter counter(Phase phase, String name) {
+        return counters.computeIfAbsent(phase.feature + "." + name,
+                                        k -> metricsService.createCounter(component, features.get(phase), name));
+    }
+
+    private static boolean isTimeout(Throwable failure) {
+        return Throwables.getCausalChain(failure).stream()
+                .anyMatch(cause -> cause instanceof TimeoutException || cause instanceof HttpTimeoutException);
+    }
+
+    /**
+     * A running measure of a phase, ended either by a success or by a failure.
+     */
+    final class Sample {
+        private final Phase phase;
+        private final String[] scopes;
+        private final long startNanos = System.nanoTime();
+
+        private Sample(Phase phase, String[] scopes) {
+            this.phase = phase;
+            this.scopes = scopes;
+        }
+
+        /**
+         * Records the latency of the completed phase.
+         */
+        void success() {
+            long elapsed = System.nanoTime() - startNanos;
+            timer(phase, LATENCY).update(elapsed, TimeUnit.NANOSECONDS);
+            for (String scope : scopes) {
+                timer(phase, LATENCY + "." + scope).update(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Counts the failed phase, as a timeout if caused by one, as an error otherwise.
+         * @param failure the cause of the failure
+         */
+        void failure(Throwable failure) {
+            count(isTimeout(failure) ? TIMEOUTS : ERRORS);
+        }
+
+        /**
+         * Counts the phase as an error, e.g. when rejected by the other party.
+         */
+        void error() {
+            count(ERRORS);
+        }
+
+        private void count(String name) {
+            counter(phase, name).inc();
+            for (String scope : scopes) {
+                counter(phase, name + "." + scope).inc();
+            }
+        }
+    }
+}
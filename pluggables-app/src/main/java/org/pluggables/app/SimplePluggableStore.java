@@ -0,0 +1,281 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.InventorySnapshot;
+import org.pluggables.app.api.NotificationSubscriber;
+import org.pluggables.app.api.PluggableConnection;
+import org.pluggables.app.api.PluggableData;
+import org.pluggables.app.api.PluggableStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory pluggable store. The inventory is published as an immutable
+ * snapshot, replaced on every write: lookups read the current snapshot and
+ * never take a lock nor copy, and a write rebuilds only the entry of the device
+ * it changes and the O(log n) path to it in a persistent map, sharing the
+ * others with the previous snapshot. The snapshot lists the devices in id order
+ * and their pluggables in port order: the pluggables are sorted when stored and
+ * the ordered ids copied only when a device is added or removed, not when its
+ * pluggables change. Writers are serialized. Also used as the local read cache
+ * of the distributed store.
+ */
+class SimplePluggableStore implements PluggableStore {
+
+    private static final Comparator<DeviceId> BY_ID = Comparator.comparing(DeviceId::toString);
+    private static final Comparator<PluggableData> BY_PORT =
+            Comparator.comparingLong(pluggableData -> pluggableData.getPort() != null ?
+                    pluggableData.getPort().toLong() : -1);
+
+    private final String epoch;
+    private volatile Inventory inventory;
+    private final Map<String, PluggableConnection> connections = Maps.newConcurrentMap();
+    private final Map<String, NotificationSubscriber> subscribers = Maps.newConcurrentMap();
+
+    /**
+     * Creates a store of a random epoch.
+     */
+    SimplePluggableStore() {
+        this(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Creates a store.
+     * @param epoch the epoch of the inventory, unique to the store instance
+     */
+    SimplePluggableStore(String epoch) {
+        this.epoch = requireNonNull(epoch);
+        this.inventory = new Inventory(epoch, 0, PersistentHashMap.empty(), ImmutableList.of());
+    }
+
+    @Override
+    public synchronized void putDevicePluggables(DevicePluggablesData devicePluggablesData) {
+        requireNonNull(devicePluggablesData);
+        Inventory current = inventory;
+        DeviceId deviceId = devicePluggablesData.getDeviceId();
+        // The order changes only when a device is added, not when its pluggables are
+        List<DeviceId> deviceIds = current.devices.get(deviceId) == null ?
+                inserted(current.deviceIds, deviceId) : current.deviceIds;
+        inventory = new Inventory(epoch, current.version + 1,
+                                  current.devices.plus(deviceId, new DeviceEntry(devicePluggablesData)), deviceIds);
+    }
+
+    @Override
+    public synchronized boolean replaceDevicePluggables(DevicePluggablesData expected,
+                                                        DevicePluggablesData devicePluggablesData) {
+        requireNonNull(expected);
+        requireNonNull(devicePluggablesData);
+        DeviceEntry current = inventory.devices.get(expected.getDeviceId());
+        // Stored data is never modified, the same instance means no write happened since
+        if (current == null || current.data != expected) {
+            return false;
+        }
+        putDevicePluggables(devicePluggablesData);
+        return true;
+    }
+
+    @Override
+    public synchronized DevicePluggablesData removeDevicePluggables(DeviceId deviceId) {
+        Inventory current = inventory;
+        DeviceEntry removed = current.devices.get(deviceId);
+        if (removed == null) {
+            return null;
+        }
+        inventory = new Inventory(epoch, current.version + 1, current.devices.minus(deviceId),
+                                  removed(current.deviceIds, deviceId));
+        return removed.data;
+    }
+
+    @Override
+    public DevicePluggablesData getDevicePluggables(DeviceId deviceId) {
+        return inventory.snapshot.getDevicePluggables(deviceId);
+    }
+
+    @Override
+    public Collection<DevicePluggablesData> getDevicePluggables() {
+        return inventory.snapshot.getDevicePluggables();
+    }
+
+    @Override
+    public Collection<PluggableData> getPluggables(DeviceId deviceId, String pluggableId) {
+        DeviceEntry entry = inventory.devices.get(deviceId);
+        return entry != null ? entry.pluggablesById.get(pluggableId) : ImmutableList.of();
+    }
+
+    @Override
+    public PluggableData getPluggable(DeviceId deviceId, PortNumber port) {
+        DeviceEntry entry = inventory.devices.get(deviceId);
+        return entry != null ? entry.pluggablesByPort.get(port) : null;
+    }
+
+    @Override
+    public synchronized void updatePluggable(DeviceId deviceId, PluggableData pluggableData) {
+        requireNonNull(pluggableData);
+        DeviceEntry current = inventory.devices.get(deviceId);
+        if (current == null) {
+            return;
+        }
+        List<PluggableData> pluggables = new ArrayList<>();
+        current.data.getPluggables().forEach(stored -> pluggables.add(
+                Objects.equals(stored.getPort(), pluggableData.getPort()) ? pluggableData : stored));
+        putDevicePluggables(DevicePluggablesData.of(deviceId, pluggables));
+    }
+
+    @Override
+    public long getVersion() {
+        return inventory.version;
+    }
+
+    @Override
+    public InventorySnapshot getSnapshot() {
+        return inventory.snapshot;
+    }
+
+    @Override
+    public void putConnection(PluggableConnection connection) {
+        requireNonNull(connection);
+        connections.put(connection.getName(), connection);
+    }
+
+    @Override
+    public PluggableConnection removeConnection(String name) {
+        return connections.remove(name);
+    }
+
+    @Override
+    public PluggableConnection getConnection(String name) {
+        return connections.get(name);
+    }
+
+    @Override
+    public Collection<PluggableConnection> getConnections() {
+        return ImmutableList.copyOf(connections.values());
+    }
+
+    @Override
+    public void putSubscriber(NotificationSubscriber subscriber) {
+        requireNonNull(subscriber);
+        subscribers.put(subscriber.getId(), subscriber);
+    }
+
+    @Override
+    public NotificationSubscriber removeSubscriber(String id) {
+        return subscribers.remove(id);
+    }
+
+    @Override
+    public Collection<NotificationSubscriber> getSubscribers() {
+        return ImmutableList.copyOf(subscribers.values());
+    }
+
+    /**
+     * Copies ordered device ids with one more.
+     * @param deviceIds the ids, ordered by id
+     * @param deviceId the id to insert, not in the ids
+     * @return the ids with the inserted one, ordered by id
+     */
+    private static List<DeviceId> inserted(List<DeviceId> deviceIds, DeviceId deviceId) {
+        int index = -Collections.binarySearch(deviceIds, deviceId, BY_ID) - 1;
+        return ImmutableList.<DeviceId>builder()
+                .addAll(deviceIds.subList(0, index))
+                .add(deviceId)
+                .addAll(deviceIds.subList(index, deviceIds.size()))
+                .build();
+    }
+
+    /**
+     * Copies ordered device ids with one less.
+     * @param deviceIds the ids, ordered by id
+     * @param deviceId the id to remove, in the ids
+     * @return the ids without the removed one, ordered by id
+     */
+    private static List<DeviceId> removed(List<DeviceId> deviceIds, DeviceId deviceId) {
+        int index = Collections.binarySearch(deviceIds, deviceId, BY_ID);
+        return ImmutableList.<DeviceId>builder()
+                .addAll(deviceIds.subList(0, index))
+                .addAll(deviceIds.subList(index + 1, deviceIds.size()))
+                .build();
+    }
+
+    /**
+     * Immutable inventory, with the indexes of the pluggables of each device.
+     */
+    private static final class Inventory {
+        private final long version;
+        private final PersistentHashMap<DeviceId, DeviceEntry> devices;
+        private final List<DeviceId> deviceIds;
+        private final InventorySnapshot snapshot;
+
+        private Inventory(String epoch, long version, PersistentHashMap<DeviceId, DeviceEntry> devices,
+                          List<DeviceId> deviceIds) {
+            this.version = version;
+            this.devices = devices;
+            this.deviceIds = deviceIds;
+            this.snapshot = InventorySnapshot.of(epoch, version, Maps.transformValues(devices, entry -> entry.data),
+                                                 deviceIds);
+        }
+    }
+
+    /**
+     * Pluggables of a device, indexed by pluggable identifier and by port.
+     */
+    private static final class DeviceEntry {
+        private final DevicePluggablesData data;
+        private final ImmutableListMultimap<String, PluggableData> pluggablesById;
+        private final Map<PortNumber, PluggableData> pluggablesByPort;
+
+        private DeviceEntry(DevicePluggablesData data) {
+            // Stored in port order, so that listing it needs no sort; a stable sort, the
+            // pluggables reported on a same port keep the device order
+            if (!Ordering.from(BY_PORT).isOrdered(data.getPluggables())) {
+                List<PluggableData> byPort = new ArrayList<>(data.getPluggables());
+                byPort.sort(BY_PORT);
+                data = DevicePluggablesData.of(data.getDeviceId(), byPort);
+            }
+            this.data = data;
+            ImmutableListMultimap.Builder<String, PluggableData> byId = ImmutableListMultimap.builder();
+            Map<PortNumber, PluggableData> byPort = new HashMap<>();
+            data.getPluggables().forEach(pluggableData -> {
+                byId.put(pluggableData.getPluggableID(), pluggableData);
+                if (pluggableData.getPort() != null) {
+                    // The last pluggable reported on a port wins, as in the device order
+                    byPort.put(pluggableData.getPort(), pluggableData);
+                }
+            });
+            this.pluggablesById = byId.build();
+            this.pluggablesByPort = ImmutableMap.copyOf(byPort);
+        }
+    }
+}
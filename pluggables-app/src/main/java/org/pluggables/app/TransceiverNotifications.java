@@ -0,0 +1,230 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.Maps;
+import org.onosproject.net.DeviceId;
+import org.onosproject.netconf.NetconfDeviceOutputEvent;
+import org.onosproject.netconf.NetconfDeviceOutputEventListener;
+import org.onosproject.netconf.NetconfException;
+import org.onosproject.netconf.NetconfSession;
+import org.pluggables.app.api.PluggableData;
+import org.pluggables.app.api.PluggableStore;
+import org.slf4j.Logger;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * RFC 5277 notification subscriptions towards the devices hosting pluggables.
+ * The transceiver and optical channel state carried by a notification is applied
+ * to the stored pluggables; notifications that cannot be mapped onto a stored
+ * pluggable trigger a refresh of the whole device.
+ * Devices not advertising the notification capability are left to polling.
+ */
+final class TransceiverNotifications {
+
+    static final String NOTIFICATION_CAPABILITY = "urn:ietf:params:netconf:capability:notification:1.0";
+
+    private final Logger log = getLogger(getClass());
+
+    private final NetconfSessionManager sessionManager;
+    private final PluggableStore store;
+    private final Consumer<DeviceId> refresh;
+    private final Map<DeviceId, Subscription> subscriptions = Maps.newConcurrentMap();
+
+    /**
+     * Creates the notification subscriptions manager.
+     * @param sessionManager pool providing the sessions the subscriptions are opened on
+     * @param store store holding the pluggables the notifications are applied to
+     * @param refresh requests a refresh of a device whose notification could not be applied
+     */
+    TransceiverNotifications(NetconfSessionManager sessionManager, PluggableStore store,
+                             Consumer<DeviceId> refresh) {
+        this.sessionManager = sessionManager;
+        this.store = store;
+        this.refresh = refresh;
+    }
+
+    /**
+     * Makes sure a notification subscription is open on the current session of a device.
+     * A subscription is bound to its session, so it is opened again whenever the pool
+     * replaced the session.
+     * @param deviceId identify the device where the pluggables are attached
+     * @return true if the device pushes its changes, false if it has to be polled
+     */
+    boolean subscribe(DeviceId deviceId) {
+        NetconfSessionManager.Lease lease;
+        try {
+            lease = sessionManager.lease(deviceId);
+        } catch (NetconfException e) {
+            return false;
+        }
+        try {
+            return subscribe(deviceId, lease.session());
+        } finally {
+            lease.close();
+        }
+    }
+
+    private boolean subscribe(DeviceId deviceId, NetconfSession session) {
+        Subscription current = subscriptions.get(deviceId);
+        if (current != null && current.session == session && current.active.get()) {
+            return true;
+        }
+        if (!session.getDeviceCapabilitiesSet().contains(NOTIFICATION_CAPABILITY)) {
+            return false;
+        }
+        synchronized (this) {
+            current = subscriptions.get(deviceId);
+            if (current != null && current.session == session && current.active.get()) {
+                return true;
+            }
+            if (current != null) {
+                current.close();
+            }
+            Subscription subscription = new Subscription(deviceId, session);
+            session.addDeviceOutputListener(subscription);
+            try {
+                session.startSubscription();
+            } catch (NetconfException e) {
+                session.removeDeviceOutputListener(subscription);
+                subscriptions.remove(deviceId);
+                log.warn("Unable to subscribe to the notifications of {}, polling it", deviceId, e);
+                return false;
+            }
+            subscriptions.put(deviceId, subscription);
+            log.info("Subscribed to the notifications of {}", deviceId);
+            return true;
+        }
+    }
+
+    /**
+     * Closes the subscription of a device, e.g. once removed.
+     * @param deviceId identify the device where the pluggables are attached
+     */
+    synchronized void unsubscribe(DeviceId deviceId) {
+        Subscription subscription = subscriptions.remove(deviceId);
+        if (subscription != null) {
+            subscription.close();
+            log.info("Unsubscribed from the notifications of {}", deviceId);
+        }
+    }
+
+    /**
+     * Closes all the subscriptions.
+     */
+    synchronized void shutdown() {
+        subscriptions.values().forEach(Subscription::close);
+        subscriptions.clear();
+    }
+
+    /**
+     * Applies the transceiver and optical channel state carried by a notification
+     * to the stored pluggables, or refreshes the device if they cannot be mapped.
+     * @param deviceId identify the device the notification comes from
+     * @param notification the notification payload
+     */
+    void apply(DeviceId deviceId, String notification) {
+        AtomicBoolean unmapped = new AtomicBoolean(false);
+        try {
+            TransceiverReplyParser.parse(notification, pluggableData -> {
+                PluggableData stored = store.getPluggable(deviceId, pluggableData.getPort());
+                if (stored == null) {
+                    unmapped.set(true);
+                    return;
+                }
+                pluggableData.setPortType(stored.getPortType());
+                pluggableData.setPortSpeed(stored.getPortSpeed());
+                pluggableData.setFrequency(stored.getFrequency());
+                pluggableData.setPower(stored.getPower());
+                pluggableData.setOpMode(stored.getOpMode());
+                store.updatePluggable(deviceId, pluggableData);
+                log.debug("Pluggable {} of {} updated by notification", pluggableData.getPort(), deviceId);
+            }, channel -> {
+                PluggableData stored = store.getPluggable(deviceId, channel.port());
+                if (stored == null) {
+                    unmapped.set(true);
+                    return;
+                }
+                // The stored pluggable is shared with the readers of the store, change a copy of it
+                PluggableData pluggableData = PluggableData.copyOf(stored);
+                channel.applyTo(pluggableData);
+                store.updatePluggable(deviceId, pluggableData);
+                log.debug("Channel {} of {} updated by notification", channel.port(), deviceId);
+            });
+        } catch (XMLStreamException e) {
+            log.warn("Unable to parse a notification of {}", deviceId, e);
+            unmapped.set(true);
+        }
+        if (unmapped.get()) {
+            refresh.accept(deviceId);
+        }
+    }
+
+    private boolean isTransceiverNotification(String notification) {
+        return notification.contains("<component") || notification.contains(":component");
+    }
+
+    private final class Subscription implements NetconfDeviceOutputEventListener {
+        private final DeviceId deviceId;
+        private final NetconfSession session;
+        private final AtomicBoolean active = new AtomicBoolean(true);
+
+        private Subscription(DeviceId deviceId, NetconfSession session) {
+            this.deviceId = deviceId;
+            this.session = session;
+        }
+
+        @Override
+        public void event(NetconfDeviceOutputEvent event) {
+            switch (event.type()) {
+                case DEVICE_NOTIFICATION:
+                    String notification = event.getMessagePayload();
+                    if (notification != null && isTransceiverNotification(notification)) {
+                        apply(deviceId, notification);
+                    }
+                    break;
+                case SESSION_CLOSED:
+                case DEVICE_UNREGISTERED:
+                    // The device goes back to polling until the next subscription
+                    if (active.compareAndSet(true, false)) {
+                        subscriptions.remove(deviceId, this);
+                        log.info("Notification subscription of {} closed", deviceId);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void close() {
+            if (!active.compareAndSet(true, false)) {
+                return;
+            }
+            session.removeDeviceOutputListener(this);
+            try {
+                session.endSubscription();
+            } catch (NetconfException | RuntimeException e) {
+                log.debug("Unable to end the subscription of {}", deviceId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import org.onlab.util.Frequency;
+import org.onosproject.net.PortNumber;
+import org.pluggables.app.api.PluggableData;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser of the OpenConfig platform components carried by a NETCONF reply.
+ * Only the leaves needed to build a PluggableData are read, and only for the
+ * components of type transceiver and their optical channels; everything else is
+ * skipped while reading.
+ *
+ * //CHECKSTYLE:OFF
+ * <pre>{@code
+ *   <components xmlns="http://openconfig.net/yang/platform">
+ *     <component>
+ *       <name>transceiver-4</name>
+ *       <state><type>oc-platform-types:TRANSCEIVER</type></state>
+ *       <transceiver>
+ *         <state>
+ *           <vendor>...</vendor>
+ *           ...
+ *         </state>
+ *       </transceiver>
+ *     </component>
+ *   </components>
+ * }</pre>
+ * //CHECKSTYLE:ON
+ */
+final class TransceiverReplyParser {
+
+    static final String OC_PLATFORM_TYPES_TRANSCEIVER = "oc-platform-types:TRANSCEIVER";
+
+    private static final String COMPONENT = "component";
+    private static final String NAME = "name";
+    private static final String STATE = "state";
+    private static final String TYPE = "type";
+    private static final String TRANSCEIVER = "transceiver";
+    private static final String VENDOR = "vendor";
+    private static final String VENDOR_PART = "vendor-part";
+    private static final String VENDOR_REV = "vendor-rev";
+    private static final String ETHERNET_PMD_PRECONF = "ethernet-pmd-preconf";
+    private static final String MODULE_FUNCTIONAL_TYPE = "module-functional-type";
+    private static final String ENABLED = "enabled";
+    private static final String OPTICAL_CHANNEL = "optical-channel";
+    private static final String FREQUENCY = "frequency";
+    private static final String TARGET_OUTPUT_POWER = "target-output-power";
+    private static final String OPERATIONAL_MODE = "operational-mode";
+    private static final int MAX_DEPTH = 3;
+
+    private static final String OC_PLATFORM = "http://openconfig.net/yang/platform";
+    private static final String OC_TRANSCEIVER = "http://openconfig.net/yang/platform/transceiver";
+    private static final String OC_TERMINAL_DEVICE = "http://openconfig.net/yang/terminal-device";
+    private static final List<String> TRANSCEIVER_STATE_LEAVES = ImmutableList.of(
+            VENDOR, VENDOR_PART, VENDOR_REV, ETHERNET_PMD_PRECONF, MODULE_FUNCTIONAL_TYPE, ENABLED);
+    private static final List<String> OPTICAL_CHANNEL_STATE_LEAVES = ImmutableList.of(
+            FREQUENCY, TARGET_OUTPUT_POWER, OPERATIONAL_MODE);
+
+    /**
+     * Subtree filter selecting only the leaves read by the parser, so that the device
+     * does not send the whole platform tree.
+     */
+    static final String TRANSCEIVER_STATE_FILTER = transceiverStateFilter();
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private TransceiverReplyParser() {
+    }
+
+    /**
+     * Builds the subtree filter of the transceiver state.
+     * The component type cannot be matched by content, as the identity prefix is chosen
+     * by the device, so it is selected for every component and checked while parsing.
+     *
+     * @return the subtree filter
+     */
+    private static String transceiverStateFilter() {
+        StringBuilder filter = new StringBuilder();
+        filter.append("<components xmlns='").append(OC_PLATFORM).append("'>");
+        filter.append("<component>");
+        filter.append("<").append(NAME).append("/>");
+        filter.append("<").append(STATE).append("><").append(TYPE).append("/></").append(STATE).append(">");
+        filter.append("<").append(TRANSCEIVER).append(" xmlns='").append(OC_TRANSCEIVER).append("'>");
+        filter.append("<").append(STATE).append(">");
+        TRANSCEIVER_STATE_LEAVES.forEach(leaf -> filter.append("<").append(leaf).append("/>"));
+        filter.append("</").append(STATE).append(">");
+        filter.append("</").append(TRANSCEIVER).append(">");
+        filter.append("<").append(OPTICAL_CHANNEL).append(" xmlns='").append(OC_TERMINAL_DEVICE).append("'>");
+        filter.append("<").append(STATE).append(">");
+        OPTICAL_CHANNEL_STATE_LEAVES.forEach(leaf -> filter.append("<").append(leaf).append("/>"));
+        filter.append("</").append(STATE).append(">");
+        filter.append("</").append(OPTICAL_CHANNEL).append(">");
+        filter.append("</component>");
+        filter.append("</components>");
+        return filter.toString();
+    }
+
+    /**
+     * Parses a reply, emitting a PluggableData for each transceiver and a ChannelState for each
+     * optical channel as soon as they are read.
+     * The port type and speed are not set, they are not part of the reply.
+     *
+     * @param reply the NETCONF reply
+     * @param transceivers receives the parsed pluggables
+     * @param channels receives the parsed optical channels
+     * @throws XMLStreamException if the reply is not well formed
+     */
+    static void parse(String reply, Consumer<PluggableData> transceivers, Consumer<ChannelState> channels)
+            throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(new StringReader(reply));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && COMPONENT.equals(reader.getLocalName())) {
+                    ComponentLeaves leaves = parseComponent(reader);
+                    PluggableData pluggableData = leaves.toPluggableData();
+                    if (pluggableData != null) {
+                        transceivers.accept(pluggableData);
+                        continue;
+                    }
+                    ChannelState channelState = leaves.toChannelState();
+                    if (channelState != null) {
+                        channels.accept(channelState);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads a component up to its end element.
+     *
+     * @param reader the reader, positioned on the component start element
+     * @return the leaves read from the component
+     * @throws XMLStreamException if the reply is not well formed
+     */
+    private static ComponentLeaves parseComponent(XMLStreamReader reader) throws XMLStreamException {
+        ComponentLeaves leaves = new ComponentLeaves();
+        String[] path = new String[MAX_DEPTH];
+        int depth = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String localName = reader.getLocalName();
+                if (depth < MAX_DEPTH) {
+                    path[depth] = localName;
+                }
+                if (leaves.read(path, depth, localName, reader)) {
+                    // getElementText() consumed the end element
+                    continue;
+                }
+                depth++;
+            }
+        }
+        return leaves;
+    }
+
+    /**
+     * Operational state of the optical channel of a pluggable.
+     */
+    static final class ChannelState {
+        private final PortNumber port;
+        private final Frequency frequency;
+        private final Float power;
+        private final String opMode;
+
+        private ChannelState(PortNumber port, Frequency frequency, Float power, String opMode) {
+            this.port = port;
+            this.frequency = frequency;
+            this.power = power;
+            this.opMode = opMode;
+        }
+
+        PortNumber port() {
+            return port;
+        }
+
+        /**
+         * Sets the reported leaves on the pluggable plugged in the channel port.
+         * @param pluggableData the pluggable
+         */
+        void applyTo(PluggableData pluggableData) {
+            if (frequency != null) {
+                pluggableData.setFrequency(frequency);
+            }
+            if (power != null) {
+                pluggableData.setPower(power);
+            }
+            if (opMode != null) {
+                pluggableData.setOpMode(opMode);
+            }
+        }
+    }
+
+    /**
+     * Leaves of a component needed to build a PluggableData.
+     */
+    private static final class ComponentLeaves {
+        private String name;
+        private String type;
+        private String vendor;
+        private String vendorPart;
+        private String vendorRev;
+        private String ethernetPmd;
+        private String moduleType;
+        private String enabled;
+        private String frequency;
+        private String power;
+        private String opMode;
+
+        /**
+         * Reads the text of the current element if it is one of the needed leaves.
+         * @return true if the element was read up to its end
+         */
+        private boolean read(String[] path, int depth, String localName, XMLStreamReader reader)
+                throws XMLStreamException {
+            if (depth == 0 && NAME.equals(localName)) {
+                name = reader.getElementText().trim();
+            } else if (depth == 1 && STATE.equals(path[0]) && TYPE.equals(localName)) {
+                type = reader.getElementText().trim();
+            } else if (depth == 2 && TRANSCEIVER.equals(path[0]) && STATE.equals(path[1])) {
+                switch (localName) {
+                    case VENDOR:
+                        vendor = reader.getElementText().trim();
+                        break;
+                    case VENDOR_PART:
+                        vendorPart = reader.getElementText().trim();
+                        break;
+                    case VENDOR_REV:
+                        vendorRev = reader.getElementText().trim();
+                        break;
+                    case ETHERNET_PMD_PRECONF:
+                        ethernetPmd = reader.getElementText().trim();
+                        break;
+                    case MODULE_FUNCTIONAL_TYPE:
+                        moduleType = reader.getElementText().trim();
+                        break;
+                    case ENABLED:
+                        enabled = reader.getElementText().trim();
+                        break;
+                    default:
+                        return false;
+                }
+            } else if (depth == 2 && OPTICAL_CHANNEL.equals(path[0]) && STATE.equals(path[1])) {
+                switch (localName) {
+                    case FREQUENCY:
+                        frequency = reader.getElementText().trim();
+                        break;
+                    case TARGET_OUTPUT_POWER:
+                        power = reader.getElementText().trim();
+                        break;
+                    case OPERATIONAL_MODE:
+                        opMode = reader.getElementText().trim();
+                        break;
+                    default:
+                        return false;
+                }
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private ChannelState toChannelState() {
+            if (name == null || (frequency == null && power == null && opMode == null)) {
+                return null;
+            }
+            try {
+                // Frequencies are written in GHz by setConfPlug, read them back the same way
+                return new ChannelState(PortNumber.fromString(name.split("-")[1]),
+                                        frequency != null ? Frequency.ofGHz(Double.parseDouble(frequency)) : null,
+                                        power != null ? Float.valueOf(power) : null,
+                                        opMode);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        private PluggableData toPluggableData() {
+            if (name == null || !OC_PLATFORM_TYPES_TRANSCEIVER.equals(type)
+                    || vendor == null || vendorPart == null || vendorRev == null) {
+                return null;
+            }
+            try {
+                PluggableData pluggableData = PluggableData.of(vendor + "-" + vendorPart + "-" + vendorRev);
+                pluggableData.setPort(PortNumber.fromString(name.split("-")[1]));
+                pluggableData.setPluggableSpeed(Long.decode(ethernetPmd.split(":ETH_")[1].split("GBASE_ZR")[0]));
+                pluggableData.setPluggableType(moduleType.split(":TYPE_")[1]);
+                pluggableData.setIsEnable(Boolean.valueOf(enabled));
+                return pluggableData;
+            } catch (RuntimeException e) {
+                // Missing or unexpected leaves, the component is skipped as a malformed transceiver
+                return null;
+            }
+        }
+    }
+}
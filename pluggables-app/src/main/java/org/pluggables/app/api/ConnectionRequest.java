@@ -0,0 +1,71 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Request for the provisioning of a connection between two pluggables.
+ */
+public final class ConnectionRequest {
+
+    private final String connectionName;
+    private final ArrayList<DevicePluggablesData> devicePluggables;
+    private final ArrayList<ConnectPoint> connectPoints;
+
+    /**
+     * Constructs a ConnectionRequest.
+     * @param connectionName identify the connection
+     * @param devicePluggables pluggables configuration that has to be configured
+     * @param connectPoints identify the connect point for enstablishing the connection
+     */
+    private ConnectionRequest(String connectionName, ArrayList<DevicePluggablesData> devicePluggables,
+                              ArrayList<ConnectPoint> connectPoints) {
+        this.connectionName = connectionName;
+        this.devicePluggables = devicePluggables;
+        this.connectPoints = connectPoints;
+    }
+
+    /**
+     * Creates a ConnectionRequest.
+     * @param connectionName identify the connection
+     * @param devicePluggables pluggables configuration that has to be configured, each pluggable
+     *                         identified by its pluggable ID and, if the ID is not unique on its device, its port
+     * @param connectPoints identify the connect point for enstablishing the connection
+     * @return the connection request
+     */
+    public static ConnectionRequest of(String connectionName, ArrayList<DevicePluggablesData> devicePluggables,
+                                       ArrayList<ConnectPoint> connectPoints) {
+        requireNonNull(connectionName);
+        requireNonNull(devicePluggables);
+        requireNonNull(connectPoints);
+        return new ConnectionRequest(connectionName, devicePluggables, connectPoints);
+    }
+
+    public String getConnectionName() { return connectionName; }
+    public ArrayList<DevicePluggablesData> getDevicePluggables() { return devicePluggables; }
+    public ArrayList<ConnectPoint> getConnectPoints() { return connectPoints; }
+
+    /**
+     * Provide the devices hosting the pluggables of the connection.
+     * @return the device IDs
+     */
+    public List<DeviceId> getDeviceIds() {
+        return devicePluggables.stream().map(DevicePluggablesData::getDeviceId).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("connectionName", connectionName)
+                .add("devicePluggables", devicePluggables)
+                .add("connectPoints", connectPoints)
+                .toString();
+    }
+}
@@ -0,0 +1,96 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Timeline of a provisioning or deletion run of a connection: the phases it went
+ * through, with their start, duration and outcome.
+ */
+public final class ConnectionTrace {
+
+    /**
+     * Operation run on the connection.
+     */
+    public enum Operation {
+        /** Configuration of the pluggables and installation of the intents. */
+        CONFIGURE,
+        /** Withdrawal of the intents and disabling of the pluggables. */
+        DELETE
+    }
+
+    private final String connectionName;
+    private final Operation operation;
+    private final long startMillis;
+    private final TraceEvent.Status status;
+    private final String failure;
+    private final List<TraceEvent> events;
+
+    /**
+     * Constructs a ConnectionTrace.
+     * @param connectionName identify the connection
+     * @param operation the operation run
+     * @param startMillis epoch milliseconds the run started at
+     * @param status the outcome of the run
+     * @param failure reason of the failure of the run; null if none
+     * @param events the phases of the run, in the order they started
+     */
+    private ConnectionTrace(String connectionName, Operation operation, long startMillis,
+                            TraceEvent.Status status, String failure, List<TraceEvent> events) {
+        this.connectionName = connectionName;
+        this.operation = operation;
+        this.startMillis = startMillis;
+        this.status = status;
+        this.failure = failure;
+        this.events = events;
+    }
+
+    /**
+     * Creates a ConnectionTrace.
+     * @param connectionName identify the connection
+     * @param operation the operation run
+     * @param startMillis epoch milliseconds the run started at
+     * @param status the outcome of the run
+     * @param failure reason of the failure of the run; null if none
+     * @param events the phases of the run, in the order they started
+     * @return the trace
+     */
+    public static ConnectionTrace of(String connectionName, Operation operation, long startMillis,
+                                     TraceEvent.Status status, String failure, List<TraceEvent> events) {
+        requireNonNull(connectionName);
+        requireNonNull(operation);
+        requireNonNull(status);
+        requireNonNull(events);
+        return new ConnectionTrace(connectionName, operation, startMillis, status, failure,
+                                   ImmutableList.copyOf(events));
+    }
+
+    public String getConnectionName() { return connectionName; }
+
+    public Operation getOperation() { return operation; }
+
+    public long getStartMillis() { return startMillis; }
+
+    public TraceEvent.Status getStatus() { return status; }
+
+    public String getFailure() { return failure; }
+
+    public List<TraceEvent> getEvents() { return events; }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("connectionName", connectionName)
+                .add("operation", operation)
+                .add("startMillis", startMillis)
+                .add("status", status)
+                .add("failure", failure)
+                .add("events", events)
+                .omitNullValues()
+                .toString();
+    }
+}
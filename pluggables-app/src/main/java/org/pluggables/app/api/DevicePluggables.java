@@ -1,10 +1,13 @@
 package org.pluggables.app.api;
 
+import com.codahale.metrics.Metric;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DeviceId;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface DevicePluggables {
 
@@ -31,10 +34,102 @@ public interface DevicePluggables {
     void configureDevicePluggable(ArrayList<DevicePluggablesData> devicePluggableDatas,
                                   ArrayList<ConnectPoint> connetPoints,String connectioname) throws InterruptedException;
 
+    /**
+     * Configure the Device pluggables and create a connection without waiting for it to complete
+     * @param devicePluggableDatas pluggables configuration that as to be configured
+     * @param connetPoints identify the connect point for enstablishing the connection
+     * @param connectioname identify the connection
+     * @return the job tracking the provisioning; its completion future is completed once done
+     */
+    ProvisioningJob configureDevicePluggableAsync(ArrayList<DevicePluggablesData> devicePluggableDatas,
+                                                  ArrayList<ConnectPoint> connetPoints, String connectioname);
+
+    /**
+     * Configure the Device pluggables of several connections without waiting for them to complete.
+     * Connections sharing a device are provisioned one after the other, the others concurrently
+     * @param requests the connections to provision
+     * @return the jobs tracking the provisioning, in the same order as the requests
+     */
+    List<ProvisioningJob> configureDevicePluggables(List<ConnectionRequest> requests);
+
+    /**
+     * Provide a provisioning job. Jobs are held by the cluster node running them,
+     * they are not shared with the other nodes
+     * @param jobId identify the job
+     * @return the provisioning job; null if unknown or expired
+     */
+    ProvisioningJob getProvisioningJob(String jobId);
+
     /**
      * Disable the pluggables associated to a certain connection
      * @param connectioname identify the connection
      */
     void deleteConfigureDevicePluggable(String connectioname) throws InterruptedException;
 
+    /**
+     * Provide the pluggables of a device
+     * @param deviceId the device ID
+     * @return the device pluggables; null if the device is not known
+     */
+    DevicePluggablesData getDevicePluggables(DeviceId deviceId);
+
+    /**
+     * Provide the pluggables inventory with its version, as of its last update
+     * @return the immutable snapshot of the inventory
+     */
+    InventorySnapshot inventorySnapshot();
+
+    /**
+     * Provide the statistics of the NETCONF session pool
+     * @return the session pool statistics
+     */
+    SessionPoolStatistics sessionStatistics();
+
+    /**
+     * Provide the statistics of the link notifications
+     * @return the link notifications statistics, by subscriber id
+     */
+    Map<String, NotifierStatistics> notifierStatistics();
+
+    /**
+     * Provide the latency timers and the error and timeout counters of the NETCONF RPCs,
+     * of the provisioning phases and of the link notifications
+     * @return the metrics by name
+     */
+    Map<String, Metric> metrics();
+
+    /**
+     * Provide the timelines of the last provisioning and deletion runs of a connection
+     * made on this cluster node; the runs made on the other nodes are not shared
+     * @param connectionName identify the connection
+     * @return the traces of the runs still recorded, oldest first; empty if none
+     */
+    List<ConnectionTrace> connectionTraces(String connectionName);
+
+    /**
+     * Provide the durations of each phase over the last runs of a connection made on this cluster node
+     * @param connectionName identify the connection
+     * @return the summary of each phase, by phase name; empty if no run is recorded
+     */
+    Map<String, PhaseSummary> traceSummary(String connectionName);
+
+    /**
+     * Register a subscriber of the link notifications, replacing any previous one with the same id
+     * @param subscriber the subscriber
+     */
+    void addSubscriber(NotificationSubscriber subscriber);
+
+    /**
+     * Unregister a subscriber of the link notifications
+     * @param id identify the subscriber
+     * @return the removed subscriber; null if the subscriber was not registered
+     */
+    NotificationSubscriber removeSubscriber(String id);
+
+    /**
+     * Provide the registered subscribers of the link notifications
+     * @return the subscribers
+     */
+    Collection<NotificationSubscriber> getSubscribers();
+
 }
@@ -1,27 +1,32 @@
 package org.pluggables.app.api;
 import org.onosproject.net.DeviceId;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
 
-public class DevicePluggablesData {
+/**
+ * The pluggables of a device. The list of pluggables cannot be modified and,
+ * once the data is stored, neither can the pluggables in it (see
+ * {@link PluggableData}), so that it is shared by the readers of the store
+ * without being copied.
+ */
+public final class DevicePluggablesData {
 
-        protected DeviceId deviceId;
-        protected ArrayList<PluggableData> pluggables;
+        private final DeviceId deviceId;
+        private final List<PluggableData> pluggables;
 
         /**
          * Constructs a DevicePluggablesData data by given a devicePluggablesData.
          *  @param deviceId the given deviceId
          *  @param plugs a given list of pluggable
          */
-        private DevicePluggablesData (DeviceId deviceId, ArrayList <PluggableData> plugs) {
+        private DevicePluggablesData (DeviceId deviceId, List<PluggableData> plugs) {
 
             this.deviceId = deviceId;
-            this.pluggables = new ArrayList<>();
-            pluggables.addAll(plugs);
+            this.pluggables = ImmutableList.copyOf(plugs);
         }
 
         /**
@@ -30,7 +35,7 @@ public class DevicePluggablesData {
          * @param pluggables the given list PluggableData
          * @return the device pluggables data
          */
-        public static DevicePluggablesData of(DeviceId deviceId, ArrayList <PluggableData> pluggables) {
+        public static DevicePluggablesData of(DeviceId deviceId, List<PluggableData> pluggables) {
             requireNonNull(deviceId);
             requireNonNull(pluggables);
             return new DevicePluggablesData(deviceId, pluggables);
@@ -38,13 +43,12 @@ public class DevicePluggablesData {
 
         /**
          * Creates a copy of Device pluggables data.
+         * Being unmodifiable, the data itself is returned.
          * @param devPluggablesData the devPluggable data
          * @return the copy of the DevicePluggableData
          */
         public static DevicePluggablesData of(DevicePluggablesData devPluggablesData) {
             requireNonNull(devPluggablesData);
-            DevicePluggablesData devPluggablesDataCopy = new DevicePluggablesData(devPluggablesData.getDeviceId(),
-                     devPluggablesData.getPluggables());
             return devPluggablesData;
         }
 
@@ -56,15 +60,9 @@ public class DevicePluggablesData {
 
          /**
           * Get DevicePluggablesData.
-          * @return the name of the Device
+          * @return the unmodifiable list of the pluggables of the Device
           */
-        public ArrayList<PluggableData> getPluggables() {
-            ArrayList<PluggableData> plugs = new ArrayList<>();
-            plugs.addAll(pluggables);
-            return plugs;
-        }
-
-        public void addPluggables ( List<PluggableData> pluggablesData) { this.pluggables.addAll(pluggablesData);}
+        public List<PluggableData> getPluggables() { return pluggables; }
 
         @Override
         public String toString() {
@@ -0,0 +1,96 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Lists;
+import org.onosproject.net.DeviceId;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * View of the pluggables inventory at a given version.
+ * A snapshot is never modified: a write to the store publishes a new one,
+ * sharing the pluggables of the devices it did not change. The pluggables
+ * themselves are replaced rather than modified once stored (see
+ * {@link PluggableData}), so that a snapshot keeps the values it was taken with.
+ */
+public final class InventorySnapshot {
+
+    private final String epoch;
+    private final long version;
+    private final Map<DeviceId, DevicePluggablesData> devices;
+    private final List<DeviceId> deviceIds;
+
+    /**
+     * Constructs an InventorySnapshot.
+     * @param epoch the inventory epoch
+     * @param version the inventory version
+     * @param devices the pluggables of the devices; must not be modified afterwards
+     * @param deviceIds the ids of the devices, ordered by id; must not be modified afterwards
+     */
+    private InventorySnapshot(String epoch, long version, Map<DeviceId, DevicePluggablesData> devices,
+                              List<DeviceId> deviceIds) {
+        this.epoch = epoch;
+        this.version = version;
+        this.devices = devices;
+        this.deviceIds = deviceIds;
+    }
+
+    /**
+     * Creates an InventorySnapshot.
+     * @param epoch the inventory epoch
+     * @param version the inventory version
+     * @param devices the pluggables of the devices; must not be modified afterwards
+     * @param deviceIds the ids of the devices, ordered by id; must not be modified afterwards
+     * @return the snapshot
+     */
+    public static InventorySnapshot of(String epoch, long version, Map<DeviceId, DevicePluggablesData> devices,
+                                       List<DeviceId> deviceIds) {
+        requireNonNull(epoch);
+        requireNonNull(devices);
+        requireNonNull(deviceIds);
+        return new InventorySnapshot(epoch, version, devices, deviceIds);
+    }
+
+    /**
+     * Gets the epoch of the inventory, identifying the instance and the activation
+     * the version is counted by. The version is local to the epoch: two snapshots
+     * of different epochs may have the same version and different pluggables.
+     * @return the inventory epoch
+     */
+    public String getEpoch() { return epoch; }
+
+    /**
+     * Gets the version of the inventory, increased by every write to it.
+     * @return the inventory version
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Gets the pluggables of a device.
+     * @param deviceId the device ID
+     * @return the device pluggables; null if the device is not known
+     */
+    public DevicePluggablesData getDevicePluggables(DeviceId deviceId) { return devices.get(deviceId); }
+
+    /**
+     * Gets the pluggables of all the devices, ordered by device id, then by port
+     * within a device. The order is kept by the store as it writes, reading it
+     * neither copies nor sorts anything.
+     * @return all the device pluggables
+     */
+    public List<DevicePluggablesData> getDevicePluggables() {
+        return Lists.transform(deviceIds, devices::get);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("epoch", epoch)
+                .add("version", version)
+                .add("devices", devices.size())
+                .toString();
+    }
+}
@@ -0,0 +1,80 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A consumer of the link notifications, e.g. a multi-layer controller or an
+ * inventory system, reached over HTTP.
+ */
+public final class NotificationSubscriber {
+
+    private final String id;
+    private final String endpoint;
+    private final String username;
+    private final String password;
+
+    /**
+     * Constructs a NotificationSubscriber.
+     * @param id identify the subscriber
+     * @param endpoint URL the links are notified to
+     * @param username user of the basic authentication; null if none
+     * @param password password of the basic authentication; null if none
+     */
+    private NotificationSubscriber(String id, String endpoint, String username, String password) {
+        this.id = id;
+        this.endpoint = endpoint;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Creates a NotificationSubscriber.
+     * @param id identify the subscriber
+     * @param endpoint URL the links are notified to
+     * @param username user of the basic authentication; null if none
+     * @param password password of the basic authentication; null if none
+     * @return the subscriber
+     */
+    public static NotificationSubscriber of(String id, String endpoint, String username, String password) {
+        requireNonNull(id);
+        requireNonNull(endpoint);
+        return new NotificationSubscriber(id, endpoint, username, password);
+    }
+
+    public String getId() { return id; }
+    public String getEndpoint() { return endpoint; }
+    public String getUsername() { return username; }
+    public String getPassword() { return password; }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NotificationSubscriber)) {
+            return false;
+        }
+        NotificationSubscriber that = (NotificationSubscriber) obj;
+        return id.equals(that.id) && endpoint.equals(that.endpoint)
+                && Objects.equals(username, that.username) && Objects.equals(password, that.password);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, endpoint, username, password);
+    }
+
+    @Override
+    public String toString() {
+        // The password is not printed
+        return MoreObjects.toStringHelper(getClass())
+                .add("id", id)
+                .add("endpoint", endpoint)
+                .add("username", username)
+                .toString();
+    }
+}
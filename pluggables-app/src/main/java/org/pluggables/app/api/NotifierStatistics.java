@@ -0,0 +1,64 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Snapshot of the counters of the link notifications of a subscriber.
+ */
+public final class NotifierStatistics {
+
+    private final int pending;
+    private final long delivered;
+    private final long retries;
+    private final long failures;
+    private final long dropped;
+    private final long superseded;
+    private final long coalesced;
+    private final long averageLatencyMillis;
+
+    /**
+     * Constructs the statistics of the link notifications of a subscriber.
+     * @param pending number of notifications waiting to be delivered
+     * @param delivered number of notifications accepted by the endpoint
+     * @param retries number of delivery attempts scheduled after a failure
+     * @param failures number of notifications given up after the last attempt
+     * @param dropped number of notifications rejected because the queue was full
+     * @param superseded number of retries skipped because a newer notification of the same connection was queued
+     * @param coalesced number of queued notifications replaced by a newer one of the same connection
+     * @param averageLatencyMillis average milliseconds of the successful deliveries
+     */
+    public NotifierStatistics(int pending, long delivered, long retries, long failures,
+                              long dropped, long superseded, long coalesced, long averageLatencyMillis) {
+        this.pending = pending;
+        this.delivered = delivered;
+        this.retries = retries;
+        this.failures = failures;
+        this.dropped = dropped;
+        this.superseded = superseded;
+        this.coalesced = coalesced;
+        this.averageLatencyMillis = averageLatencyMillis;
+    }
+
+    public int pending() { return pending; }
+    public long delivered() { return delivered; }
+    public long retries() { return retries; }
+    public long failures() { return failures; }
+    public long dropped() { return dropped; }
+    public long superseded() { return superseded; }
+    public long coalesced() { return coalesced; }
+    public long averageLatencyMillis() { return averageLatencyMillis; }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("pending", pending)
+                .add("delivered", delivered)
+                .add("retries", retries)
+                .add("failures", failures)
+                .add("dropped", dropped)
+                .add("superseded", superseded)
+                .add("coalesced", coalesced)
+                .add("averageLatencyMillis", averageLatencyMillis)
+                .toString();
+    }
+}
@@ -0,0 +1,48 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Durations of a phase over the recorded runs of a connection.
+ */
+public final class PhaseSummary {
+
+    private final int samples;
+    private final int failures;
+    private final long p50Millis;
+    private final long p99Millis;
+    private final long maxMillis;
+
+    /**
+     * Constructs the summary of a phase.
+     * @param samples number of completed occurrences of the phase the percentiles are computed over
+     * @param failures number of failed occurrences of the phase
+     * @param p50Millis median duration in milliseconds
+     * @param p99Millis 99th percentile of the duration in milliseconds
+     * @param maxMillis longest duration in milliseconds
+     */
+    public PhaseSummary(int samples, int failures, long p50Millis, long p99Millis, long maxMillis) {
+        this.samples = samples;
+        this.failures = failures;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public int samples() { return samples; }
+    public int failures() { return failures; }
+    public long p50Millis() { return p50Millis; }
+    public long p99Millis() { return p99Millis; }
+    public long maxMillis() { return maxMillis; }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("samples", samples)
+                .add("failures", failures)
+                .add("p50Millis", p50Millis)
+                .add("p99Millis", p99Millis)
+                .add("maxMillis", maxMillis)
+                .toString();
+    }
+}
@@ -0,0 +1,105 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.intent.Key;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A connection between two pluggables: the logical channels enabled on the devices,
+ * the ends of the resulting link and the intents installed over it.
+ */
+public final class PluggableConnection {
+
+    /**
+     * State of the connection.
+     */
+    public enum State {
+        /** The channels are being configured on the devices, the link not yet up. */
+        CONFIGURING,
+        /** The intents are submitted, not yet installed in both directions. */
+        INSTALLING,
+        /** The intents are installed in both directions. */
+        ACTIVE,
+        /** The channels could not be configured, the link did not come up or an intent could not be installed. */
+        FAILED
+    }
+
+    private final String name;
+    private final State state;
+    private final List<Key> intentKeys;
+    private final Map<DeviceId, List<PortNumber>> channels;
+    private final List<ConnectPoint> linkEnds;
+
+    /**
+     * Constructs a PluggableConnection.
+     * @param name identify the connection
+     * @param state the state of the connection
+     * @param intentKeys keys of the intents installed over the connection
+     * @param channels logical channels enabled on each device
+     * @param linkEnds connect points at the ends of the link between the pluggables
+     */
+    private PluggableConnection(String name, State state, List<Key> intentKeys,
+                                Map<DeviceId, List<PortNumber>> channels, List<ConnectPoint> linkEnds) {
+        this.name = name;
+        this.state = state;
+        this.intentKeys = intentKeys;
+        this.channels = channels;
+        this.linkEnds = linkEnds;
+    }
+
+    /**
+     * Creates a connection whose channels are being configured.
+     * @param name identify the connection
+     * @param intentKeys keys of the intents installed over the connection
+     * @param channels logical channels enabled on each device
+     * @param linkEnds connect points at the ends of the link between the pluggables
+     * @return the connection
+     */
+    public static PluggableConnection of(String name, List<Key> intentKeys,
+                                         Map<DeviceId, List<PortNumber>> channels, List<ConnectPoint> linkEnds) {
+        requireNonNull(name);
+        requireNonNull(intentKeys);
+        requireNonNull(channels);
+        requireNonNull(linkEnds);
+        ImmutableMap.Builder<DeviceId, List<PortNumber>> channelsCopy = ImmutableMap.builder();
+        channels.forEach((deviceId, ports) -> channelsCopy.put(deviceId, ImmutableList.copyOf(ports)));
+        return new PluggableConnection(name, State.CONFIGURING, ImmutableList.copyOf(intentKeys),
+                                       channelsCopy.build(), ImmutableList.copyOf(linkEnds));
+    }
+
+    /**
+     * Creates a copy of the connection in another state.
+     * @param state the new state
+     * @return the connection in the new state
+     */
+    public PluggableConnection withState(State state) {
+        requireNonNull(state);
+        return new PluggableConnection(name, state, intentKeys, channels, linkEnds);
+    }
+
+    public String getName() { return name; }
+    public State getState() { return state; }
+    public List<Key> getIntentKeys() { return intentKeys; }
+    public Map<DeviceId, List<PortNumber>> getChannels() { return channels; }
+    public List<ConnectPoint> getLinkEnds() { return linkEnds; }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("name", name)
+                .add("state", state)
+                .add("intentKeys", intentKeys)
+                .add("channels", channels)
+                .add("linkEnds", linkEnds)
+                .toString();
+    }
+}
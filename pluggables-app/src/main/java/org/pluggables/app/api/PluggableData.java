@@ -2,26 +2,51 @@ package org.pluggables.app.api;
 
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import org.onlab.util.Frequency;
 import org.onosproject.net.Port;
 import org.onosproject.net.PortNumber;
 
+import java.util.function.Function;
+
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A pluggable plugged in a port of a device.
+ * The numeric fields are held as primitives, with a bit telling whether each
+ * nullable one is set, and the repeated strings (identifier, type, operational
+ * mode) are interned, so that large inventories hold one copy of each.
+ * Once given to the store a PluggableData is shared with its readers and must
+ * not be modified; a change is made on a {@link #copyOf(PluggableData) copy},
+ * which is then stored in its place.
+ */
+public class PluggableData {
 
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
 
-public class PluggableData {
+    // Bits of the nullable fields that are set
+    private static final byte PORT_SPEED = 1;
+    private static final byte IS_ENABLED = 1 << 1;
+    private static final byte PLUGGABLE_SPEED = 1 << 2;
+    private static final byte FREQUENCY = 1 << 3;
+    private static final byte POWER = 1 << 4;
 
     protected String pluggableID;
     protected PortNumber port;
     protected Port.Type portType;
-    protected Long portSpeed;
-    protected Boolean isEnabled;
+    protected long portSpeed;
+    protected long pluggableSpeed;
+    protected long frequencyHz;
+    protected float power;
+    protected boolean isEnabled;
+    protected byte present;
     protected String pluggableType;
-    protected Long pluggableSpeed;
     protected String opMode;
-    protected Frequency frequency;
-    protected Float power;
+
+    // Local to the instance, not shared with the cluster
+    private transient volatile long version;
+    private transient volatile Encoded encoded;
 
     /**
      * Constructs a PluggableData given a pluggableId.
@@ -29,14 +54,14 @@ public class PluggableData {
      */
     private PluggableData (String pluggableID) {
 
-        this.pluggableID = pluggableID;
+        this.pluggableID = intern(pluggableID);
         this.port = null;
         this.isEnabled = false;
         this.pluggableType = null;
-        this.pluggableSpeed = null;
         this.opMode =  "0";
-        this.frequency = Frequency.ofGHz(0);
-        this.power = (float) 0;
+        this.frequencyHz = 0;
+        this.power = 0;
+        this.present = IS_ENABLED | FREQUENCY | POWER;
     }
     /**
      * Creates a Pluggable Data data by given name.
@@ -48,26 +73,106 @@ public class PluggableData {
         return new PluggableData(pluggableID);
     }
 
-    public void setPort(PortNumber port) { this.port = port; }
-    public void setPortType(Port.Type portType) { this.portType= portType; }
-    public void setPortSpeed(Long portSpeed) { this.portSpeed= portSpeed; }
-    public void setIsEnable(Boolean isEnabled) { this.isEnabled = isEnabled; }
-    public void setPluggableType(String pluggableType) { this.pluggableType = pluggableType; }
-    public void setPluggableSpeed(Long pluggableSpeed) { this.pluggableSpeed = pluggableSpeed; }
-    public void setOpMode(String opModess) { this.opMode = opModess;}
-    public void setFrequency(Frequency freq) { this.frequency = freq; }
-    public void setPower(Float pow) { this.power = pow; }
+    /**
+     * Creates a copy of a Pluggable Data, that can be modified without
+     * affecting the original.
+     * @param pluggableData the pluggable data
+     * @return the copy of the pluggable data
+     */
+    public static PluggableData copyOf(PluggableData pluggableData) {
+        requireNonNull(pluggableData);
+        PluggableData copy = new PluggableData(pluggableData.pluggableID);
+        copy.port = pluggableData.port;
+        copy.portType = pluggableData.portType;
+        copy.portSpeed = pluggableData.portSpeed;
+        copy.pluggableSpeed = pluggableData.pluggableSpeed;
+        copy.frequencyHz = pluggableData.frequencyHz;
+        copy.power = pluggableData.power;
+        copy.isEnabled = pluggableData.isEnabled;
+        copy.present = pluggableData.present;
+        copy.pluggableType = pluggableData.pluggableType;
+        copy.opMode = pluggableData.opMode;
+        return copy;
+    }
+
+    public void setPort(PortNumber port) { this.port = port; modified(); }
+    public void setPortType(Port.Type portType) { this.portType= portType; modified(); }
+    public void setPortSpeed(Long portSpeed) {
+        this.portSpeed = portSpeed != null ? portSpeed : 0;
+        setPresent(PORT_SPEED, portSpeed != null);
+    }
+    public void setIsEnable(Boolean isEnabled) {
+        this.isEnabled = isEnabled != null && isEnabled;
+        setPresent(IS_ENABLED, isEnabled != null);
+    }
+    public void setPluggableType(String pluggableType) { this.pluggableType = intern(pluggableType); modified(); }
+    public void setPluggableSpeed(Long pluggableSpeed) {
+        this.pluggableSpeed = pluggableSpeed != null ? pluggableSpeed : 0;
+        setPresent(PLUGGABLE_SPEED, pluggableSpeed != null);
+    }
+    public void setOpMode(String opModess) { this.opMode = intern(opModess); modified(); }
+    public void setFrequency(Frequency freq) {
+        this.frequencyHz = freq != null ? freq.asHz() : 0;
+        setPresent(FREQUENCY, freq != null);
+    }
+    public void setPower(Float pow) {
+        this.power = pow != null ? pow : 0;
+        setPresent(POWER, pow != null);
+    }
 
     public String getPluggableID() { return this.pluggableID; }
     public Port.Type getPortType() { return this.portType; }
-    public Long getPortSpeed() { return this.portSpeed; }
+    public Long getPortSpeed() { return isPresent(PORT_SPEED) ? this.portSpeed : null; }
     public PortNumber getPort() { return this.port; }
-    public Boolean getIsEnable() { return this.isEnabled; }
+    public Boolean getIsEnable() { return isPresent(IS_ENABLED) ? this.isEnabled : null; }
     public String getPluggableType() { return this.pluggableType; }
-    public Long getPluggableSpeed() { return this.pluggableSpeed; }
+    public Long getPluggableSpeed() { return isPresent(PLUGGABLE_SPEED) ? this.pluggableSpeed : null; }
     public String getOpMode(){ return this.opMode; }
-    public Frequency getFrequency(){ return this.frequency; }
-    public Float getPower() { return this.power;}
+    public Frequency getFrequency(){ return isPresent(FREQUENCY) ? Frequency.ofHz(this.frequencyHz) : null; }
+    public Float getPower() { return isPresent(POWER) ? this.power : null; }
+
+    /**
+     * Gets the version of the data, bumped by every setter.
+     * @return the version
+     */
+    public long getVersion() { return this.version; }
+
+    /**
+     * Gets the JSON encoding of the data, encoding it only if it changed since the last call.
+     * @param encoder the encoder of the data
+     * @return the encoded data
+     */
+    public String getEncoded(Function<PluggableData, String> encoder) {
+        long current = version;
+        Encoded cached = encoded;
+        if (cached != null && cached.version == current) {
+            return cached.json;
+        }
+        String json = encoder.apply(this);
+        // Not cached if a setter ran meanwhile, as the encoding may mix both versions
+        if (version == current) {
+            encoded = new Encoded(current, json);
+        }
+        return json;
+    }
+
+    private void modified() {
+        version++;
+        encoded = null;
+    }
+
+    private void setPresent(byte field, boolean set) {
+        present = (byte) (set ? present | field : present & ~field);
+        modified();
+    }
+
+    private boolean isPresent(byte field) {
+        return (present & field) != 0;
+    }
+
+    private static String intern(String value) {
+        return value != null ? STRINGS.intern(value) : null;
+    }
 
 
     @Override
@@ -75,16 +180,25 @@ public class PluggableData {
         return MoreObjects.toStringHelper(getClass())
                 .add("Pluggable ID", pluggableID)
                 .add("Port", port)
-                .add("isEnable", isEnabled.toString())
+                .add("isEnable", getIsEnable())
                 .add("pluggableType", pluggableType)
-                .add("pluggableSpeed", pluggableSpeed)
+                .add("pluggableSpeed", getPluggableSpeed())
                 .add("opMode", opMode)
-                .add("frequency", frequency)
-                .add("power", power)
+                .add("frequency", getFrequency())
+                .add("power", getPower())
                 .toString();
     }
 
-
-
-
+    /**
+     * JSON encoding of a version of the data.
+     */
+    private static final class Encoded {
+        private final long version;
+        private final String json;
+
+        private Encoded(long version, String json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package org.pluggables.app.api;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+
+import java.util.Collection;
+
+/**
+ * Store of the pluggables attached to the devices, indexed by device,
+ * by pluggable identifier and by port, of the connections between them and of the
+ * subscribers notified of the resulting links.
+ */
+public interface PluggableStore {
+
+    /**
+     * Stores the pluggables of a device, replacing any previous entry.
+     * @param devicePluggablesData the device pluggables
+     */
+    void putDevicePluggables(DevicePluggablesData devicePluggablesData);
+
+    /**
+     * Replaces the pluggables of a device, provided they are still the given ones,
+     * so that an update derived from them does not overwrite a concurrent write.
+     * @param expected the device pluggables the update is derived from
+     * @param devicePluggablesData the updated device pluggables
+     * @return true if replaced; false if the device pluggables were changed or removed meanwhile
+     */
+    boolean replaceDevicePluggables(DevicePluggablesData expected, DevicePluggablesData devicePluggablesData);
+
+    /**
+     * Removes the pluggables of a device.
+     * @param deviceId the device ID
+     * @return the removed device pluggables; null if the device was not stored
+     */
+    DevicePluggablesData removeDevicePluggables(DeviceId deviceId);
+
+    /**
+     * Provide the pluggables of a device.
+     * @param deviceId the device ID
+     * @return the device pluggables; null if the device is not stored
+     */
+    DevicePluggablesData getDevicePluggables(DeviceId deviceId);
+
+    /**
+     * Provide the pluggables of all the devices.
+     * @return all the device pluggables
+     */
+    Collection<DevicePluggablesData> getDevicePluggables();
+
+    /**
+     * Provide the pluggables of a device with a given identifier.
+     * @param deviceId the device ID
+     * @param pluggableId the pluggable identifier
+     * @return the matching pluggables; empty if none
+     */
+    Collection<PluggableData> getPluggables(DeviceId deviceId, String pluggableId);
+
+    /**
+     * Provide the pluggable plugged in a port of a device.
+     * @param deviceId the device ID
+     * @param port the port number
+     * @return the pluggable; null if none
+     */
+    PluggableData getPluggable(DeviceId deviceId, PortNumber port);
+
+    /**
+     * Replaces a stored pluggable, identified by its device and port.
+     * @param deviceId the device ID
+     * @param pluggableData the new pluggable data
+     */
+    void updatePluggable(DeviceId deviceId, PluggableData pluggableData);
+
+    /**
+     * Provide the version of the stored pluggables, increased by every write to them.
+     * @return the inventory version
+     */
+    long getVersion();
+
+    /**
+     * Provide the stored pluggables as of the last write, with their version.
+     * @return the immutable snapshot of the inventory
+     */
+    InventorySnapshot getSnapshot();
+
+    /**
+     * Stores a connection, replacing any previous one with the same name.
+     * @param connection the connection
+     */
+    void putConnection(PluggableConnection connection);
+
+    /**
+     * Removes a connection.
+     * @param name the connection name
+     * @return the removed connection; null if the connection was not stored
+     */
+    PluggableConnection removeConnection(String name);
+
+    /**
+     * Provide a connection.
+     * @param name the connection name
+     * @return the connection; null if the connection is not stored
+     */
+    PluggableConnection getConnection(String name);
+
+    /**
+     * Provide all the connections.
+     * @return the connections
+     */
+    Collection<PluggableConnection> getConnections();
+
+    /**
+     * Registers a subscriber of the link notifications, replacing any previous one with the same id.
+     * @param subscriber the subscriber
+     */
+    void putSubscriber(NotificationSubscriber subscriber);
+
+    /**
+     * Unregisters a subscriber of the link notifications.
+     * @param id the subscriber id
+     * @return the removed subscriber; null if the subscriber was not registered
+     */
+    NotificationSubscriber removeSubscriber(String id);
+
+    /**
+     * Provide the registered subscribers of the link notifications.
+     * @return the subscribers
+     */
+    Collection<NotificationSubscriber> getSubscribers();
+}
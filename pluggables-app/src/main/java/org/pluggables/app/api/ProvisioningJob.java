@@ -0,0 +1,118 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tracks the progress of the provisioning of a connection.
+ */
+public final class ProvisioningJob {
+
+    /**
+     * Phases a provisioning job goes through.
+     */
+    public enum Phase {
+        QUEUED,
+        CONFIGURING_PLUGGABLES,
+        WAITING_LINK,
+        INSTALLING_INTENTS,
+        NOTIFYING,
+        DONE
+    }
+
+    /**
+     * Outcome of a provisioning job.
+     */
+    public enum Outcome {
+        PENDING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final String id;
+    private final String connectionName;
+    private final long created;
+    private volatile long updated;
+    private volatile Phase phase;
+    private volatile Outcome outcome;
+    private volatile String error;
+    private final CompletableFuture<ProvisioningJob> completion = new CompletableFuture<>();
+
+    /**
+     * Constructs a ProvisioningJob given its id and the connection it provisions.
+     * @param id the job identifier
+     * @param connectionName the connection name
+     */
+    private ProvisioningJob(String id, String connectionName) {
+        this.id = id;
+        this.connectionName = connectionName;
+        this.created = System.currentTimeMillis();
+        this.updated = created;
+        this.phase = Phase.QUEUED;
+        this.outcome = Outcome.PENDING;
+    }
+
+    /**
+     * Creates a queued provisioning job with a random identifier.
+     * @param connectionName the connection name
+     * @return the provisioning job
+     */
+    public static ProvisioningJob of(String connectionName) {
+        requireNonNull(connectionName);
+        return new ProvisioningJob(UUID.randomUUID().toString(), connectionName);
+    }
+
+    public void setPhase(Phase phase) {
+        this.phase = phase;
+        this.updated = System.currentTimeMillis();
+    }
+
+    /**
+     * Marks the job as successfully completed.
+     */
+    public void succeed() {
+        this.outcome = Outcome.SUCCEEDED;
+        setPhase(Phase.DONE);
+        completion.complete(this);
+    }
+
+    /**
+     * Marks the job as failed, keeping the phase it failed in.
+     * @param error the failure description
+     */
+    public void fail(String error) {
+        this.error = error;
+        this.outcome = Outcome.FAILED;
+        this.updated = System.currentTimeMillis();
+        completion.complete(this);
+    }
+
+    public String getId() { return id; }
+    public String getConnectionName() { return connectionName; }
+    public long getCreated() { return created; }
+    public long getUpdated() { return updated; }
+    public Phase getPhase() { return phase; }
+    public Outcome getOutcome() { return outcome; }
+    public String getError() { return error; }
+
+    /**
+     * Provide a future completed once the job succeeds or fails.
+     * @return the completion of the job
+     */
+    public CompletableFuture<ProvisioningJob> completion() { return completion; }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("id", id)
+                .add("connectionName", connectionName)
+                .add("phase", phase)
+                .add("outcome", outcome)
+                .add("error", error)
+                .toString();
+    }
+}
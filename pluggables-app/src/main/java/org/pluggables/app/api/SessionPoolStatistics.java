@@ -0,0 +1,54 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Snapshot of the counters of the NETCONF session pool.
+ */
+public final class SessionPoolStatistics {
+
+    private final int activeSessions;
+    private final long hits;
+    private final long connects;
+    private final long reconnects;
+    private final long idleEvictions;
+    private final long healthCheckFailures;
+
+    /**
+     * Constructs the statistics of the session pool.
+     * @param activeSessions number of sessions currently held by the pool
+     * @param hits number of requests served by an already open session
+     * @param connects number of sessions opened towards a device not in the pool
+     * @param reconnects number of sessions re-opened after the pooled one went down
+     * @param idleEvictions number of sessions closed because they were idle
+     * @param healthCheckFailures number of sessions found down by the health check
+     */
+    public SessionPoolStatistics(int activeSessions, long hits, long connects, long reconnects,
+                                 long idleEvictions, long healthCheckFailures) {
+        this.activeSessions = activeSessions;
+        this.hits = hits;
+        this.connects = connects;
+        this.reconnects = reconnects;
+        this.idleEvictions = idleEvictions;
+        this.healthCheckFailures = healthCheckFailures;
+    }
+
+    public int activeSessions() { return activeSessions; }
+    public long hits() { return hits; }
+    public long connects() { return connects; }
+    public long reconnects() { return reconnects; }
+    public long idleEvictions() { return idleEvictions; }
+    public long healthCheckFailures() { return healthCheckFailures; }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("activeSessions", activeSessions)
+                .add("hits", hits)
+                .add("connects", connects)
+                .add("reconnects", reconnects)
+                .add("idleEvictions", idleEvictions)
+                .add("healthCheckFailures", healthCheckFailures)
+                .toString();
+    }
+}
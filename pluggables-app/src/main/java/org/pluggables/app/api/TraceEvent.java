@@ -0,0 +1,93 @@
+package org.pluggables.app.api;
+
+import com.google.common.base.MoreObjects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A phase of the provisioning or deletion of a connection, as recorded in its trace,
+ * e.g. the edit-config of an endpoint or the installation of an intent.
+ */
+public final class TraceEvent {
+
+    /**
+     * Outcome of a phase, or of a whole run.
+     */
+    public enum Status {
+        /** Not completed yet. */
+        RUNNING,
+        /** Completed successfully. */
+        SUCCEEDED,
+        /** Failed, rejected or abandoned. */
+        FAILED
+    }
+
+    private final String phase;
+    private final String scope;
+    private final long offsetMillis;
+    private final long durationMillis;
+    private final Status status;
+    private final String detail;
+
+    /**
+     * Constructs a TraceEvent.
+     * @param phase name of the phase
+     * @param scope the device, link, intent or subscriber the phase applies to
+     * @param offsetMillis milliseconds from the start of the run to the start of the phase
+     * @param durationMillis duration of the phase in milliseconds; -1 while running
+     * @param status the outcome of the phase
+     * @param detail reason of the failure; null if none
+     */
+    private TraceEvent(String phase, String scope, long offsetMillis, long durationMillis,
+                       Status status, String detail) {
+        this.phase = phase;
+        this.scope = scope;
+        this.offsetMillis = offsetMillis;
+        this.durationMillis = durationMillis;
+        this.status = status;
+        this.detail = detail;
+    }
+
+    /**
+     * Creates a TraceEvent.
+     * @param phase name of the phase
+     * @param scope the device, link, intent or subscriber the phase applies to
+     * @param offsetMillis milliseconds from the start of the run to the start of the phase
+     * @param durationMillis duration of the phase in milliseconds; -1 while running
+     * @param status the outcome of the phase
+     * @param detail reason of the failure; null if none
+     * @return the event
+     */
+    public static TraceEvent of(String phase, String scope, long offsetMillis, long durationMillis,
+                                Status status, String detail) {
+        requireNonNull(phase);
+        requireNonNull(scope);
+        requireNonNull(status);
+        return new TraceEvent(phase, scope, offsetMillis, durationMillis, status, detail);
+    }
+
+    public String getPhase() { return phase; }
+
+    public String getScope() { return scope; }
+
+    public long getOffsetMillis() { return offsetMillis; }
+
+    public long getDurationMillis() { return durationMillis; }
+
+    public Status getStatus() { return status; }
+
+    public String getDetail() { return detail; }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("phase", phase)
+                .add("scope", scope)
+                .add("offsetMillis", offsetMillis)
+                .add("durationMillis", durationMillis)
+                .add("status", status)
+                .add("detail", detail)
+                .omitNullValues()
+                .toString();
+    }
+}
@@ -1,9 +1,11 @@
 package org.pluggables.app.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.onlab.util.Frequency;
 import org.onosproject.codec.CodecContext;
 import org.onosproject.codec.JsonCodec;
+import org.onosproject.net.PortNumber;
 import org.pluggables.app.api.PluggableData;
 import org.slf4j.Logger;
 
@@ -74,6 +76,11 @@ public final class PluggableCodec extends JsonCodec<PluggableData> {
         pluggableData.setOpMode(opMode);
         pluggableData.setFrequency(frequency);
         pluggableData.setPower(power);
+        // Optional, tells apart the identical pluggables of a device
+        JsonNode port = json.get(PORT);
+        if (port != null && !port.isNull()) {
+            pluggableData.setPort(PortNumber.fromString(port.asText()));
+        }
 
         return pluggableData;
     }
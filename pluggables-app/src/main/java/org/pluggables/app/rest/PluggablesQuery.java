@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app.rest;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Filter and page of a pluggables listing.
+ * Pluggables are listed ordered by device and port, the order the inventory
+ * keeps them in; a page ends with a cursor naming the last listed pluggable,
+ * from which the next page starts, found by a binary search of its device.
+ */
+final class PluggablesQuery {
+
+    private static final String CURSOR_SEPARATOR = "#";
+
+    private final DeviceId device;
+    private final PortNumber port;
+    private final String type;
+    private final Boolean enabled;
+    private final int limit;
+    private final String afterDevice;
+    private final long afterPort;
+
+    /**
+     * Creates a query.
+     * @param device the device to list the pluggables of; null for all
+     * @param port the port to list the pluggable of; null for all
+     * @param type the pluggable type to list; null for all
+     * @param enabled the enabled state to list; null for both
+     * @param limit maximum number of pluggables listed; 0 for all
+     * @param cursor cursor returned by the previous page; null for the first page
+     * @throws IllegalArgumentException if the limit is negative or the cursor is malformed
+     */
+    PluggablesQuery(String device, String port, String type, Boolean enabled, int limit, String cursor) {
+        checkArgument(limit >= 0, "Negative limit %s", limit);
+        this.device = device != null ? DeviceId.deviceId(device) : null;
+        this.port = port != null ? PortNumber.fromString(port) : null;
+        this.type = type;
+        this.enabled = enabled;
+        this.limit = limit;
+        if (cursor == null) {
+            this.afterDevice = null;
+            this.afterPort = -1;
+        } else {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(CURSOR_SEPARATOR);
+            checkArgument(separator > 0, "Malformed cursor %s", cursor);
+            this.afterDevice = decoded.substring(0, separator);
+            this.afterPort = Long.parseLong(decoded.substring(separator + 1));
+        }
+    }
+
+    /**
+     * The device to list the pluggables of.
+     * @return the device; null for all
+     */
+    DeviceId device() {
+        return device;
+    }
+
+    /**
+     * Writes the page of pluggables matching the query.
+     * @param devicePluggables the pluggables of the devices, ordered by device id
+     *                         and, within a device, by port
+     * @param writer the writer of each pluggable of the page
+     * @return the cursor of the next page; null if this is the last one
+     * @throws IOException if the writer fails
+     */
+    String select(List<DevicePluggablesData> devicePluggables, RowWriter writer) throws IOException {
+        int written = 0;
+        DeviceId lastDevice = null;
+        PluggableData lastPluggable = null;
+        int from = afterDevice != null ? seek(devicePluggables, afterDevice) : 0;
+        for (DevicePluggablesData entry : devicePluggables.subList(from, devicePluggables.size())) {
+            if (device != null && !device.equals(entry.getDeviceId())) {
+                continue;
+            }
+            boolean cursorDevice = entry.getDeviceId().toString().equals(afterDevice);
+            for (PluggableData pluggable : entry.getPluggables()) {
+                if (!matches(pluggable) || (cursorDevice && portValue(pluggable) <= afterPort)) {
+                    continue;
+                }
+                if (limit > 0 && written == limit) {
+                    return cursor(lastDevice, lastPluggable);
+                }
+                writer.write(entry.getDeviceId(), pluggable);
+                written++;
+                lastDevice = entry.getDeviceId();
+                lastPluggable = pluggable;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the first device whose id is not before a given one.
+     * @param devicePluggables the pluggables of the devices, ordered by device id
+     * @param deviceId the device id
+     * @return the index of the device; the number of devices if all are before
+     */
+    private static int seek(List<DevicePluggablesData> devicePluggables, String deviceId) {
+        int low = 0;
+        int high = devicePluggables.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (devicePluggables.get(middle).getDeviceId().toString().compareTo(deviceId) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private boolean matches(PluggableData pluggable) {
+        return (port == null || port.equals(pluggable.getPort()))
+                && (type == null || type.equalsIgnoreCase(pluggable.getPluggableType()))
+                && (enabled == null || Objects.equals(enabled, pluggable.getIsEnable()));
+    }
+
+    private static long portValue(PluggableData pluggable) {
+        // Pluggables without a port, if any, are listed first
+        return pluggable.getPort() != null ? pluggable.getPort().toLong() : -1;
+    }
+
+    private static String cursor(DeviceId deviceId, PluggableData pluggable) {
+        String position = deviceId + CURSOR_SEPARATOR + portValue(pluggable);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writer of the pluggables of a page, as they are selected.
+     */
+    @FunctionalInterface
+    interface RowWriter {
+        /**
+         * Writes a pluggable.
+         * @param deviceId the device the pluggable is attached to
+         * @param pluggable the pluggable
+         * @throws IOException if the pluggable cannot be written
+         */
+        void write(DeviceId deviceId, PluggableData pluggable) throws IOException;
+    }
+}
@@ -15,30 +15,57 @@
  */
 package org.pluggables.app.rest;
 
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onlab.util.ItemNotFoundException;
 import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.rest.AbstractWebResource;
+import org.pluggables.app.api.ConnectionRequest;
+import org.pluggables.app.api.ConnectionTrace;
 import org.pluggables.app.api.DevicePluggables;
 import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.InventorySnapshot;
+import org.pluggables.app.api.NotificationSubscriber;
+import org.pluggables.app.api.PluggableData;
+import org.pluggables.app.api.ProvisioningJob;
+import org.pluggables.app.api.SessionPoolStatistics;
 import org.slf4j.Logger;
 
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.time.Instant;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.onlab.util.Tools.*;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -51,6 +78,9 @@ public class PluggablesWebResource extends AbstractWebResource {
     @Context
     private UriInfo uriInfo;
 
+    @Context
+    private Request httpRequest;
+
     private static final String PLUGGABLES = "pluggables";
     private static final String DEVICE_ID = "device-id";
     private static final String PLUGGABLE_ONE = "pluggable-one";
@@ -69,51 +99,339 @@ public class PluggablesWebResource extends AbstractWebResource {
     private static final String FREQUENCY = "frequency";
     private static final String POWER = "power";
     private static final String CONNECTIONAME = "connection-name";
+    private static final String JOBS = "jobs";
+    private static final String CONNECTIONS = "connections";
+    private static final String ACTIVE_SESSIONS = "activeSessions";
+    private static final String HITS = "hits";
+    private static final String CONNECTS = "connects";
+    private static final String RECONNECTS = "reconnects";
+    private static final String IDLE_EVICTIONS = "idleEvictions";
+    private static final String HEALTH_CHECK_FAILURES = "healthCheckFailures";
+    private static final String PENDING = "pending";
+    private static final String DELIVERED = "delivered";
+    private static final String RETRIES = "retries";
+    private static final String FAILURES = "failures";
+    private static final String DROPPED = "dropped";
+    private static final String SUPERSEDED = "superseded";
+    private static final String COALESCED = "coalesced";
+    private static final String AVERAGE_LATENCY = "averageLatencyMillis";
+    private static final String SUBSCRIBERS = "subscribers";
+    private static final String ID = "id";
+    private static final String ENDPOINT = "endpoint";
+    private static final String USERNAME = "username";
+    private static final String PASSWORD = "password";
+    private static final String NEXT = "next";
+    private static final String COUNT = "count";
+    private static final String MEAN = "meanMillis";
+    private static final String P50 = "p50Millis";
+    private static final String P99 = "p99Millis";
+    private static final String MAX = "maxMillis";
+    private static final String RATE = "oneMinuteRate";
+    private static final String TRACES = "traces";
+    private static final String OPERATION = "operation";
+    private static final String START = "start";
+    private static final String STATUS = "status";
+    private static final String FAILURE = "failure";
+    private static final String EVENTS = "events";
+    private static final String PHASE = "phase";
+    private static final String SCOPE = "scope";
+    private static final String OFFSET = "offsetMillis";
+    private static final String DURATION = "durationMillis";
+    private static final String DETAIL = "detail";
+    private static final String SUMMARY = "summary";
+    private static final String SAMPLES = "samples";
+
+    /** Longest time a bulk request waits for its connections, in seconds. */
+    private static final int MAX_WAIT_TIMEOUT = 600;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
-    private final ObjectNode root = mapper().createObjectNode();
     private final Logger log = getLogger(getClass());
 
     /**
-     * Gets all Pluggables. Returns an array of all Pluggables in the network.
+     * Gets the Pluggables matching the filters, ordered by device and port.
+     * A page holding limit Pluggables carries the cursor of the next one in "next".
+     * The response is tagged with the inventory version and is not sent again,
+     * with 304 NOT MODIFIED, while the inventory is unchanged.
+     * @param device device identifier filter
+     * @param port port number filter
+     * @param type pluggable type filter
+     * @param enabled enabled state filter
+     * @param limit maximum number of Pluggables returned; 0 for all
+     * @param cursor cursor of the page, as returned by the previous one
+     * @return 200 OK, 304 NOT MODIFIED
+     *
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPluggables(@QueryParam("device") String device,
+                                  @QueryParam("port") String port,
+                                  @QueryParam("type") String type,
+                                  @QueryParam("enabled") Boolean enabled,
+                                  @QueryParam("limit") @DefaultValue("0") int limit,
+                                  @QueryParam("cursor") String cursor) {
+        // The tag and the body come from the same immutable snapshot, so they always match
+        InventorySnapshot snapshot = get(DevicePluggables.class).inventorySnapshot();
+        EntityTag etag = etag(snapshot);
+        Response.ResponseBuilder notModified = httpRequest.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        PluggablesQuery query = new PluggablesQuery(device, port, type, enabled, limit, cursor);
+        List<DevicePluggablesData> devicePluggablesDatas;
+        if (query.device() != null) {
+            DevicePluggablesData devicePluggablesData = snapshot.getDevicePluggables(query.device());
+            devicePluggablesDatas = devicePluggablesData != null
+                    ? Collections.singletonList(devicePluggablesData) : Collections.emptyList();
+        } else {
+            devicePluggablesDatas = snapshot.getDevicePluggables();
+        }
+        // Written while the inventory is walked, so that no tree of the whole response is held in memory
+        StreamingOutput body = output -> {
+            try (JsonGenerator generator = mapper().getFactory().createGenerator(output)) {
+                writePluggables(generator, query, devicePluggablesDatas);
+            }
+        };
+        return ok(body).tag(etag).build();
+    }
+
+    /**
+     * Gets the entity tag of the Pluggables listed from an inventory snapshot.
+     * @param snapshot the inventory snapshot
+     * @return the entity tag, the epoch and the version of the inventory
+     */
+    static EntityTag etag(InventorySnapshot snapshot) {
+        // The version alone is local to an instance and an activation
+        return new EntityTag(snapshot.getEpoch() + "." + Long.toHexString(snapshot.getVersion()));
+    }
+
+    /**
+     * Writes the page of Pluggables matching a query as a JSON object.
+     * @param generator the JSON generator
+     * @param query the query
+     * @param devicePluggablesDatas the pluggables of the devices, ordered by device id and port
+     * @throws IOException if the JSON cannot be written
+     */
+    static void writePluggables(JsonGenerator generator, PluggablesQuery query,
+                                List<DevicePluggablesData> devicePluggablesDatas) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(PLUGGABLES);
+        String next = query.select(devicePluggablesDatas,
+                                   (deviceId, pluggableData) -> writePluggable(generator, deviceId, pluggableData));
+        generator.writeEndArray();
+        if (next != null) {
+            generator.writeStringField(NEXT, next);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a Pluggable as a JSON object.
+     * The fields of the Pluggable are encoded once per version of its data and copied as they are.
+     * They are encoded before anything of the Pluggable is written, so that the
+     * response, whose status is sent already, never carries half a Pluggable.
+     * @param generator the JSON generator
+     * @param deviceId the device the Pluggable is attached to
+     * @param pluggableData the Pluggable
+     * @throws IOException if the JSON cannot be written
+     */
+    private static void writePluggable(JsonGenerator generator, DeviceId deviceId, PluggableData pluggableData)
+            throws IOException {
+        String fields = pluggableData.getEncoded(PluggablesWebResource::encodePluggable);
+        generator.writeStartObject();
+        generator.writeStringField(DEVICE_ID, deviceId.toString());
+        generator.writeRaw(',');
+        generator.writeRaw(fields);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Encodes the fields of a Pluggable, without the enclosing braces.
+     * Fields that are not set are encoded as null.
+     * @param pluggableData the Pluggable
+     * @return the encoded fields
+     */
+    private static String encodePluggable(PluggableData pluggableData) {
+        //TODO fix the codecDevicePluggables and PlauggableData for obtaining a pretty JSON
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField(PLUGGABLE_ID, pluggableData.getPluggableID());
+            generator.writeStringField(PORT, nullableString(pluggableData.getPort()));
+            generator.writeStringField(PORT_TYPE, nullableString(pluggableData.getPortType()));
+            generator.writeStringField(PORT_SPEED, nullableString(pluggableData.getPortSpeed()));
+            generator.writeStringField(IS_ENABLE, nullableString(pluggableData.getIsEnable()));
+            generator.writeStringField(PLUGGABLE_TYPE, pluggableData.getPluggableType());
+            generator.writeStringField(PLUGGABLE_SPEED, nullableString(pluggableData.getPluggableSpeed()));
+            generator.writeStringField(OPMODE, pluggableData.getOpMode());
+            if (pluggableData.getFrequency() != null) {
+                generator.writeNumberField(FREQUENCY, pluggableData.getFrequency().asGHz());
+            } else {
+                generator.writeNullField(FREQUENCY);
+            }
+            generator.writeStringField(POWER, nullableString(pluggableData.getPower()));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            // Not thrown by a StringWriter
+            throw new IllegalStateException(e);
+        }
+        StringBuffer json = writer.getBuffer();
+        return json.substring(1, json.length() - 1);
+    }
+
+    private static String nullableString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Gets the statistics of the NETCONF session pool.
      * @return 200 OK
      *
      */
     @GET
+    @Path("sessions")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getPluggables() {
-        ArrayNode pluggablesNode = mapper().createArrayNode();
-        DevicePluggables service = get(DevicePluggables.class);
-        Collection<DevicePluggablesData> devicePluggablesDatas = service.allDevicePluggables();
-        if (!devicePluggablesDatas.isEmpty()) {
-            for (DevicePluggablesData entry : devicePluggablesDatas) {
-                //TODO fix the codecDevicePluggables and PlauggableData for obtaining a pretty JSON
-                //pluggablesNode.add(codec(DevicePluggablesData.class).encode(entry, this));
-                entry.getPluggables().forEach(pluggableData -> {
-                    ObjectNode objectNode = mapper().createObjectNode();
-                    objectNode.put(DEVICE_ID,entry.getDeviceId().toString())
-                            .put(PLUGGABLE_ID,pluggableData.getPluggableID())
-                            .put(PORT, pluggableData.getPort().toString())
-                            .put(PORT_TYPE, pluggableData.getPortType().toString())
-                            .put(PORT_SPEED, pluggableData.getPortSpeed().toString())
-                            .put(IS_ENABLE, pluggableData.getIsEnable().toString())
-                            .put(PLUGGABLE_TYPE, pluggableData.getPluggableType())
-                            .put(PLUGGABLE_SPEED, pluggableData.getPluggableSpeed().toString())
-                            .put(OPMODE, pluggableData.getOpMode())
-                            .put(FREQUENCY, pluggableData.getFrequency().asGHz())
-                            .put(POWER, pluggableData.getPower().toString());
-                    pluggablesNode.add(objectNode);
-                    }
-                );
+    public Response getSessionStatistics() {
+        SessionPoolStatistics stats = get(DevicePluggables.class).sessionStatistics();
+        ObjectNode result = mapper().createObjectNode()
+                .put(ACTIVE_SESSIONS, stats.activeSessions())
+                .put(HITS, stats.hits())
+                .put(CONNECTS, stats.connects())
+                .put(RECONNECTS, stats.reconnects())
+                .put(IDLE_EVICTIONS, stats.idleEvictions())
+                .put(HEALTH_CHECK_FAILURES, stats.healthCheckFailures());
+        return ok(result).build();
+    }
+
+    /**
+     * Gets the statistics of the link notifications of each subscriber.
+     * @return 200 OK
+     *
+     */
+    @GET
+    @Path("notifier")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getNotifierStatistics() {
+        ObjectNode result = mapper().createObjectNode();
+        get(DevicePluggables.class).notifierStatistics().forEach((id, stats) -> result.putObject(id)
+                .put(PENDING, stats.pending())
+                .put(DELIVERED, stats.delivered())
+                .put(RETRIES, stats.retries())
+                .put(FAILURES, stats.failures())
+                .put(DROPPED, stats.dropped())
+                .put(SUPERSEDED, stats.superseded())
+                .put(COALESCED, stats.coalesced())
+                .put(AVERAGE_LATENCY, stats.averageLatencyMillis()));
+        return ok(result).build();
+    }
+
+    /**
+     * Gets the latency timers, in milliseconds, and the error and timeout counters
+     * of the NETCONF RPCs, of the provisioning phases and of the link notifications.
+     * @return 200 OK
+     *
+     */
+    @GET
+    @Path("metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getMetrics() {
+        ObjectNode result = mapper().createObjectNode();
+        new TreeMap<>(get(DevicePluggables.class).metrics()).forEach((name, metric) -> {
+            if (metric instanceof Timer) {
+                Timer timer = (Timer) metric;
+                Snapshot snapshot = timer.getSnapshot();
+                result.putObject(name)
+                        .put(COUNT, timer.getCount())
+                        .put(MEAN, nanosToMillis(snapshot.getMean()))
+                        .put(P50, nanosToMillis(snapshot.getMedian()))
+                        .put(P99, nanosToMillis(snapshot.get99thPercentile()))
+                        .put(MAX, nanosToMillis(snapshot.getMax()))
+                        .put(RATE, timer.getOneMinuteRate());
+            } else if (metric instanceof Counting) {
+                result.putObject(name).put(COUNT, ((Counting) metric).getCount());
+            }
+        });
+        return ok(result).build();
+    }
+
+    private static double nanosToMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the subscribers of the link notifications registered through the REST API.
+     * @return 200 OK
+     *
+     */
+    @GET
+    @Path("subscribers")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSubscribers() {
+        ObjectNode result = mapper().createObjectNode();
+        ArrayNode subscribersNode = result.putArray(SUBSCRIBERS);
+        // The password is never returned
+        get(DevicePluggables.class).getSubscribers().forEach(subscriber -> subscribersNode.addObject()
+                .put(ID, subscriber.getId())
+                .put(ENDPOINT, subscriber.getEndpoint())
+                .put(USERNAME, subscriber.getUsername()));
+        return ok(result).build();
+    }
+
+    /**
+     * Registers a subscriber of the link notifications, replacing any previous one with the same id.
+     * @param stream input JSON
+     * @return 201 CREATED
+     * @onos.rsModel SubscriberPost
+     *
+     */
+    @POST
+    @Path("subscribers")
+    public Response addSubscriber(InputStream stream) {
+        try {
+            ObjectNode jsonTree = readTreeFromStream(mapper(), stream);
+            JsonNode id = jsonTree.get(ID);
+            JsonNode endpoint = jsonTree.get(ENDPOINT);
+            if (id == null || endpoint == null) {
+                throw new IllegalArgumentException("Missing " + ID + " or " + ENDPOINT);
             }
+            JsonNode username = jsonTree.get(USERNAME);
+            JsonNode password = jsonTree.get(PASSWORD);
+            // Rejects malformed endpoints before they reach the notifier
+            URI.create(endpoint.asText());
+            get(DevicePluggables.class).addSubscriber(NotificationSubscriber.of(
+                    id.asText(), endpoint.asText(),
+                    username != null ? username.asText() : null,
+                    password != null ? password.asText() : null));
+
+            UriBuilder locationBuilder = uriInfo.getBaseUriBuilder()
+                    .path(PLUGGABLES)
+                    .path(SUBSCRIBERS)
+                    .path(id.asText());
+            return Response.created(locationBuilder.build()).build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
         }
-        root.putPOJO(PLUGGABLES, pluggablesNode);
-        return ok(root).build();
+    }
+
+    /**
+     * Unregisters a subscriber of the link notifications.
+     * @param id subscriber identifier
+     * @return 204 NO CONTENT, 404 if the subscriber is unknown
+     *
+     */
+    @DELETE
+    @Path("subscribers/{id}")
+    public Response removeSubscriber(@PathParam("id") String id) {
+        nullIsNotFound(get(DevicePluggables.class).removeSubscriber(id), "Subscriber is not found");
+        return Response.noContent().build();
     }
 
     /**
      * Set a Pluggables configuration and create a connection.
+     * The connection is provisioned in background; its progress is reported by the returned job.
      * @param stream input JSON
-     * @return 200 OK
+     * @return 202 ACCEPTED
      * @onos.rsModel ConfpluggablesPost
      *
      */
@@ -122,38 +440,177 @@ public class PluggablesWebResource extends AbstractWebResource {
     public Response setPluggableConnection(InputStream stream) {
         log.info("Dentro setPluggableConnection");
         DevicePluggables service = get(DevicePluggables.class);
-        DeviceService deviceService = get(DeviceService.class);
-        ArrayList<DevicePluggablesData> devicePluggablesDataConf = new ArrayList<>();
-        ArrayList<ConnectPoint> connectPoints = new ArrayList<>();
-        String connectioname;
 
        try{
-           //TODO better Codec
            ObjectNode jsonTree = readTreeFromStream(mapper(), stream);
-           devicePluggablesDataConf.add(decode(jsonTree.get(PLUGGABLE_ONE),DevicePluggablesData.class));
-           devicePluggablesDataConf.add(decode(jsonTree.get(PLUGGABLE_TWO),DevicePluggablesData.class));
-           connectPoints.add(ConnectPoint.fromString(jsonTree.get(SRC).asText()));
-           connectPoints.add(ConnectPoint.fromString(jsonTree.get(DST).asText()));
-           connectioname = jsonTree.get(CONNECTIONAME).asText();
-           nullIsNotFound(deviceService.getDevice(devicePluggablesDataConf.get(0).getDeviceId()),
-                   "Device Id is not found");
-           nullIsNotFound(deviceService.getDevice(devicePluggablesDataConf.get(1).getDeviceId()),
-                   "Device Id is not found");
-           service.configureDevicePluggable(devicePluggablesDataConf,connectPoints,connectioname);
+           ConnectionRequest request = decodeConnection(jsonTree);
+           ProvisioningJob job = service.configureDevicePluggableAsync(request.getDevicePluggables(),
+                                                                       request.getConnectPoints(),
+                                                                       request.getConnectionName());
 
            UriBuilder locationBuilder = uriInfo.getBaseUriBuilder()
-                   .path(CONF_PLUGGABLE);
+                   .path(PLUGGABLES)
+                   .path(JOBS)
+                   .path(job.getId());
 
            return Response
-                   .created(locationBuilder.build())
+                   .accepted(codec(ProvisioningJob.class).encode(job, this))
+                   .location(locationBuilder.build())
                    .build();
 
-       } catch (IOException | InterruptedException e) {
+       } catch (IOException e) {
            throw new IllegalArgumentException(e.getMessage());
        }
 
     }
 
+    /**
+     * Set the Pluggables configuration of several connections and create them.
+     * Connections sharing a device are provisioned one after the other, the others concurrently.
+     * @param wait if true, answer only once all the connections are provisioned or the timeout expired
+     * @param timeout seconds waited for the connections if wait is set, at most 600
+     * @param stream input JSON
+     * @return 202 ACCEPTED with the jobs of the connections; 200 OK with their outcome if wait is set
+     * and they completed in time
+     * @onos.rsModel ConfpluggablesBulkPost
+     *
+     */
+    @POST
+    @Path("configure/bulk")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response setPluggableConnections(@QueryParam("wait") @DefaultValue("false") boolean wait,
+                                            @QueryParam("timeout") @DefaultValue("120") int timeout,
+                                            InputStream stream) {
+        DevicePluggables service = get(DevicePluggables.class);
+        List<ConnectionRequest> requests = new ArrayList<>();
+
+        try {
+            ObjectNode jsonTree = readTreeFromStream(mapper(), stream);
+            JsonNode connections = jsonTree.get(CONNECTIONS);
+            if (connections == null || !connections.isArray()) {
+                throw new IllegalArgumentException("Missing " + CONNECTIONS + " array");
+            }
+            for (JsonNode connection : connections) {
+                requests.add(decodeConnection((ObjectNode) connection));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+
+        List<ProvisioningJob> jobs = service.configureDevicePluggables(requests);
+        boolean completed = false;
+        if (wait) {
+            try {
+                CompletableFuture.allOf(jobs.stream().map(ProvisioningJob::completion)
+                                                .toArray(CompletableFuture[]::new))
+                        .get(Math.max(0, Math.min(timeout, MAX_WAIT_TIMEOUT)), TimeUnit.SECONDS);
+                completed = true;
+            } catch (ExecutionException e) {
+                // All completed, some failed: reported by their job
+                completed = true;
+            } catch (TimeoutException e) {
+                log.info("Connections still provisioning after {}s", timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        ObjectNode result = mapper().createObjectNode();
+        ArrayNode jobsNode = result.putArray(CONNECTIONS);
+        jobs.forEach(job -> jobsNode.add(codec(ProvisioningJob.class).encode(job, this)));
+        return completed ? ok(result).build() : Response.accepted(result).build();
+    }
+
+    /**
+     * Gets the progress of a provisioning job.
+     * Jobs are known only to the cluster node that accepted the request.
+     * @param jobId job identifier
+     * @return 200 OK, 404 if the job is unknown or expired
+     *
+     */
+    @GET
+    @Path("jobs/{job-id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getProvisioningJob(@PathParam("job-id") String jobId) {
+        ProvisioningJob job = nullIsNotFound(get(DevicePluggables.class).getProvisioningJob(jobId),
+                                             "Provisioning job is not found");
+        return ok(codec(ProvisioningJob.class).encode(job, this)).build();
+    }
+
+    /**
+     * Gets the timelines of the last provisioning and deletion runs of a connection, oldest first,
+     * with the p50 and p99 durations of each phase over them.
+     * Phases still running have a duration of -1. Only the runs made on this cluster node are recorded.
+     * @param connectioname connection identifier
+     * @return 200 OK; 404 NOT FOUND if no run of the connection is recorded
+     *
+     */
+    @GET
+    @Path("connections/{connection-name}/trace")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getConnectionTrace(@PathParam("connection-name") String connectioname) {
+        DevicePluggables service = get(DevicePluggables.class);
+        List<ConnectionTrace> traces = service.connectionTraces(connectioname);
+        if (traces.isEmpty()) {
+            throw new ItemNotFoundException("Connection trace is not found");
+        }
+        ObjectNode result = mapper().createObjectNode();
+        result.put(CONNECTIONAME, connectioname);
+        ArrayNode tracesNode = result.putArray(TRACES);
+        traces.forEach(trace -> {
+            ObjectNode traceNode = tracesNode.addObject()
+                    .put(OPERATION, trace.getOperation().toString())
+                    .put(START, Instant.ofEpochMilli(trace.getStartMillis()).toString())
+                    .put(STATUS, trace.getStatus().toString());
+            if (trace.getFailure() != null) {
+                traceNode.put(FAILURE, trace.getFailure());
+            }
+            ArrayNode eventsNode = traceNode.putArray(EVENTS);
+            trace.getEvents().forEach(event -> {
+                ObjectNode eventNode = eventsNode.addObject()
+                        .put(PHASE, event.getPhase())
+                        .put(SCOPE, event.getScope())
+                        .put(OFFSET, event.getOffsetMillis())
+                        .put(DURATION, event.getDurationMillis())
+                        .put(STATUS, event.getStatus().toString());
+                if (event.getDetail() != null) {
+                    eventNode.put(DETAIL, event.getDetail());
+                }
+            });
+        });
+        ObjectNode summaryNode = result.putObject(SUMMARY);
+        service.traceSummary(connectioname).forEach((phase, summary) -> summaryNode.putObject(phase)
+                .put(SAMPLES, summary.samples())
+                .put(FAILURES, summary.failures())
+                .put(P50, summary.p50Millis())
+                .put(P99, summary.p99Millis())
+                .put(MAX, summary.maxMillis()));
+        return ok(result).build();
+    }
+
+    /**
+     * Decodes a connection of two pluggables, checking that their devices exist.
+     * @param jsonTree the connection JSON
+     * @return the connection request
+     */
+    private ConnectionRequest decodeConnection(ObjectNode jsonTree) {
+        DeviceService deviceService = get(DeviceService.class);
+        ArrayList<DevicePluggablesData> devicePluggablesDataConf = new ArrayList<>();
+        ArrayList<ConnectPoint> connectPoints = new ArrayList<>();
+
+        //TODO better Codec
+        devicePluggablesDataConf.add(decode(jsonTree.get(PLUGGABLE_ONE),DevicePluggablesData.class));
+        devicePluggablesDataConf.add(decode(jsonTree.get(PLUGGABLE_TWO),DevicePluggablesData.class));
+        connectPoints.add(ConnectPoint.fromString(jsonTree.get(SRC).asText()));
+        connectPoints.add(ConnectPoint.fromString(jsonTree.get(DST).asText()));
+        String connectioname = jsonTree.get(CONNECTIONAME).asText();
+        nullIsNotFound(deviceService.getDevice(devicePluggablesDataConf.get(0).getDeviceId()),
+                "Device Id is not found");
+        nullIsNotFound(deviceService.getDevice(devicePluggablesDataConf.get(1).getDeviceId()),
+                "Device Id is not found");
+        return ConnectionRequest.of(connectioname, devicePluggablesDataConf, connectPoints);
+    }
+
     /**
      * Disable the pluggables tha belonging to a certain connection.
      * @param connectioname connection identifier
@@ -0,0 +1,38 @@
+package org.pluggables.app.rest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+import org.pluggables.app.api.ProvisioningJob;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * ProvisioningJob JSON codec.
+ */
+public final class ProvisioningJobCodec extends JsonCodec<ProvisioningJob> {
+    // JSON field names
+    private static final String ID = "id";
+    private static final String CONNECTIONAME = "connection-name";
+    private static final String PHASE = "phase";
+    private static final String OUTCOME = "outcome";
+    private static final String ERROR = "error";
+    private static final String CREATED = "created";
+    private static final String UPDATED = "updated";
+
+    @Override
+    public ObjectNode encode(ProvisioningJob job, CodecContext context) {
+        checkNotNull(job, "Provisioning job cannot be null");
+        ObjectNode result = context.mapper().createObjectNode()
+                .put(ID, job.getId())
+                .put(CONNECTIONAME, job.getConnectionName())
+                .put(PHASE, job.getPhase().toString())
+                .put(OUTCOME, job.getOutcome().toString())
+                .put(CREATED, job.getCreated())
+                .put(UPDATED, job.getUpdated());
+        if (job.getError() != null) {
+            result.put(ERROR, job.getError());
+        }
+        return result;
+    }
+}
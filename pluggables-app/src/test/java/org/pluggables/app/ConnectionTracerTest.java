@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.pluggables.app.api.ConnectionTrace;
+import org.pluggables.app.api.PhaseSummary;
+import org.pluggables.app.api.TraceEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Set of tests of the recording and the summary of the connection runs.
+ */
+public class ConnectionTracerTest {
+
+    private static ConnectionTrace trace(TraceEvent... events) {
+        return ConnectionTrace.of("c1", ConnectionTrace.Operation.CONFIGURE, 0,
+                                  TraceEvent.Status.SUCCEEDED, null, ImmutableList.copyOf(events));
+    }
+
+    private static TraceEvent event(String phase, long durationMillis, TraceEvent.Status status) {
+        return TraceEvent.of(phase, "netconf:10.0.0.1:830", 0, durationMillis, status, null);
+    }
+
+    @Test
+    public void nearestRankPercentilesOfTheSuccessfulPhases() {
+        List<ConnectionTrace> traces = new ArrayList<>();
+        for (long duration = 1; duration <= 100; duration++) {
+            traces.add(trace(event(ConnectionTracer.EDIT_CONFIG, duration, TraceEvent.Status.SUCCEEDED)));
+        }
+        Collections.shuffle(traces);
+        // Failures are counted apart, they would skew the durations
+        traces.add(trace(event(ConnectionTracer.EDIT_CONFIG, 10_000, TraceEvent.Status.FAILED)));
+
+        PhaseSummary summary = ConnectionTracer.summarize(traces).get(ConnectionTracer.EDIT_CONFIG);
+        assertEquals(100, summary.samples());
+        assertEquals(1, summary.failures());
+        assertEquals(50, summary.p50Millis());
+        assertEquals(99, summary.p99Millis());
+        assertEquals(100, summary.maxMillis());
+    }
+
+    @Test
+    public void percentilesOfFewSamples() {
+        PhaseSummary summary = ConnectionTracer.summarize(ImmutableList.of(
+                trace(event(ConnectionTracer.LINK_UP, 20, TraceEvent.Status.SUCCEEDED)),
+                trace(event(ConnectionTracer.LINK_UP, 10, TraceEvent.Status.SUCCEEDED))))
+                .get(ConnectionTracer.LINK_UP);
+        assertEquals(10, summary.p50Millis());
+        assertEquals(20, summary.p99Millis());
+        assertEquals(20, summary.maxMillis());
+    }
+
+    @Test
+    public void phaseWithoutSuccess() {
+        Map<String, PhaseSummary> summaries = ConnectionTracer.summarize(ImmutableList.of(
+                trace(event(ConnectionTracer.LINK_UP, 5, TraceEvent.Status.FAILED),
+                      event(ConnectionTracer.INTENT_INSTALL, -1, TraceEvent.Status.RUNNING))));
+        assertEquals(1, summaries.get(ConnectionTracer.LINK_UP).failures());
+        assertEquals(0, summaries.get(ConnectionTracer.LINK_UP).samples());
+        assertEquals(0, summaries.get(ConnectionTracer.LINK_UP).p99Millis());
+        // A running phase is neither a sample nor a failure
+        assertEquals(0, summaries.get(ConnectionTracer.INTENT_INSTALL).samples());
+        assertEquals(0, summaries.get(ConnectionTracer.INTENT_INSTALL).failures());
+    }
+
+    @Test
+    public void phasesInOrderOfFirstOccurrence() {
+        Map<String, PhaseSummary> summaries = ConnectionTracer.summarize(ImmutableList.of(
+                trace(event(ConnectionTracer.EDIT_CONFIG, 1, TraceEvent.Status.SUCCEEDED),
+                      event(ConnectionTracer.LINK_UP, 1, TraceEvent.Status.SUCCEEDED)),
+                trace(event(ConnectionTracer.INTENT_INSTALL, 1, TraceEvent.Status.SUCCEEDED),
+                      event(ConnectionTracer.EDIT_CONFIG, 1, TraceEvent.Status.SUCCEEDED))));
+        assertEquals(ImmutableList.of(ConnectionTracer.EDIT_CONFIG, ConnectionTracer.LINK_UP,
+                                      ConnectionTracer.INTENT_INSTALL),
+                     ImmutableList.copyOf(summaries.keySet()));
+    }
+
+    @Test
+    public void oldestRunsAreOverwritten() {
+        ConnectionTracer tracer = new ConnectionTracer(3);
+        tracer.start("c1", ConnectionTrace.Operation.CONFIGURE).fail("first");
+        tracer.start("c2", ConnectionTrace.Operation.CONFIGURE);
+        tracer.start("c1", ConnectionTrace.Operation.CONFIGURE).fail("second");
+        tracer.start("c1", ConnectionTrace.Operation.DELETE).succeed();
+
+        List<ConnectionTrace> traces = tracer.traces("c1");
+        assertEquals(2, traces.size());
+        assertEquals("second", traces.get(0).getFailure());
+        assertEquals(ConnectionTrace.Operation.DELETE, traces.get(1).getOperation());
+        assertTrue(tracer.traces("c3").isEmpty());
+    }
+
+    @Test
+    public void phaseEndsOnce() {
+        ConnectionTracer tracer = new ConnectionTracer(1);
+        ConnectionTracer.Run run = tracer.start("c1", ConnectionTrace.Operation.CONFIGURE);
+        ConnectionTracer.Span span = run.start(ConnectionTracer.NOTIFY, "default");
+        assertEquals(TraceEvent.Status.RUNNING, tracer.traces("c1").get(0).getEvents().get(0).getStatus());
+        assertEquals(-1, tracer.traces("c1").get(0).getEvents().get(0).getDurationMillis());
+
+        span.succeed();
+        span.fail("superseded");
+        TraceEvent event = tracer.traces("c1").get(0).getEvents().get(0);
+        assertEquals(TraceEvent.Status.SUCCEEDED, event.getStatus());
+        assertNull(event.getDetail());
+        assertTrue(event.getDurationMillis() >= 0);
+    }
+
+    @Test
+    public void phasesOfARunAreBounded() {
+        ConnectionTracer tracer = new ConnectionTracer(1);
+        ConnectionTracer.Run run = tracer.start("c1", ConnectionTrace.Operation.CONFIGURE);
+        for (int i = 0; i < 100; i++) {
+            run.start(ConnectionTracer.NOTIFY, "subscriber-" + i).succeed();
+        }
+        assertEquals(64, tracer.traces("c1").get(0).getEvents().size());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Set of tests of the queue of the devices waiting for their initial inventory.
+ */
+public class DeviceDiscoveryTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+    private static final DeviceId D2 = deviceId("netconf:10.0.0.2:830");
+    private static final DeviceId D3 = deviceId("netconf:10.0.0.3:830");
+
+    private final List<DeviceId> inventoried = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DeviceDiscovery discovery;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        discovery.shutdown();
+    }
+
+    /**
+     * Creates a discovery whose inventory of the first device blocks until released.
+     */
+    private DeviceDiscovery blockingOn(DeviceId blocked, CountDownLatch started) {
+        return new DeviceDiscovery(deviceId -> {
+            if (deviceId.equals(blocked)) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            inventoried.add(deviceId);
+        });
+    }
+
+    private void awaitInventoried(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (inventoried.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void pendingDeviceIsQueuedOnce() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        discovery = blockingOn(D1, started);
+        discovery.submit(D1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The single worker is busy: D2 waits in the queue, submitted twice
+        discovery.submit(D2);
+        discovery.submit(D2);
+        release.countDown();
+        awaitInventoried(2);
+        Thread.sleep(100);
+        assertEquals(ImmutableList.of(D1, D2), inventoried);
+    }
+
+    @Test
+    public void cancelledDeviceIsNotInventoried() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        discovery = blockingOn(D1, started);
+        discovery.submit(D1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        discovery.submit(D2);
+        discovery.submit(D3);
+        discovery.cancel(D2);
+        release.countDown();
+        awaitInventoried(2);
+        Thread.sleep(100);
+        assertEquals(ImmutableList.of(D1, D3), inventoried);
+    }
+
+    @Test
+    public void workersAreBounded() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Consumer<DeviceId> inventory = deviceId -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            inventoried.add(deviceId);
+        };
+        discovery = new DeviceDiscovery(inventory);
+        discovery.configure(2);
+        for (int i = 1; i <= 10; i++) {
+            discovery.submit(deviceId("netconf:10.0.0." + i + ":830"));
+        }
+        awaitInventoried(10);
+        assertEquals(10, inventoried.size());
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void failedInventoryDoesNotStopTheWorker() throws InterruptedException {
+        discovery = new DeviceDiscovery(deviceId -> {
+            if (deviceId.equals(D1)) {
+                throw new IllegalStateException("unreachable");
+            }
+            inventoried.add(deviceId);
+        });
+        discovery.submit(D1);
+        discovery.submit(D2);
+        awaitInventoried(1);
+        assertEquals(ImmutableList.of(D2), inventoried);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Set of tests of the device lanes of a bulk request.
+ */
+public class DeviceLanesTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+    private static final DeviceId D2 = deviceId("netconf:10.0.0.2:830");
+    private static final DeviceId D3 = deviceId("netconf:10.0.0.3:830");
+    private static final DeviceId D4 = deviceId("netconf:10.0.0.4:830");
+
+    private static final Map<String, Collection<DeviceId>> CONNECTIONS = ImmutableMap.of(
+            "a", ImmutableList.of(D1, D2),
+            "b", ImmutableList.of(D3, D4),
+            "c", ImmutableList.of(D2, D3),
+            "d", ImmutableList.of(D4, D1));
+
+    private DeviceLanes<String> lanes(String... connections) {
+        return new DeviceLanes<>(ImmutableList.copyOf(connections), CONNECTIONS::get);
+    }
+
+    @Test
+    public void disjointConnectionsRunConcurrently() {
+        DeviceLanes<String> lanes = lanes("a", "b");
+        assertEquals("a", lanes.poll());
+        assertEquals("b", lanes.poll());
+        assertNull(lanes.poll());
+    }
+
+    @Test
+    public void sharedDeviceWaitsForRelease() {
+        DeviceLanes<String> lanes = lanes("a", "c");
+        assertEquals("a", lanes.poll());
+        assertNull(lanes.poll());
+        lanes.release("a");
+        assertEquals("c", lanes.poll());
+    }
+
+    @Test
+    public void laterConnectionDoesNotOvertakeEarlierOne() {
+        // c waits for a on D2, b for c on D3 and d for b on D4
+        DeviceLanes<String> lanes = lanes("a", "c", "b", "d");
+        assertEquals("a", lanes.poll());
+        assertNull(lanes.poll());
+        lanes.release("a");
+        assertEquals("c", lanes.poll());
+        assertNull(lanes.poll());
+        lanes.release("c");
+        assertEquals("b", lanes.poll());
+        assertNull(lanes.poll());
+        lanes.release("b");
+        assertEquals("d", lanes.poll());
+    }
+
+    @Test
+    public void takeReturnsNullOnceAllHandedOut() throws InterruptedException {
+        DeviceLanes<String> lanes = lanes("a");
+        assertEquals("a", lanes.take());
+        assertNull(lanes.take());
+    }
+
+    @Test
+    public void takeWaitsForRelease() throws Exception {
+        DeviceLanes<String> lanes = lanes("a", "c");
+        assertEquals("a", lanes.take());
+        CompletableFuture<String> next = CompletableFuture.supplyAsync(() -> {
+            try {
+                return lanes.take();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(next.isDone());
+        lanes.release("a");
+        assertEquals("c", next.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void clearRemovesPendingConnections() throws Exception {
+        DeviceLanes<String> lanes = lanes("a", "c", "b");
+        assertEquals("a", lanes.poll());
+        assertEquals(ImmutableList.of("c", "b"), lanes.clear());
+        assertNull(lanes.take());
+        assertTrue(lanes.clear().isEmpty());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.onlab.packet.ChassisId;
+import org.onlab.util.ItemNotFoundException;
+import org.onosproject.net.DefaultAnnotations;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.config.Config;
+import org.onosproject.net.config.NetworkConfigRegistryAdapter;
+import org.onosproject.net.driver.DefaultDriver;
+import org.onosproject.net.driver.Driver;
+import org.onosproject.net.driver.DriverServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.netconf.config.NetconfDeviceConfig;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Set of tests of the selection of the devices whose pluggables are managed.
+ */
+public class DeviceSelectorTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+    private static final DeviceId D2 = deviceId("netconf:10.0.0.2:830");
+    private static final DeviceId D3 = deviceId("netconf:10.0.0.3:830");
+
+    private static final Driver OPENCONFIG = driver("openconfig", ImmutableList.of());
+    private static final Driver CASSINI = driver("cassini-openconfig", ImmutableList.of(OPENCONFIG));
+    private static final Driver DEFAULT = driver("default", ImmutableList.of());
+
+    private final TestDriverService driverService = new TestDriverService(ImmutableMap.of(D1, CASSINI, D2, DEFAULT));
+    private final TestNetworkConfigRegistry netCfgService = new TestNetworkConfigRegistry(ImmutableSet.of(D2));
+
+    private static Driver driver(String name, ImmutableList<Driver> parents) {
+        return new DefaultDriver(name, parents, "manufacturer", "hw", "sw", ImmutableMap.of(), ImmutableMap.of());
+    }
+
+    private static Device device(DeviceId deviceId, String... annotations) {
+        DefaultAnnotations.Builder builder = DefaultAnnotations.builder();
+        for (int i = 0; i < annotations.length; i += 2) {
+            builder.set(annotations[i], annotations[i + 1]);
+        }
+        return new DefaultDevice(ProviderId.NONE, deviceId, Device.Type.TERMINAL_DEVICE, "manufacturer", "hw",
+                                 "sw", "serial", new ChassisId(), builder.build());
+    }
+
+    private DeviceSelector selector(String devices, String drivers, String annotations, String configs) {
+        return new DeviceSelector(driverService, netCfgService, devices, drivers, annotations, configs);
+    }
+
+    @Test
+    public void emptySelectorsSelectNothing() {
+        DeviceSelector selector = selector("", null, " , ", "");
+        assertFalse(selector.matches(device(D1, "pluggables", "true")));
+        assertFalse(selector.matches(device(D2)));
+    }
+
+    @Test
+    public void byDeviceId() {
+        DeviceSelector selector = selector(" " + D1 + " ," + D3, "", "", "");
+        assertTrue(selector.matches(device(D1)));
+        assertFalse(selector.matches(device(D2)));
+        assertTrue(selector.matches(device(D3)));
+    }
+
+    @Test
+    public void byDriverOrParentDriver() {
+        assertTrue(selector("", "cassini-openconfig", "", "").matches(device(D1)));
+        assertTrue(selector("", "openconfig", "", "").matches(device(D1)));
+        assertFalse(selector("", "openconfig", "", "").matches(device(D2)));
+        // A device without a driver is not selected
+        assertFalse(selector("", "openconfig", "", "").matches(device(D3)));
+    }
+
+    @Test
+    public void byAnnotation() {
+        DeviceSelector anyValue = selector("", "", "pluggables", "");
+        assertTrue(anyValue.matches(device(D1, "pluggables", "false")));
+        assertFalse(anyValue.matches(device(D1, "other", "true")));
+
+        DeviceSelector value = selector("", "", "vendor=acme, role = terminal", "");
+        assertTrue(value.matches(device(D1, "vendor", "acme")));
+        assertTrue(value.matches(device(D1, "role", "terminal")));
+        assertFalse(value.matches(device(D1, "vendor", "other")));
+    }
+
+    @Test
+    public void byConfig() {
+        DeviceSelector selector = selector("", "", "", "netconf");
+        assertFalse(selector.matches(device(D1)));
+        assertTrue(selector.matches(device(D2)));
+    }
+
+    @Test
+    public void unknownConfigKeyIsIgnored() {
+        DeviceSelector selector = selector("", "", "", "unknown");
+        assertFalse(selector.matches(device(D2)));
+    }
+
+    @Test
+    public void configKeyRegisteredLaterIsResolved() {
+        netCfgService.registered = false;
+        DeviceSelector selector = selector("", "", "", "netconf");
+        assertFalse(selector.matches(device(D2)));
+
+        // e.g. once the NETCONF application is activated
+        netCfgService.registered = true;
+        assertTrue(selector.matches(device(D2)));
+    }
+
+    @Test
+    public void anySelectorMatches() {
+        DeviceSelector selector = selector(D3.toString(), "openconfig", "", "netconf");
+        assertTrue(selector.matches(device(D1)));
+        assertTrue(selector.matches(device(D2)));
+        assertTrue(selector.matches(device(D3)));
+    }
+
+    /**
+     * Driver service resolving the drivers of the devices given by the tests.
+     */
+    private static final class TestDriverService extends DriverServiceAdapter {
+        private final Map<DeviceId, Driver> drivers;
+
+        private TestDriverService(Map<DeviceId, Driver> drivers) {
+            this.drivers = drivers;
+        }
+
+        @Override
+        public Driver getDriver(DeviceId deviceId) {
+            Driver driver = drivers.get(deviceId);
+            if (driver == null) {
+                throw new ItemNotFoundException("No driver for " + deviceId);
+            }
+            return driver;
+        }
+    }
+
+    /**
+     * Network configuration holding a NETCONF configuration for the devices given by the tests.
+     */
+    private static final class TestNetworkConfigRegistry extends NetworkConfigRegistryAdapter {
+        private final Set<DeviceId> netconfDevices;
+        private volatile boolean registered = true;
+
+        private TestNetworkConfigRegistry(Set<DeviceId> netconfDevices) {
+            this.netconfDevices = netconfDevices;
+        }
+
+        @Override
+        public Class<? extends Config> getConfigClass(String subjectClassKey, String configKey) {
+            return registered && "netconf".equals(configKey) ? NetconfDeviceConfig.class : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <S, C extends Config<S>> C getConfig(S subject, Class<C> configClass) {
+            if (NetconfDeviceConfig.class.equals(configClass) && netconfDevices.contains(subject)) {
+                return (C) new NetconfDeviceConfig();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.onlab.util.Frequency;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Port;
+import org.onosproject.net.intent.Key;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.NotificationSubscriber;
+import org.pluggables.app.api.PluggableConnection;
+import org.pluggables.app.api.PluggableData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the serialization of the entries shared by the distributed store.
+ */
+public class DistributedPluggableStoreTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+    private static final DeviceId D2 = deviceId("netconf:10.0.0.2:830");
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.pluggables.app");
+
+    private static <T> T roundTrip(T object) {
+        return DistributedPluggableStore.SERIALIZER.deserialize(DistributedPluggableStore.SERIALIZER.serialize(object));
+    }
+
+    private static void assertSamePluggable(PluggableData expected, PluggableData actual) {
+        assertEquals(expected.getPluggableID(), actual.getPluggableID());
+        assertEquals(expected.getPort(), actual.getPort());
+        assertEquals(expected.getPortType(), actual.getPortType());
+        assertEquals(expected.getPortSpeed(), actual.getPortSpeed());
+        assertEquals(expected.getIsEnable(), actual.getIsEnable());
+        assertEquals(expected.getPluggableType(), actual.getPluggableType());
+        assertEquals(expected.getPluggableSpeed(), actual.getPluggableSpeed());
+        assertEquals(expected.getOpMode(), actual.getOpMode());
+        assertEquals(expected.getFrequency(), actual.getFrequency());
+        assertEquals(expected.getPower(), actual.getPower());
+    }
+
+    @Test
+    public void devicePluggables() {
+        PluggableData full = PluggableData.of("Acme-ZR400-01");
+        full.setPort(portNumber(4));
+        full.setPortType(Port.Type.OCH);
+        full.setPortSpeed(400_000L);
+        full.setIsEnable(true);
+        full.setPluggableType("DIGITAL_COHERENT_OPTIC");
+        full.setPluggableSpeed(400L);
+        full.setOpMode("4");
+        full.setFrequency(Frequency.ofGHz(193_100));
+        full.setPower(1.5f);
+        // The unset fields stay unset, not zero
+        PluggableData sparse = PluggableData.of("Acme-LR4-02");
+        sparse.setPort(portNumber(5));
+        sparse.setIsEnable(null);
+        sparse.setFrequency(null);
+        sparse.setPower(null);
+
+        DevicePluggablesData devicePluggables = DevicePluggablesData.of(D1, ImmutableList.of(full, sparse));
+        DevicePluggablesData copy = roundTrip(devicePluggables);
+
+        assertEquals(D1, copy.getDeviceId());
+        assertEquals(2, copy.getPluggables().size());
+        assertSamePluggable(full, copy.getPluggables().get(0));
+        assertSamePluggable(sparse, copy.getPluggables().get(1));
+        assertNull(copy.getPluggables().get(1).getPortSpeed());
+        assertNull(copy.getPluggables().get(1).getIsEnable());
+        assertNull(copy.getPluggables().get(1).getFrequency());
+    }
+
+    @Test
+    public void connection() {
+        ConnectPoint one = new ConnectPoint(D1, portNumber(4));
+        ConnectPoint two = new ConnectPoint(D2, portNumber(4));
+        PluggableConnection connection = PluggableConnection.of(
+                "c1", ImmutableList.of(Key.of("c1-1", APP_ID), Key.of("c1-2", APP_ID)),
+                ImmutableMap.of(D1, ImmutableList.of(portNumber(4)), D2, ImmutableList.of(portNumber(4))),
+                ImmutableList.of(one, two)).withState(PluggableConnection.State.ACTIVE);
+        PluggableConnection copy = roundTrip(connection);
+
+        assertEquals(connection.getName(), copy.getName());
+        assertEquals(PluggableConnection.State.ACTIVE, copy.getState());
+        assertEquals(connection.getIntentKeys(), copy.getIntentKeys());
+        assertEquals(connection.getChannels(), copy.getChannels());
+        assertEquals(connection.getLinkEnds(), copy.getLinkEnds());
+    }
+
+    @Test
+    public void subscriber() {
+        NotificationSubscriber subscriber = NotificationSubscriber.of("s1", "http://10.0.0.9/links", "user", "secret");
+        assertEquals(subscriber, roundTrip(subscriber));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.onlab.util.Frequency;
+import org.pluggables.app.api.PluggableData;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the edit-config bodies.
+ */
+public class EditConfigTemplatesTest {
+
+    private static PluggableData pluggable(long port, String opMode) {
+        PluggableData pluggableData = PluggableData.of("p");
+        pluggableData.setPort(portNumber(port));
+        pluggableData.setFrequency(Frequency.ofGHz(193100));
+        pluggableData.setPower(1.5f);
+        pluggableData.setOpMode(opMode);
+        return pluggableData;
+    }
+
+    private static Document parse(String body) throws Exception {
+        // The body is a list of sibling fragments, wrapped to be parsed as one document
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        String config = "<config>" + body + "</config>";
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String text(Document document, String localName, int index) {
+        return document.getElementsByTagNameNS("*", localName).item(index).getTextContent();
+    }
+
+    @Test
+    public void configureChannels() throws Exception {
+        String body = EditConfigTemplates.configureChannels(ImmutableList.of(pluggable(4, "1"), pluggable(5, "2")));
+
+        assertEquals("<components xmlns='http://openconfig.net/yang/platform'>" +
+                "<component><name>channel-4</name>" +
+                "<oc-opt-term:optical-channel xmlns:oc-opt-term='http://openconfig.net/yang/terminal-device'>" +
+                "<oc-opt-term:config>" +
+                "<oc-opt-term:frequency>193100</oc-opt-term:frequency>" +
+                "<oc-opt-term:target-output-power>1.5</oc-opt-term:target-output-power>" +
+                "<oc-opt-term:operational-mode>1</oc-opt-term:operational-mode>" +
+                "</oc-opt-term:config></oc-opt-term:optical-channel></component>" +
+                "<component><name>channel-5</name>" +
+                "<oc-opt-term:optical-channel xmlns:oc-opt-term='http://openconfig.net/yang/terminal-device'>" +
+                "<oc-opt-term:config>" +
+                "<oc-opt-term:frequency>193100</oc-opt-term:frequency>" +
+                "<oc-opt-term:target-output-power>1.5</oc-opt-term:target-output-power>" +
+                "<oc-opt-term:operational-mode>2</oc-opt-term:operational-mode>" +
+                "</oc-opt-term:config></oc-opt-term:optical-channel></component>" +
+                "</components>" +
+                "<terminal-device xmlns='http://openconfig.net/yang/terminal-device'><logical-channels>" +
+                "<channel><index>4</index><config><admin-state>ENABLED</admin-state></config></channel>" +
+                "<channel><index>5</index><config><admin-state>ENABLED</admin-state></config></channel>" +
+                "</logical-channels></terminal-device>", body);
+    }
+
+    @Test
+    public void disableChannels() {
+        assertEquals("<terminal-device xmlns='http://openconfig.net/yang/terminal-device'><logical-channels>" +
+                "<channel><index>4</index><config><admin-state>DISABLED</admin-state></config></channel>" +
+                "</logical-channels></terminal-device>",
+                EditConfigTemplates.disableChannels(ImmutableList.of(portNumber(4))));
+    }
+
+    @Test
+    public void operationalModeIsEscaped() throws Exception {
+        String opMode = "<mode a='1' b=\"2\">&amp;";
+        String body = EditConfigTemplates.configureChannels(ImmutableList.of(pluggable(4, opMode)));
+
+        Document document = parse(body);
+        assertEquals(opMode, text(document, "operational-mode", 0));
+        assertEquals(1, document.getElementsByTagNameNS("*", "component").getLength());
+    }
+
+    @Test
+    public void escape() {
+        StringBuilder out = new StringBuilder();
+        EditConfigTemplates.escape(out, "a&b<c>d'e\"f");
+        assertEquals("a&amp;b&lt;c&gt;d&apos;e&quot;f", out.toString());
+    }
+
+    @Test
+    public void bodiesAreIndependent() throws Exception {
+        // The buffer is reused by the thread, a body must not carry anything of the previous one
+        String first = EditConfigTemplates.configureChannels(ImmutableList.of(pluggable(4, "1")));
+        EditConfigTemplates.disableChannels(ImmutableList.of(portNumber(7)));
+        assertEquals(first, EditConfigTemplates.configureChannels(ImmutableList.of(pluggable(4, "1"))));
+        assertEquals("4", text(parse(first), "index", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingValueIsRejected() {
+        PluggableData pluggableData = pluggable(4, "1");
+        pluggableData.setPower(null);
+        EditConfigTemplates.configureChannels(ImmutableList.of(pluggableData));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyChannelsAreRejected() {
+        EditConfigTemplates.disableChannels(ImmutableList.of());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void slotWithoutWriterIsRejected() {
+        EditConfigTemplates.Template.compile("<a>${missing}</a>",
+                                             ImmutableMap.<String, EditConfigTemplates.Slot<String>>of());
+    }
+}
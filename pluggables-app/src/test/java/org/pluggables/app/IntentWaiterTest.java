@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Set of tests of the waits for the intents submitted by the connections.
+ */
+public class IntentWaiterTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.pluggables.app");
+    private static final Key KEY = Key.of("connection-1", APP_ID);
+
+    private final TestIntentService intentService = new TestIntentService();
+    private IntentWaiter waiter;
+
+    @Before
+    public void setUp() {
+        waiter = new IntentWaiter(intentService);
+    }
+
+    @After
+    public void tearDown() {
+        waiter.shutdown();
+    }
+
+    private static IntentEvent event(IntentEvent.Type type, Key key) {
+        Intent intent = createMock(Intent.class);
+        expect(intent.key()).andReturn(key).anyTimes();
+        replay(intent);
+        return new IntentEvent(type, intent);
+    }
+
+    private static Throwable failure(CompletableFuture<Void> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Wait not failed");
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            fail("Timeout not applied");
+        }
+        return null;
+    }
+
+    @Test
+    public void alreadyInstalled() {
+        intentService.states.put(KEY, IntentState.INSTALLED);
+        assertTrue(waiter.awaitInstalled(KEY, 10_000).isDone());
+    }
+
+    @Test
+    public void alreadyFailed() throws Exception {
+        intentService.states.put(KEY, IntentState.FAILED);
+        assertTrue(failure(waiter.awaitInstalled(KEY, 10_000)) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void installedEvent() throws Exception {
+        intentService.states.put(KEY, IntentState.INSTALLING);
+        CompletableFuture<Void> installed = waiter.awaitInstalled(KEY, 10_000);
+        assertFalse(installed.isDone());
+
+        waiter.event(event(IntentEvent.Type.INSTALL_REQ, KEY));
+        assertFalse(installed.isDone());
+        waiter.event(event(IntentEvent.Type.INSTALLED, Key.of("connection-2", APP_ID)));
+        assertFalse(installed.isDone());
+
+        waiter.event(event(IntentEvent.Type.INSTALLED, KEY));
+        installed.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void failedEvent() throws Exception {
+        CompletableFuture<Void> installed = waiter.awaitInstalled(KEY, 10_000);
+        waiter.event(event(IntentEvent.Type.FAILED, KEY));
+        assertTrue(failure(installed) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void timesOut() throws Exception {
+        assertTrue(failure(waiter.awaitInstalled(KEY, 50)) instanceof TimeoutException);
+    }
+
+    @Test
+    public void completedWaitIsNotTimedOut() throws Exception {
+        CompletableFuture<Void> installed = waiter.awaitInstalled(KEY, 100);
+        waiter.event(event(IntentEvent.Type.INSTALLED, KEY));
+        Thread.sleep(200);
+        assertFalse(installed.isCompletedExceptionally());
+    }
+
+    @Test
+    public void shutdownCancelsThePendingWaits() {
+        CompletableFuture<Void> installed = waiter.awaitInstalled(KEY, 10_000);
+        waiter.shutdown();
+        assertTrue(installed.isCancelled());
+    }
+
+    /**
+     * Intent service holding the intent states set by the tests.
+     */
+    private static final class TestIntentService extends IntentServiceAdapter {
+        private final Map<Key, IntentState> states = Maps.newConcurrentMap();
+
+        @Override
+        public IntentState getIntentState(Key intentKey) {
+            return states.get(intentKey);
+        }
+    }
+}
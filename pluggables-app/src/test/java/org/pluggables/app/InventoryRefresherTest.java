@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.netconf.NetconfException;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the periodic refresh of the pluggables of the devices.
+ */
+public class InventoryRefresherTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+
+    private final SimplePluggableStore store = new SimplePluggableStore();
+    private final AtomicInteger reads = new AtomicInteger();
+    private List<PluggableData> fresh;
+    private Runnable duringRead = () -> { };
+    private boolean local = true;
+    private InventoryRefresher refresher;
+
+    @Before
+    public void setUp() {
+        store.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.of(pluggable(1, "a", 1.0f),
+                                                                               pluggable(2, "b", 1.0f))));
+        refresher = new InventoryRefresher(store, deviceId -> {
+            reads.incrementAndGet();
+            duringRead.run();
+            if (fresh == null) {
+                throw new NetconfException("unreachable");
+            }
+            return fresh;
+        }, deviceId -> false, deviceId -> local);
+    }
+
+    @After
+    public void tearDown() {
+        refresher.shutdown();
+    }
+
+    private static PluggableData pluggable(long port, String id, float power) {
+        PluggableData pluggableData = PluggableData.of(id);
+        pluggableData.setPort(portNumber(port));
+        pluggableData.setPower(power);
+        return pluggableData;
+    }
+
+    private List<PluggableData> stored() {
+        return store.getDevicePluggables(D1).getPluggables();
+    }
+
+    @Test
+    public void unchangedDeviceIsNotWritten() {
+        long version = store.getVersion();
+        fresh = ImmutableList.of(pluggable(1, "a", 1.0f), pluggable(2, "b", 1.0f));
+        refresher.refresh(D1);
+
+        assertEquals(1, reads.get());
+        assertEquals(version, store.getVersion());
+    }
+
+    @Test
+    public void onlyTheChangedPluggablesAreReplaced() {
+        PluggableData unchanged = stored().get(0);
+        long version = store.getVersion();
+        fresh = ImmutableList.of(pluggable(1, "a", 1.0f), pluggable(2, "b", 2.5f));
+        refresher.refresh(D1);
+
+        assertEquals(version + 1, store.getVersion());
+        assertSame(unchanged, stored().get(0));
+        assertSame(fresh.get(1), stored().get(1));
+    }
+
+    @Test
+    public void movedPluggablesReplaceTheDevice() {
+        fresh = ImmutableList.of(pluggable(1, "a", 1.0f), pluggable(3, "b", 1.0f));
+        refresher.refresh(D1);
+
+        assertEquals(fresh, stored());
+    }
+
+    @Test
+    public void writeDuringTheReadIsKept() {
+        PluggableData provisioned = pluggable(2, "b", 5.0f);
+        // e.g. a provisioning of the device while it is read
+        duringRead = () -> store.updatePluggable(D1, provisioned);
+        fresh = ImmutableList.of(pluggable(1, "a", 1.0f), pluggable(2, "b", 2.5f));
+        refresher.refresh(D1);
+
+        assertSame(provisioned, stored().get(1));
+    }
+
+    @Test
+    public void readFailureKeepsTheStoredPluggables() {
+        DevicePluggablesData stored = store.getDevicePluggables(D1);
+        refresher.refresh(D1);
+
+        assertEquals(1, reads.get());
+        assertSame(stored, store.getDevicePluggables(D1));
+    }
+
+    @Test
+    public void onlyLocalAndStoredDevicesAreRead() {
+        fresh = ImmutableList.of();
+        local = false;
+        refresher.refresh(D1);
+        local = true;
+        refresher.refresh(deviceId("netconf:10.0.0.2:830"));
+
+        assertEquals(0, reads.get());
+    }
+
+    @Test
+    public void removedPluggablesAreRemoved() {
+        fresh = ImmutableList.of(pluggable(1, "a", 1.0f));
+        refresher.refresh(D1);
+
+        assertEquals(1, stored().size());
+        assertEquals("a", stored().get(0).getPluggableID());
+    }
+}
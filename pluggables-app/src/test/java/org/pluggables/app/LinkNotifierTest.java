@@ -0,0 +1,248 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onosproject.net.ConnectPoint;
+import org.pluggables.app.api.ConnectionTrace;
+import org.pluggables.app.api.NotifierStatistics;
+import org.pluggables.app.api.TraceEvent;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the delivery of the link notifications to the subscribers.
+ */
+public class LinkNotifierTest {
+
+    private static final ConnectPoint ONE = new ConnectPoint(deviceId("netconf:10.0.0.1:830"), portNumber(4));
+    private static final ConnectPoint TWO = new ConnectPoint(deviceId("netconf:10.0.0.2:830"), portNumber(4));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Integer> statuses = new LinkedBlockingQueue<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blocking;
+
+    private final ConnectionTracer tracer = new ConnectionTracer(16);
+    private HttpServer server;
+    private String endpoint;
+    private LinkNotifier notifier;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/links", this::handle);
+        server.start();
+        endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/links";
+        notifier = new LinkNotifier(ImmutableList::of, new PluggableMetrics(new MetricsManager()));
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        notifier.shutdown();
+        server.stop(0);
+    }
+
+    /**
+     * Records a request and answers it with the next status given by the test, 200 if none.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(new Request(exchange.getRequestMethod(),
+                                 MAPPER.readTree(exchange.getRequestBody()).get("connection-name").asText(),
+                                 System.nanoTime()));
+        if (blocking) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Integer status = statuses.poll();
+        exchange.sendResponseHeaders(status != null ? status : 200, -1);
+        exchange.close();
+    }
+
+    private Request nextRequest() throws InterruptedException {
+        Request request = requests.poll(5, TimeUnit.SECONDS);
+        assertNotNull("No request received", request);
+        return request;
+    }
+
+    private NotifierStatistics awaitStatistics(Predicate<NotifierStatistics> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        NotifierStatistics statistics = notifier.statistics().get(LinkNotifier.DEFAULT_SUBSCRIBER);
+        while (!condition.test(statistics) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            statistics = notifier.statistics().get(LinkNotifier.DEFAULT_SUBSCRIBER);
+        }
+        assertTrue("Unexpected " + statistics, condition.test(statistics));
+        return statistics;
+    }
+
+    private ConnectionTracer.Run run(String connectionName) {
+        return tracer.start(connectionName, ConnectionTrace.Operation.CONFIGURE);
+    }
+
+    private List<TraceEvent> events(String connectionName) {
+        return tracer.traces(connectionName).get(0).getEvents();
+    }
+
+    @Test
+    public void delivered() throws InterruptedException {
+        notifier.configure(endpoint, "", "", 0);
+        notifier.linkUp("c1", ONE, TWO, run("c1"));
+
+        Request request = nextRequest();
+        assertEquals("POST", request.method);
+        assertEquals("c1", request.connectionName);
+        NotifierStatistics statistics = awaitStatistics(s -> s.delivered() == 1 && s.pending() == 0);
+        assertEquals(0, statistics.retries());
+        assertEquals(TraceEvent.Status.SUCCEEDED, events("c1").get(0).getStatus());
+        assertEquals(LinkNotifier.DEFAULT_SUBSCRIBER, events("c1").get(0).getScope());
+    }
+
+    @Test
+    public void noSubscriberNoRequest() throws InterruptedException {
+        notifier.linkUp("c1", ONE, TWO, run("c1"));
+        assertNull(requests.poll(200, TimeUnit.MILLISECONDS));
+        assertTrue(events("c1").isEmpty());
+    }
+
+    @Test
+    public void retriedWithAnExponentialBackoff() throws InterruptedException {
+        statuses.add(503);
+        statuses.add(429);
+        notifier.configure(endpoint, "", "", 2);
+        notifier.linkUp("c1", ONE, TWO, run("c1"));
+
+        long first = nextRequest().nanos;
+        long second = nextRequest().nanos;
+        long third = nextRequest().nanos;
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(second - first) >= 500);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(third - second) >= 1000);
+        NotifierStatistics statistics = awaitStatistics(s -> s.delivered() == 1);
+        assertEquals(2, statistics.retries());
+        assertEquals(0, statistics.failures());
+    }
+
+    @Test
+    public void givenUpAfterTheRetries() throws InterruptedException {
+        statuses.add(500);
+        statuses.add(500);
+        notifier.configure(endpoint, "", "", 1);
+        notifier.linkUp("c1", ONE, TWO, run("c1"));
+
+        nextRequest();
+        nextRequest();
+        NotifierStatistics statistics = awaitStatistics(s -> s.failures() == 1);
+        assertEquals(1, statistics.retries());
+        assertEquals(0, statistics.delivered());
+        assertEquals(TraceEvent.Status.FAILED, events("c1").get(0).getStatus());
+        assertEquals("HTTP 500", events("c1").get(0).getDetail());
+    }
+
+    @Test
+    public void rejectionIsNotRetried() throws InterruptedException {
+        statuses.add(400);
+        notifier.configure(endpoint, "", "", 3);
+        notifier.linkUp("c1", ONE, TWO, run("c1"));
+
+        nextRequest();
+        NotifierStatistics statistics = awaitStatistics(s -> s.failures() == 1);
+        assertEquals(0, statistics.retries());
+        assertNull(requests.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void backedUpQueueKeepsTheLastStateOfAConnection() throws InterruptedException {
+        blocking = true;
+        notifier.configure(endpoint, "", "", 0);
+        notifier.linkUp("c1", ONE, TWO, run("c1"));
+        assertEquals("c1", nextRequest().connectionName);
+
+        // The delivery of c1 is in flight, c2 waits in the queue and its newer state replaces it
+        notifier.linkUp("c2", ONE, TWO, run("c2"));
+        notifier.linkDown("c2", ONE, TWO, run("c2"));
+        assertEquals(1, notifier.statistics().get(LinkNotifier.DEFAULT_SUBSCRIBER).coalesced());
+        assertEquals(2, notifier.statistics().get(LinkNotifier.DEFAULT_SUBSCRIBER).pending());
+        release.countDown();
+
+        Request request = nextRequest();
+        assertEquals("DELETE", request.method);
+        assertEquals("c2", request.connectionName);
+        awaitStatistics(s -> s.delivered() == 2);
+        assertNull(requests.poll(200, TimeUnit.MILLISECONDS));
+        List<ConnectionTrace> traces = tracer.traces("c2");
+        assertEquals("superseded", traces.get(0).getEvents().get(0).getDetail());
+        assertEquals(TraceEvent.Status.SUCCEEDED, traces.get(1).getEvents().get(0).getStatus());
+    }
+
+    @Test
+    public void retryIsSupersededByANewerNotification() throws InterruptedException {
+        statuses.add(503);
+        notifier.configure(endpoint, "", "", 3);
+        notifier.linkUp("c1", ONE, TWO, run("c1"));
+        assertEquals("POST", nextRequest().method);
+
+        // Queued during the backoff, the link down is sent instead of retrying the link up
+        notifier.linkDown("c1", ONE, TWO, run("c1"));
+        assertEquals("DELETE", nextRequest().method);
+        NotifierStatistics statistics = awaitStatistics(s -> s.delivered() == 1);
+        assertEquals(1, statistics.superseded());
+        assertEquals(1, statistics.retries());
+        assertNull(requests.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * A request received by the subscriber.
+     */
+    private static final class Request {
+        private final String method;
+        private final String connectionName;
+        private final long nanos;
+
+        private Request(String method, String connectionName, long nanos) {
+            this.method = method;
+            this.connectionName = connectionName;
+            this.nanos = nanos;
+        }
+    }
+}
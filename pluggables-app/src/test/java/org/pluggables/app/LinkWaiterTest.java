@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.Link;
+import org.onosproject.net.link.LinkEvent;
+import org.onosproject.net.link.LinkServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the waits for the links brought up and down by the connections.
+ */
+public class LinkWaiterTest {
+
+    private static final ConnectPoint ONE = new ConnectPoint(deviceId("netconf:10.0.0.1:830"), portNumber(4));
+    private static final ConnectPoint TWO = new ConnectPoint(deviceId("netconf:10.0.0.2:830"), portNumber(4));
+
+    private final TestLinkService linkService = new TestLinkService();
+    private LinkWaiter waiter;
+
+    @Before
+    public void setUp() {
+        waiter = new LinkWaiter(linkService);
+    }
+
+    @After
+    public void tearDown() {
+        waiter.shutdown();
+    }
+
+    private static Link link(ConnectPoint src, ConnectPoint dst) {
+        return DefaultLink.builder()
+                .providerId(ProviderId.NONE)
+                .src(src)
+                .dst(dst)
+                .type(Link.Type.OPTICAL)
+                .build();
+    }
+
+    private static void assertTimedOut(CompletableFuture<Void> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Wait not timed out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        } catch (TimeoutException e) {
+            fail("Timeout not applied");
+        }
+    }
+
+    @Test
+    public void linkUpAlreadyDetected() {
+        linkService.add(link(TWO, ONE));
+        assertTrue(waiter.awaitLinkUp(ONE, TWO, 10_000).isDone());
+    }
+
+    @Test
+    public void linkUpDetectedInEitherDirection() throws Exception {
+        CompletableFuture<Void> up = waiter.awaitLinkUp(ONE, TWO, 10_000);
+        assertFalse(up.isDone());
+
+        Link link = link(TWO, ONE);
+        linkService.add(link);
+        waiter.event(new LinkEvent(LinkEvent.Type.LINK_ADDED, link));
+        up.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void otherLinkIsIgnored() {
+        CompletableFuture<Void> up = waiter.awaitLinkUp(ONE, TWO, 10_000);
+        ConnectPoint other = new ConnectPoint(deviceId("netconf:10.0.0.3:830"), portNumber(4));
+        Link link = link(ONE, other);
+        linkService.add(link);
+        waiter.event(new LinkEvent(LinkEvent.Type.LINK_ADDED, link));
+        assertFalse(up.isDone());
+    }
+
+    @Test
+    public void linkUpTimesOut() throws Exception {
+        assertTimedOut(waiter.awaitLinkUp(ONE, TWO, 50));
+    }
+
+    @Test
+    public void linkDownOnlyOnceGoneInBothDirections() throws Exception {
+        Link forward = link(ONE, TWO);
+        Link backward = link(TWO, ONE);
+        linkService.add(forward);
+        linkService.add(backward);
+        CompletableFuture<Void> down = waiter.awaitLinkDown(ONE, TWO, 10_000);
+
+        linkService.remove(forward);
+        waiter.event(new LinkEvent(LinkEvent.Type.LINK_REMOVED, forward));
+        assertFalse(down.isDone());
+
+        linkService.remove(backward);
+        waiter.event(new LinkEvent(LinkEvent.Type.LINK_REMOVED, backward));
+        down.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void linkDownTimesOut() throws Exception {
+        linkService.add(link(ONE, TWO));
+        assertTimedOut(waiter.awaitLinkDown(ONE, TWO, 50));
+    }
+
+    @Test
+    public void completedWaitIsNotTimedOut() throws Exception {
+        CompletableFuture<Void> up = waiter.awaitLinkUp(ONE, TWO, 100);
+        Link link = link(ONE, TWO);
+        linkService.add(link);
+        waiter.event(new LinkEvent(LinkEvent.Type.LINK_ADDED, link));
+        Thread.sleep(200);
+        assertFalse(up.isCompletedExceptionally());
+    }
+
+    @Test
+    public void shutdownCancelsThePendingWaits() {
+        CompletableFuture<Void> up = waiter.awaitLinkUp(ONE, TWO, 10_000);
+        waiter.shutdown();
+        assertTrue(up.isCancelled());
+    }
+
+    /**
+     * Link service holding the links added by the tests.
+     */
+    private static final class TestLinkService extends LinkServiceAdapter {
+        private final Map<ConnectPoint, Map<ConnectPoint, Link>> links = Maps.newConcurrentMap();
+
+        void add(Link link) {
+            links.computeIfAbsent(link.src(), k -> Maps.newConcurrentMap()).put(link.dst(), link);
+        }
+
+        void remove(Link link) {
+            links.getOrDefault(link.src(), Maps.newHashMap()).remove(link.dst());
+        }
+
+        @Override
+        public Link getLink(ConnectPoint src, ConnectPoint dst) {
+            return links.getOrDefault(src, Maps.newHashMap()).get(dst);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.config.Config;
+import org.onosproject.net.config.NetworkConfigRegistryAdapter;
+import org.onosproject.netconf.NetconfController;
+import org.onosproject.netconf.NetconfDevice;
+import org.onosproject.netconf.NetconfException;
+import org.onosproject.netconf.NetconfSession;
+import org.onosproject.netconf.config.NetconfDeviceConfig;
+import org.pluggables.app.api.SessionPoolStatistics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.easymock.EasyMock.anyString;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Set of tests of the pool of NETCONF sessions.
+ */
+public class NetconfSessionManagerTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+
+    private final TestNetworkConfigRegistry netCfgService = new TestNetworkConfigRegistry();
+    private NetconfController controller;
+    private NetconfDevice device;
+    private NetconfSession session;
+    private NetconfSessionManager manager;
+    private final AtomicInteger disconnects = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        netCfgService.configured.add(D1);
+        controller = createMock(NetconfController.class);
+        device = createMock(NetconfDevice.class);
+        session = createMock(NetconfSession.class);
+        expect(device.isActive()).andReturn(true).anyTimes();
+        expect(device.getSession()).andReturn(session).anyTimes();
+        replay(device);
+        // Not held by the controller, the sessions are opened, and closed, by the pool
+        expect(controller.getNetconfDevice(D1)).andReturn(null).anyTimes();
+        controller.disconnectDevice(D1, true);
+        expectLastCall().andAnswer(() -> {
+            disconnects.incrementAndGet();
+            return null;
+        }).anyTimes();
+    }
+
+    @After
+    public void tearDown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    private void start(int idleTimeout) {
+        replay(controller, session);
+        manager = new NetconfSessionManager(controller, netCfgService, new PluggableMetrics(new MetricsManager()));
+        // Maintained by the tests only
+        manager.configure(idleTimeout, 3600);
+    }
+
+    private SessionPoolStatistics awaitHealthCheckFailures(long failures) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (manager.statistics().healthCheckFailures() < failures && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return manager.statistics();
+    }
+
+    @Test
+    public void sessionIsConnectedOnceAndReused() throws Exception {
+        expect(controller.connectDevice(D1)).andReturn(device).once();
+        start(300);
+
+        try (NetconfSessionManager.Lease lease = manager.lease(D1)) {
+            assertSame(session, lease.session());
+        }
+        try (NetconfSessionManager.Lease lease = manager.lease(D1)) {
+            assertSame(session, lease.session());
+        }
+
+        SessionPoolStatistics statistics = manager.statistics();
+        assertEquals(1, statistics.activeSessions());
+        assertEquals(1, statistics.connects());
+        assertEquals(1, statistics.hits());
+        verify(controller);
+    }
+
+    @Test
+    public void invalidatedSessionIsClosedAndReconnected() throws Exception {
+        expect(controller.connectDevice(D1)).andReturn(device).times(2);
+        start(300);
+
+        manager.lease(D1).close();
+        manager.invalidate(D1);
+        assertEquals(0, manager.statistics().activeSessions());
+        assertEquals(1, disconnects.get());
+
+        manager.lease(D1).close();
+        assertEquals(2, manager.statistics().connects());
+        verify(controller);
+    }
+
+    @Test
+    public void unconfiguredDeviceIsNotConnected() throws Exception {
+        netCfgService.configured.clear();
+        start(300);
+        for (int i = 0; i < 2; i++) {
+            try {
+                manager.lease(D1);
+                fail("Unconfigured device connected");
+            } catch (NetconfException e) {
+                assertEquals(0, manager.statistics().activeSessions());
+            }
+        }
+        // Each attempt tries again
+        assertEquals(2, manager.statistics().connects());
+    }
+
+    @Test
+    public void idleSessionIsEvicted() throws Exception {
+        expect(controller.connectDevice(D1)).andReturn(device).once();
+        expect(session.requestSync(anyString())).andReturn("<rpc-reply/>").anyTimes();
+        start(0);
+
+        manager.lease(D1).close();
+        Thread.sleep(10);
+        manager.maintain();
+
+        SessionPoolStatistics statistics = manager.statistics();
+        assertEquals(0, statistics.activeSessions());
+        assertEquals(1, statistics.idleEvictions());
+        assertEquals(1, disconnects.get());
+        verify(controller);
+    }
+
+    @Test
+    public void leasedSessionIsNotEvicted() throws Exception {
+        expect(controller.connectDevice(D1)).andReturn(device).once();
+        expect(session.requestSync(anyString())).andReturn("<rpc-reply/>").anyTimes();
+        start(0);
+
+        try (NetconfSessionManager.Lease lease = manager.lease(D1)) {
+            Thread.sleep(10);
+            manager.maintain();
+            assertEquals(1, manager.statistics().activeSessions());
+            assertEquals(0, manager.statistics().idleEvictions());
+        }
+    }
+
+    @Test
+    public void sessionFailingItsHealthCheckIsReconnected() throws Exception {
+        expect(controller.connectDevice(D1)).andReturn(device).times(2);
+        expect(session.requestSync(anyString())).andThrow(new NetconfException("timeout")).anyTimes();
+        start(300);
+
+        manager.lease(D1).close();
+        manager.maintain();
+        assertEquals(1, awaitHealthCheckFailures(1).healthCheckFailures());
+        // Counted once while the session stays pooled
+        manager.maintain();
+        Thread.sleep(100);
+        assertEquals(1, manager.statistics().healthCheckFailures());
+
+        manager.lease(D1).close();
+        assertEquals(1, manager.statistics().reconnects());
+        assertEquals(1, disconnects.get());
+        verify(controller);
+    }
+
+    /**
+     * Network configuration holding a NETCONF configuration for the devices given by the tests.
+     */
+    private static final class TestNetworkConfigRegistry extends NetworkConfigRegistryAdapter {
+        private final Set<DeviceId> configured = ConcurrentHashMap.newKeySet();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <S, C extends Config<S>> C getConfig(S subject, Class<C> configClass) {
+            if (NetconfDeviceConfig.class.equals(configClass) && configured.contains(subject)) {
+                return (C) new NetconfDeviceConfig();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Set of tests of the persistent hash map.
+ */
+public class PersistentHashMapTest {
+
+    @Test
+    public void empty() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void plusLeavesPreviousMapUnchanged() {
+        PersistentHashMap<String, Integer> one = PersistentHashMap.<String, Integer>empty().plus("a", 1);
+        PersistentHashMap<String, Integer> two = one.plus("b", 2);
+        PersistentHashMap<String, Integer> replaced = two.plus("a", 3);
+
+        assertEquals(1, one.size());
+        assertNull(one.get("b"));
+        assertEquals(2, two.size());
+        assertEquals(Integer.valueOf(1), two.get("a"));
+        assertEquals(2, replaced.size());
+        assertEquals(Integer.valueOf(3), replaced.get("a"));
+    }
+
+    @Test
+    public void minus() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().plus("a", 1).plus("b", 2);
+        PersistentHashMap<String, Integer> removed = map.minus("a");
+
+        assertEquals(1, removed.size());
+        assertNull(removed.get("a"));
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        assertSame(removed, removed.minus("a"));
+        assertSame(removed, removed.minus(null));
+    }
+
+    @Test
+    public void collidingKeys() {
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        Key one = new Key("one", 7);
+        Key two = new Key("two", 7);
+        Key three = new Key("three", 7);
+        map = map.plus(one, 1).plus(two, 2).plus(three, 3);
+
+        assertEquals(3, map.size());
+        assertEquals(Integer.valueOf(2), map.get(two));
+        assertNull(map.get(new Key("four", 7)));
+
+        map = map.minus(two);
+        assertEquals(2, map.size());
+        assertNull(map.get(two));
+        assertEquals(Integer.valueOf(1), map.get(one));
+        assertEquals(Integer.valueOf(3), map.get(three));
+        assertEquals(2, map.entrySet().stream().count());
+    }
+
+    @Test
+    public void matchesHashMap() {
+        Random random = new Random(42);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 20000; i++) {
+            // Few distinct hashes, so that collisions and deep branches are exercised too
+            int id = random.nextInt(2000);
+            Key key = new Key("key-" + id, id % 2 == 0 ? id % 64 : id);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    /**
+     * Key with a given hash code.
+     */
+    private static final class Key {
+        private final String name;
+        private final int hash;
+
+        private Key(String name, int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
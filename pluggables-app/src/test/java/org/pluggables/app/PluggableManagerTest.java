@@ -15,16 +15,26 @@
  */
 package org.pluggables.app;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.net.DeviceId;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+
+import static org.junit.Assert.assertSame;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
 
 /**
  * Set of tests of the ONOS application component.
  */
 public class PluggableManagerTest {
 
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+
     private PluggableManager component;
 
     @Before
@@ -44,4 +54,52 @@ public class PluggableManagerTest {
 
     }
 
+    private static PluggableData pluggable(String id, Long port) {
+        PluggableData pluggableData = PluggableData.of(id);
+        if (port != null) {
+            pluggableData.setPort(portNumber(port));
+        }
+        return pluggableData;
+    }
+
+    private PluggableManager withPluggables(PluggableData... pluggables) {
+        PluggableManager manager = new PluggableManager();
+        manager.store = new SimplePluggableStore();
+        manager.store.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.copyOf(pluggables)));
+        return manager;
+    }
+
+    @Test
+    public void identicalPluggablesAreFoundByPort() {
+        PluggableData four = pluggable("Acme-ZR400-01", 4L);
+        PluggableData five = pluggable("Acme-ZR400-01", 5L);
+        PluggableManager manager = withPluggables(four, five);
+        assertSame(five, manager.findPluggable(D1, pluggable("Acme-ZR400-01", 5L)));
+        assertSame(four, manager.findPluggable(D1, pluggable("Acme-ZR400-01", 4L)));
+    }
+
+    @Test
+    public void uniquePluggableIsFoundById() {
+        PluggableData four = pluggable("Acme-ZR400-01", 4L);
+        PluggableManager manager = withPluggables(four, pluggable("Acme-LR4-02", 5L));
+        assertSame(four, manager.findPluggable(D1, pluggable("Acme-ZR400-01", null)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void identicalPluggablesNeedAPort() {
+        withPluggables(pluggable("Acme-ZR400-01", 4L), pluggable("Acme-ZR400-01", 5L))
+                .findPluggable(D1, pluggable("Acme-ZR400-01", null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherPluggableOnThePortIsRejected() {
+        withPluggables(pluggable("Acme-ZR400-01", 4L), pluggable("Acme-LR4-02", 5L))
+                .findPluggable(D1, pluggable("Acme-ZR400-01", 5L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPluggableIsRejected() {
+        withPluggables(pluggable("Acme-ZR400-01", 4L)).findPluggable(D1, pluggable("Acme-LR4-02", null));
+    }
+
 }
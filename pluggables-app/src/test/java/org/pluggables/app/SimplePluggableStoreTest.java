@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.InventorySnapshot;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the in-memory pluggable store.
+ */
+public class SimplePluggableStoreTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+    private static final DeviceId D2 = deviceId("netconf:10.0.0.2:830");
+
+    private SimplePluggableStore store;
+
+    @Before
+    public void setUp() {
+        store = new SimplePluggableStore();
+    }
+
+    private static PluggableData pluggable(String id, long port) {
+        PluggableData pluggableData = PluggableData.of(id);
+        pluggableData.setPort(portNumber(port));
+        return pluggableData;
+    }
+
+    @Test
+    public void putAndGet() {
+        PluggableData one = pluggable("vendor-part-1", 1);
+        PluggableData two = pluggable("vendor-part-1", 2);
+        store.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.of(one, two)));
+
+        assertEquals(2, store.getDevicePluggables(D1).getPluggables().size());
+        assertNull(store.getDevicePluggables(D2));
+        assertSame(two, store.getPluggable(D1, portNumber(2)));
+        assertNull(store.getPluggable(D1, portNumber(3)));
+        assertNull(store.getPluggable(D2, portNumber(1)));
+        assertEquals(ImmutableList.of(one, two), store.getPluggables(D1, "vendor-part-1"));
+        assertTrue(store.getPluggables(D1, "unknown").isEmpty());
+        assertTrue(store.getPluggables(D2, "vendor-part-1").isEmpty());
+    }
+
+    @Test
+    public void everyWriteBumpsTheVersion() {
+        long initial = store.getVersion();
+        store.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.of(pluggable("p", 1))));
+        assertEquals(initial + 1, store.getVersion());
+        store.updatePluggable(D1, pluggable("p", 1));
+        assertEquals(initial + 2, store.getVersion());
+        store.removeDevicePluggables(D1);
+        assertEquals(initial + 3, store.getVersion());
+        // Removing an unknown device writes nothing
+        assertNull(store.removeDevicePluggables(D1));
+        assertEquals(initial + 3, store.getVersion());
+    }
+
+    @Test
+    public void snapshotIsNotChangedByLaterWrites() {
+        DevicePluggablesData d1 = DevicePluggablesData.of(D1, ImmutableList.of(pluggable("p", 1)));
+        store.putDevicePluggables(d1);
+        InventorySnapshot snapshot = store.getSnapshot();
+
+        store.putDevicePluggables(DevicePluggablesData.of(D2, ImmutableList.of(pluggable("p", 1))));
+        store.updatePluggable(D1, pluggable("q", 1));
+
+        assertEquals(1, snapshot.getDevicePluggables().size());
+        assertSame(d1, snapshot.getDevicePluggables(D1));
+        assertNull(snapshot.getDevicePluggables(D2));
+        assertEquals(store.getVersion() - 2, snapshot.getVersion());
+        assertEquals(2, store.getSnapshot().getDevicePluggables().size());
+    }
+
+    @Test
+    public void storesOfOtherInstancesOrActivationsHaveOtherEpochs() {
+        SimplePluggableStore node1 = new SimplePluggableStore(DistributedPluggableStore.epoch("10.0.0.1", 1000));
+        SimplePluggableStore node2 = new SimplePluggableStore(DistributedPluggableStore.epoch("10.0.0.2", 1000));
+        SimplePluggableStore restarted = new SimplePluggableStore(DistributedPluggableStore.epoch("10.0.0.1", 2000));
+        node1.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.of(pluggable("p", 1))));
+        node2.putDevicePluggables(DevicePluggablesData.of(D2, ImmutableList.of(pluggable("p", 1))));
+        restarted.putDevicePluggables(DevicePluggablesData.of(D2, ImmutableList.of(pluggable("q", 1))));
+
+        // Same version, different pluggables: only the epoch tells the snapshots apart
+        assertEquals(node1.getSnapshot().getVersion(), node2.getSnapshot().getVersion());
+        assertEquals(node1.getSnapshot().getVersion(), restarted.getSnapshot().getVersion());
+        assertNotEquals(node1.getSnapshot().getEpoch(), node2.getSnapshot().getEpoch());
+        assertNotEquals(node1.getSnapshot().getEpoch(), restarted.getSnapshot().getEpoch());
+        assertNotEquals(store.getSnapshot().getEpoch(), new SimplePluggableStore().getSnapshot().getEpoch());
+        assertTrue(node1.getSnapshot().getEpoch().matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    public void snapshotListsTheDevicesByIdAndThePluggablesByPort() {
+        DeviceId d3 = deviceId("netconf:10.0.0.3:830");
+        store.putDevicePluggables(DevicePluggablesData.of(D2, ImmutableList.of(pluggable("p", 1))));
+        store.putDevicePluggables(DevicePluggablesData.of(d3, ImmutableList.of(pluggable("p", 1))));
+        store.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.of(pluggable("p", 3),
+                                                                               pluggable("q", 1),
+                                                                               pluggable("r", 2))));
+        List<DevicePluggablesData> listed = store.getSnapshot().getDevicePluggables();
+        assertEquals(ImmutableList.of(D1, D2, d3), Lists.transform(listed, DevicePluggablesData::getDeviceId));
+        assertEquals(ImmutableList.of("q", "r", "p"),
+                     Lists.transform(listed.get(0).getPluggables(), PluggableData::getPluggableID));
+
+        // Changing the pluggables of a device keeps its place, removing it drops it
+        store.updatePluggable(D2, pluggable("s", 1));
+        store.removeDevicePluggables(D1);
+        listed = store.getSnapshot().getDevicePluggables();
+        assertEquals(ImmutableList.of(D2, d3), Lists.transform(listed, DevicePluggablesData::getDeviceId));
+        assertEquals("s", listed.get(0).getPluggables().get(0).getPluggableID());
+    }
+
+    @Test
+    public void updateReplacesThePluggableOfThePort() {
+        PluggableData one = pluggable("p", 1);
+        PluggableData two = pluggable("p", 2);
+        store.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.of(one, two)));
+
+        PluggableData updated = PluggableData.copyOf(two);
+        updated.setOpMode("4");
+        store.updatePluggable(D1, updated);
+
+        assertSame(updated, store.getPluggable(D1, portNumber(2)));
+        assertSame(one, store.getPluggable(D1, portNumber(1)));
+        assertEquals(ImmutableList.of(one, updated), store.getDevicePluggables(D1).getPluggables());
+        // The stored instance is replaced, not modified
+        assertEquals("0", two.getOpMode());
+    }
+
+    @Test
+    public void updateOfUnknownDeviceIsIgnored() {
+        long version = store.getVersion();
+        store.updatePluggable(D1, pluggable("p", 1));
+        assertNull(store.getDevicePluggables(D1));
+        assertEquals(version, store.getVersion());
+    }
+
+    @Test
+    public void replaceOnlyIfUnchanged() {
+        DevicePluggablesData stored = DevicePluggablesData.of(D1, ImmutableList.of(pluggable("p", 1)));
+        store.putDevicePluggables(stored);
+        DevicePluggablesData refreshed = DevicePluggablesData.of(D1, ImmutableList.of(pluggable("q", 1)));
+
+        assertTrue(store.replaceDevicePluggables(stored, refreshed));
+        assertSame(refreshed, store.getDevicePluggables(D1));
+
+        // Derived from data replaced meanwhile
+        DevicePluggablesData stale = DevicePluggablesData.of(D1, ImmutableList.of(pluggable("r", 1)));
+        assertFalse(store.replaceDevicePluggables(stored, stale));
+        assertSame(refreshed, store.getDevicePluggables(D1));
+
+        // Removed meanwhile
+        store.removeDevicePluggables(D1);
+        assertFalse(store.replaceDevicePluggables(refreshed, stale));
+        assertNull(store.getDevicePluggables(D1));
+    }
+
+    @Test
+    public void remove() {
+        DevicePluggablesData d1 = DevicePluggablesData.of(D1, ImmutableList.of(pluggable("p", 1)));
+        store.putDevicePluggables(d1);
+        store.putDevicePluggables(DevicePluggablesData.of(D2, ImmutableList.of(pluggable("p", 1))));
+
+        assertSame(d1, store.removeDevicePluggables(D1));
+        assertNull(store.getDevicePluggables(D1));
+        assertNull(store.getPluggable(D1, portNumber(1)));
+        assertTrue(store.getPluggables(D1, "p").isEmpty());
+        assertEquals(1, store.getDevicePluggables().size());
+    }
+}
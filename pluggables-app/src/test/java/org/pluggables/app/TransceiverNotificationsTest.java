@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.util.Frequency;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Port;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+import static org.pluggables.app.TransceiverReplyParser.OC_PLATFORM_TYPES_TRANSCEIVER;
+import static org.pluggables.app.TransceiverReplyParserTest.channel;
+import static org.pluggables.app.TransceiverReplyParserTest.transceiver;
+
+/**
+ * Set of tests of the notifications applied to the stored pluggables.
+ */
+public class TransceiverNotificationsTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+
+    private SimplePluggableStore store;
+    private final List<DeviceId> refreshed = new ArrayList<>();
+    private TransceiverNotifications notifications;
+    private PluggableData stored;
+
+    @Before
+    public void setUp() {
+        store = new SimplePluggableStore();
+        stored = PluggableData.of("Acme-ZR400-01");
+        stored.setPort(portNumber(4));
+        stored.setPortType(Port.Type.OCH);
+        stored.setPortSpeed(400_000L);
+        stored.setFrequency(Frequency.ofGHz(191300));
+        stored.setPower(-2f);
+        stored.setOpMode("1");
+        stored.setIsEnable(false);
+        store.putDevicePluggables(DevicePluggablesData.of(D1, ImmutableList.of(stored)));
+        // No subscription is opened by these tests, so no session is needed
+        notifications = new TransceiverNotifications(null, store, refreshed::add);
+    }
+
+    private static String notification(String... components) {
+        StringBuilder notification = new StringBuilder(
+                "<notification xmlns='urn:ietf:params:xml:ns:netconf:notification:1.0'>" +
+                "<eventTime>2021-09-13T10:00:00Z</eventTime>" +
+                "<components xmlns='http://openconfig.net/yang/platform'>");
+        for (String component : components) {
+            notification.append(component);
+        }
+        return notification.append("</components></notification>").toString();
+    }
+
+    @Test
+    public void channelUpdatesACopyOfTheStoredPluggable() {
+        notifications.apply(D1, notification(channel(4, "193100", "1.5", "4")));
+
+        PluggableData updated = store.getPluggable(D1, portNumber(4));
+        assertNotSame(stored, updated);
+        assertEquals(Frequency.ofGHz(193100), updated.getFrequency());
+        assertEquals(Float.valueOf(1.5f), updated.getPower());
+        assertEquals("4", updated.getOpMode());
+        assertEquals(Port.Type.OCH, updated.getPortType());
+        // The stored instance, shared with the readers, is left as it was
+        assertEquals(Frequency.ofGHz(191300), stored.getFrequency());
+        assertEquals("1", stored.getOpMode());
+        assertTrue(refreshed.isEmpty());
+    }
+
+    @Test
+    public void transceiverKeepsTheChannelAndPortState() {
+        notifications.apply(D1, notification(transceiver(4, OC_PLATFORM_TYPES_TRANSCEIVER)));
+
+        PluggableData updated = store.getPluggable(D1, portNumber(4));
+        assertNotSame(stored, updated);
+        assertEquals(Boolean.TRUE, updated.getIsEnable());
+        assertEquals(Port.Type.OCH, updated.getPortType());
+        assertEquals(Long.valueOf(400_000L), updated.getPortSpeed());
+        assertEquals(Frequency.ofGHz(191300), updated.getFrequency());
+        assertEquals(Float.valueOf(-2f), updated.getPower());
+        assertEquals("1", updated.getOpMode());
+        assertEquals(Boolean.FALSE, stored.getIsEnable());
+        assertTrue(refreshed.isEmpty());
+    }
+
+    @Test
+    public void unknownPortRefreshesTheDevice() {
+        notifications.apply(D1, notification(channel(5, "193100", "1.5", "4")));
+
+        assertEquals(ImmutableList.of(D1), refreshed);
+        assertEquals(ImmutableList.of(stored), store.getDevicePluggables(D1).getPluggables());
+    }
+
+    @Test
+    public void malformedNotificationRefreshesTheDevice() {
+        notifications.apply(D1, "<notification><components><component>");
+
+        assertEquals(ImmutableList.of(D1), refreshed);
+        assertEquals(ImmutableList.of(stored), store.getDevicePluggables(D1).getPluggables());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.junit.Test;
+import org.onlab.util.Frequency;
+import org.pluggables.app.api.PluggableData;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the streaming parser of the transceiver state.
+ */
+public class TransceiverReplyParserTest {
+
+    static String transceiver(int port, String type) {
+        return "<component>" +
+                    "<name>transceiver-" + port + "</name>" +
+                    "<state><type>" + type + "</type><description>ignored</description></state>" +
+                    "<transceiver xmlns='http://openconfig.net/yang/platform/transceiver'>" +
+                        "<config><enabled>false</enabled></config>" +
+                        "<state>" +
+                            "<vendor>Acme</vendor>" +
+                            "<vendor-part>ZR400</vendor-part>" +
+                            "<vendor-rev>01</vendor-rev>" +
+                            "<ethernet-pmd-preconf>oc-opt-types:ETH_400GBASE_ZR</ethernet-pmd-preconf>" +
+                            "<module-functional-type>oc-opt-types:TYPE_DIGITAL_COHERENT_OPTIC" +
+                            "</module-functional-type>" +
+                            "<enabled>true</enabled>" +
+                        "</state>" +
+                    "</transceiver>" +
+                "</component>";
+    }
+
+    static String channel(int port, String frequency, String power, String opMode) {
+        return "<component>" +
+                    "<name>channel-" + port + "</name>" +
+                    "<optical-channel xmlns='http://openconfig.net/yang/terminal-device'>" +
+                        "<config><frequency>0</frequency></config>" +
+                        "<state>" +
+                            "<frequency>" + frequency + "</frequency>" +
+                            "<target-output-power>" + power + "</target-output-power>" +
+                            "<operational-mode>" + opMode + "</operational-mode>" +
+                        "</state>" +
+                    "</optical-channel>" +
+                "</component>";
+    }
+
+    static String reply(String... components) {
+        StringBuilder reply = new StringBuilder(
+                "<rpc-reply xmlns='urn:ietf:params:xml:ns:netconf:base:1.0' message-id='1'><data>" +
+                "<components xmlns='http://openconfig.net/yang/platform'>");
+        for (String component : components) {
+            reply.append(component);
+        }
+        return reply.append("</components></data></rpc-reply>").toString();
+    }
+
+    private final List<PluggableData> pluggables = new ArrayList<>();
+    private final List<TransceiverReplyParser.ChannelState> channels = new ArrayList<>();
+
+    private void parse(String reply) throws XMLStreamException {
+        TransceiverReplyParser.parse(reply, pluggables::add, channels::add);
+    }
+
+    @Test
+    public void transceiver() throws XMLStreamException {
+        parse(reply(transceiver(4, TransceiverReplyParser.OC_PLATFORM_TYPES_TRANSCEIVER)));
+
+        assertEquals(1, pluggables.size());
+        assertTrue(channels.isEmpty());
+        PluggableData pluggable = pluggables.get(0);
+        assertEquals("Acme-ZR400-01", pluggable.getPluggableID());
+        assertEquals(portNumber(4), pluggable.getPort());
+        assertEquals(Long.valueOf(400), pluggable.getPluggableSpeed());
+        assertEquals("DIGITAL_COHERENT_OPTIC", pluggable.getPluggableType());
+        // The state is read, not the config
+        assertEquals(Boolean.TRUE, pluggable.getIsEnable());
+        assertNull(pluggable.getPortType());
+        assertNull(pluggable.getPortSpeed());
+    }
+
+    @Test
+    public void otherComponentsAreSkipped() throws XMLStreamException {
+        parse(reply(transceiver(1, "oc-platform-types:LINECARD"),
+                    "<component><name>fan-1</name><state><type>oc-platform-types:FAN</type></state></component>",
+                    transceiver(2, TransceiverReplyParser.OC_PLATFORM_TYPES_TRANSCEIVER)));
+
+        assertEquals(1, pluggables.size());
+        assertEquals(portNumber(2), pluggables.get(0).getPort());
+        assertTrue(channels.isEmpty());
+    }
+
+    @Test
+    public void malformedTransceiverIsSkipped() throws XMLStreamException {
+        String malformed = transceiver(1, TransceiverReplyParser.OC_PLATFORM_TYPES_TRANSCEIVER)
+                .replace("oc-opt-types:ETH_400GBASE_ZR", "unknown");
+        parse(reply(malformed, transceiver(2, TransceiverReplyParser.OC_PLATFORM_TYPES_TRANSCEIVER)));
+
+        assertEquals(1, pluggables.size());
+        assertEquals(portNumber(2), pluggables.get(0).getPort());
+    }
+
+    @Test
+    public void channel() throws XMLStreamException {
+        parse(reply(channel(4, "193100", "1.5", "4")));
+
+        assertTrue(pluggables.isEmpty());
+        assertEquals(1, channels.size());
+        TransceiverReplyParser.ChannelState channel = channels.get(0);
+        assertEquals(portNumber(4), channel.port());
+
+        PluggableData pluggable = PluggableData.of("p");
+        channel.applyTo(pluggable);
+        assertEquals(Frequency.ofGHz(193100), pluggable.getFrequency());
+        assertEquals(Float.valueOf(1.5f), pluggable.getPower());
+        assertEquals("4", pluggable.getOpMode());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void notWellFormed() throws XMLStreamException {
+        parse("<rpc-reply><data><components><component><name>transceiver-1</name></components>");
+    }
+
+    @Test
+    public void filterIsWellFormedAndSelectsTheReadLeaves() throws Exception {
+        String filter = TransceiverReplyParser.TRANSCEIVER_STATE_FILTER;
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document document = factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(filter.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("components", document.getDocumentElement().getLocalName());
+        assertEquals("http://openconfig.net/yang/platform", document.getDocumentElement().getNamespaceURI());
+        for (String leaf : new String[] {"name", "type", "vendor", "vendor-part", "vendor-rev",
+                "ethernet-pmd-preconf", "module-functional-type", "enabled",
+                "frequency", "target-output-power", "operational-mode"}) {
+            assertEquals(leaf, 1, document.getElementsByTagName(leaf).getLength());
+        }
+        // Selection nodes only, the device must not match on content
+        assertEquals("", document.getDocumentElement().getTextContent());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.InventorySnapshot;
+import org.pluggables.app.api.PluggableData;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Set of tests of the filters and pages of the pluggables listing.
+ */
+public class PluggablesQueryTest {
+
+    private static final DeviceId D1 = deviceId("netconf:10.0.0.1:830");
+    private static final DeviceId D2 = deviceId("netconf:10.0.0.2:830");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static PluggableData pluggable(long port, String type, boolean enabled) {
+        PluggableData pluggableData = PluggableData.of("p-" + port);
+        pluggableData.setPort(portNumber(port));
+        pluggableData.setPluggableType(type);
+        pluggableData.setIsEnable(enabled);
+        return pluggableData;
+    }
+
+    // In device and port order, as kept by the inventory
+    private static final List<DevicePluggablesData> INVENTORY = ImmutableList.of(
+            DevicePluggablesData.of(D1, ImmutableList.of(pluggable(1, "ZR", true),
+                                                         pluggable(2, "ZR", false),
+                                                         pluggable(3, "LR", true))),
+            DevicePluggablesData.of(D2, ImmutableList.of(pluggable(1, "ZR", false),
+                                                         pluggable(2, "ZR", true))));
+
+    /**
+     * Lists a page as "device/port" rows.
+     */
+    private static List<String> page(PluggablesQuery query, List<String> next) throws IOException {
+        return page(query, INVENTORY, next);
+    }
+
+    private static List<String> page(PluggablesQuery query, List<DevicePluggablesData> inventory,
+                                     List<String> next) throws IOException {
+        List<String> rows = new ArrayList<>();
+        String cursor = query.select(inventory, (deviceId, pluggable) ->
+                rows.add(deviceId + "/" + pluggable.getPort()));
+        next.add(cursor);
+        return rows;
+    }
+
+    private static InventorySnapshot snapshot(String epoch, long version) {
+        return InventorySnapshot.of(epoch, version, ImmutableMap.of(), ImmutableList.of());
+    }
+
+    private static List<String> all(String device, String port, String type, Boolean enabled) throws IOException {
+        return page(new PluggablesQuery(device, port, type, enabled, 0, null), new ArrayList<>());
+    }
+
+    @Test
+    public void listsAllInDeviceAndPortOrder() throws IOException {
+        List<String> next = new ArrayList<>();
+        assertEquals(ImmutableList.of(D1 + "/1", D1 + "/2", D1 + "/3", D2 + "/1", D2 + "/2"),
+                     page(new PluggablesQuery(null, null, null, null, 0, null), next));
+        assertNull(next.get(0));
+    }
+
+    @Test
+    public void filters() throws IOException {
+        assertEquals(ImmutableList.of(D2 + "/1", D2 + "/2"), all(D2.toString(), null, null, null));
+        assertEquals(ImmutableList.of(D1 + "/2", D2 + "/2"), all(null, "2", null, null));
+        assertEquals(ImmutableList.of(D1 + "/3"), all(null, null, "lr", null));
+        assertEquals(ImmutableList.of(D1 + "/2", D2 + "/1"), all(null, null, null, false));
+        assertEquals(ImmutableList.of(D1 + "/1"), all(D1.toString(), null, "ZR", true));
+        assertTrue(all("netconf:10.0.0.3:830", null, null, null).isEmpty());
+    }
+
+    @Test
+    public void pagesFollowTheCursor() throws IOException {
+        List<String> rows = new ArrayList<>();
+        List<String> next = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            next.clear();
+            rows.addAll(page(new PluggablesQuery(null, null, null, null, 2, cursor), next));
+            cursor = next.get(0);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(all(null, null, null, null), rows);
+    }
+
+    @Test
+    public void pagesOfAFilteredListing() throws IOException {
+        List<String> next = new ArrayList<>();
+        assertEquals(ImmutableList.of(D1 + "/1"),
+                     page(new PluggablesQuery(null, null, "ZR", true, 1, null), next));
+        String cursor = next.get(0);
+        next.clear();
+        assertEquals(ImmutableList.of(D2 + "/2"),
+                     page(new PluggablesQuery(null, null, "ZR", true, 1, cursor), next));
+        // No pluggable left past the last one listed, whatever follows it
+        assertNull(next.get(0));
+    }
+
+    @Test
+    public void pageStartsAfterTheCursorDeviceOnceRemoved() throws IOException {
+        List<String> next = new ArrayList<>();
+        page(new PluggablesQuery(null, null, null, null, 2, null), next);
+        String cursor = next.get(0);
+        next.clear();
+        assertEquals(ImmutableList.of(D2 + "/1", D2 + "/2"),
+                     page(new PluggablesQuery(null, null, null, null, 2, cursor), INVENTORY.subList(1, 2), next));
+        assertNull(next.get(0));
+    }
+
+    @Test
+    public void cursorIsOpaqueAndUrlSafe() throws IOException {
+        List<String> next = new ArrayList<>();
+        page(new PluggablesQuery(null, null, null, null, 1, null), next);
+        String cursor = next.get(0);
+        assertFalse(cursor.contains(D1.toString()));
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedCursorIsRejected() {
+        new PluggablesQuery(null, null, null, null, 0, "bm8tc2VwYXJhdG9y");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeLimitIsRejected() {
+        new PluggablesQuery(null, null, null, null, -1, null);
+    }
+
+    @Test
+    public void etagFollowsTheInventoryEpochAndVersion() {
+        InventorySnapshot snapshot = snapshot("node1", 41);
+        assertEquals(PluggablesWebResource.etag(snapshot), PluggablesWebResource.etag(snapshot("node1", 41)));
+        assertNotEquals(PluggablesWebResource.etag(snapshot), PluggablesWebResource.etag(snapshot("node1", 42)));
+        // The same version on another instance, or after a restart, is another inventory
+        assertNotEquals(PluggablesWebResource.etag(snapshot), PluggablesWebResource.etag(snapshot("node2", 41)));
+    }
+
+    @Test
+    public void writesThePageAsJson() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(writer)) {
+            PluggablesWebResource.writePluggables(generator, new PluggablesQuery(D1.toString(), null, null, null, 2,
+                                                                                  null), INVENTORY);
+        }
+        JsonNode json = MAPPER.readTree(writer.toString());
+
+        assertEquals(2, json.get("pluggables").size());
+        JsonNode first = json.get("pluggables").get(0);
+        assertEquals(D1.toString(), first.get("device-id").asText());
+        assertEquals("p-1", first.get("pluggable-id").asText());
+        assertEquals("1", first.get("port").asText());
+        assertEquals("true", first.get("isEnable").asText());
+        assertTrue(json.has("next"));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+import org.pluggables.app.rest.PluggableCodec;
+import org.pluggables.app.rest.PluggablesCodec;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding and the decoding of the pluggables JSON codecs,
+ * for a single pluggable and for a device of {@link Inventories#PORTS_PER_DEVICE} pluggables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private final PluggableCodec pluggableCodec = new PluggableCodec();
+    private final PluggablesCodec pluggablesCodec = new PluggablesCodec();
+    private final CodecContext context = new BenchCodecContext(ImmutableMap.<Class<?>, JsonCodec<?>>of(
+            PluggableData.class, pluggableCodec,
+            DevicePluggablesData.class, pluggablesCodec));
+
+    private PluggableData pluggable;
+    private DevicePluggablesData device;
+    private ObjectNode pluggableJson;
+    private ObjectNode connectionJson;
+
+    @Setup
+    public void setUp() {
+        device = Inventories.inventory(Inventories.PORTS_PER_DEVICE).get(0);
+        pluggable = device.getPluggables().get(0);
+        pluggableJson = pluggableCodec.encode(pluggable, context);
+        // A pluggable of a connection request, as posted to the configure resource
+        connectionJson = pluggableJson.deepCopy().put("device-id", device.getDeviceId().toString());
+    }
+
+    @Benchmark
+    public ObjectNode encodePluggable() {
+        return pluggableCodec.encode(pluggable, context);
+    }
+
+    @Benchmark
+    public PluggableData decodePluggable() {
+        return pluggableCodec.decode(pluggableJson, context);
+    }
+
+    @Benchmark
+    public ObjectNode encodeDevicePluggables() {
+        return pluggablesCodec.encode(device, context);
+    }
+
+    @Benchmark
+    public DevicePluggablesData decodeDevicePluggables() {
+        return pluggablesCodec.decode(connectionJson, context);
+    }
+
+    /**
+     * Codec context resolving the codecs it is given, with no services.
+     */
+    private static final class BenchCodecContext implements CodecContext {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Map<Class<?>, JsonCodec<?>> codecs;
+
+        private BenchCodecContext(Map<Class<?>, JsonCodec<?>> codecs) {
+            this.codecs = codecs;
+        }
+
+        @Override
+        public ObjectMapper mapper() {
+            return mapper;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> JsonCodec<T> codec(Class<T> entityClass) {
+            return (JsonCodec<T>) codecs.get(entityClass);
+        }
+
+        @Override
+        public <T> T getService(Class<T> serviceClass) {
+            throw new UnsupportedOperationException("No service in benchmarks");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Port;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceService;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * DOM/XPath parser of the transceiver inventory, the one the application used
+ * before TransceiverReplyParser; kept as the baseline of ReplyParserBenchmark.
+ */
+final class DomReplyParser {
+
+    private DomReplyParser() {
+    }
+
+    /**
+     * Parses the transceivers of a device from its platform components.
+     *
+     * @param deviceService service providing the ports of the device
+     * @param deviceId identify the device where the pluggables are attached
+     * @param components the XML document with components root
+     * @return the pluggables; the components that cannot be parsed are skipped
+     */
+    static List<PluggableData> parse(DeviceService deviceService, DeviceId deviceId,
+                                     HierarchicalConfiguration components) {
+        Map<PortNumber, Port> ports = new HashMap<>();
+        deviceService.getPorts(deviceId).forEach(port -> ports.put(port.number(), port));
+        return components.configurationsAt("component").stream()
+                .filter(component -> !component.getString("name", "unknown").equals("unknown")
+                        && component.getString("state/type", "unknown")
+                                .equals(TransceiverReplyParser.OC_PLATFORM_TYPES_TRANSCEIVER))
+                .map(component -> {
+                    try {
+                        return parseComponent(ports, component);
+                    } catch (RuntimeException e) {
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static PluggableData parseComponent(Map<PortNumber, Port> ports, HierarchicalConfiguration component) {
+        PluggableData pluggableData = PluggableData.of(
+                component.getString("transceiver/state/vendor").concat("-")
+                .concat(component.getString("transceiver/state/vendor-part")).concat("-")
+                .concat(component.getString("transceiver/state/vendor-rev")));
+        PortNumber portNumber = PortNumber.fromString(component.getString("name").split("-")[1]);
+        Port port = ports.get(portNumber);
+        pluggableData.setPort(portNumber);
+        pluggableData.setPortType(port.type());
+        pluggableData.setPortSpeed(port.portSpeed());
+        pluggableData.setPluggableSpeed(Long.decode(component.getString("transceiver/state/ethernet-pmd-preconf")
+                .split(":ETH_")[1].split("GBASE_ZR")[0]));
+        pluggableData.setPluggableType(component.getString("transceiver/state/module-functional-type")
+                .split(":TYPE_")[1]);
+        pluggableData.setIsEnable(Boolean.valueOf(component.getString("transceiver/state/enabled")));
+        return pluggableData;
+    }
+}
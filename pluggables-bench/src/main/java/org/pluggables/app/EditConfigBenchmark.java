@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.onlab.util.Frequency;
+import org.onosproject.net.PortNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the edit-config bodies built by string concatenation, one channel per body,
+ * with the precompiled templates. Run with {@code -prof gc} to compare the allocation
+ * per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EditConfigBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int channels;
+
+    private List<PluggableData> pluggables;
+    private List<PortNumber> ports;
+
+    @Setup
+    public void setUp() {
+        pluggables = new ArrayList<>();
+        ports = new ArrayList<>();
+        for (int i = 1; i <= channels; i++) {
+            PluggableData pluggableData = PluggableData.of("vendor-part-rev-" + i);
+            pluggableData.setPort(PortNumber.portNumber(i));
+            pluggableData.setFrequency(Frequency.ofGHz(193100 + 50 * i));
+            pluggableData.setPower(-10.0f);
+            pluggableData.setOpMode("4711");
+            pluggables.add(pluggableData);
+            ports.add(pluggableData.getPort());
+        }
+    }
+
+    @Benchmark
+    public List<String> concatConfigure() {
+        List<String> bodies = new ArrayList<>(channels);
+        for (PluggableData pluggableData : pluggables) {
+            bodies.add(concatConfigure(pluggableData));
+        }
+        return bodies;
+    }
+
+    @Benchmark
+    public String templateConfigure() {
+        return EditConfigTemplates.configureChannels(pluggables);
+    }
+
+    @Benchmark
+    public List<String> concatDisable() {
+        List<String> bodies = new ArrayList<>(channels);
+        for (PortNumber port : ports) {
+            bodies.add(concatDisable(port));
+        }
+        return bodies;
+    }
+
+    @Benchmark
+    public String templateDisable() {
+        return EditConfigTemplates.disableChannels(ports);
+    }
+
+    /**
+     * The body formerly built by PluggableManager.setConfPlug.
+     */
+    private static String concatConfigure(PluggableData confPluggableData) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<components xmlns='http://openconfig.net/yang/platform'>");
+        sb.append("<component>");
+        sb.append("<name>");
+        sb.append("channel-".concat(confPluggableData.getPort().toString()));
+        sb.append("</name>");
+        sb.append("<oc-opt-term:optical-channel xmlns:oc-opt-term='http://openconfig.net/yang/terminal-device'>");
+        sb.append("<oc-opt-term:config>");
+        sb.append("<oc-opt-term:frequency>".concat(String.valueOf(
+                (int) confPluggableData.getFrequency().asGHz())));
+        sb.append("</oc-opt-term:frequency>");
+        sb.append("<oc-opt-term:target-output-power>".concat(confPluggableData.getPower().toString()));
+        sb.append("</oc-opt-term:target-output-power>");
+        sb.append("<oc-opt-term:operational-mode>".concat(confPluggableData.getOpMode()));
+        sb.append("</oc-opt-term:operational-mode>");
+        sb.append("</oc-opt-term:config>");
+        sb.append("</oc-opt-term:optical-channel>");
+        sb.append("</component>");
+        sb.append("</components>");
+        sb.append("<terminal-device xmlns='http://openconfig.net/yang/terminal-device'>");
+        sb.append("<logical-channels>");
+        sb.append("<channel>");
+        sb.append("<index>".concat(confPluggableData.getPort().toString()));
+        sb.append("</index>");
+        sb.append("<config>");
+        sb.append("<admin-state>" + "ENABLED");
+        sb.append("</admin-state>");
+        sb.append("</config>");
+        sb.append("</channel>");
+        sb.append("</logical-channels>");
+        sb.append("</terminal-device>");
+        return sb.toString();
+    }
+
+    /**
+     * The body formerly built by PluggableManager.deleteConfPlug, with the channel index as parameter.
+     */
+    private static String concatDisable(PortNumber port) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<terminal-device xmlns='http://openconfig.net/yang/terminal-device'>");
+        sb.append("<logical-channels>");
+        sb.append("<channel>");
+        sb.append("<index>".concat(port.toString()));
+        sb.append("</index>");
+        sb.append("<config>");
+        sb.append("<admin-state>" + "DISABLED");
+        sb.append("</admin-state>");
+        sb.append("</config>");
+        sb.append("</channel>");
+        sb.append("</logical-channels>");
+        sb.append("</terminal-device>");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.onlab.util.Frequency;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Port;
+import org.onosproject.net.PortNumber;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic pluggables inventories used as benchmark input.
+ */
+public final class Inventories {
+
+    /**
+     * Number of transceivers of each device.
+     */
+    public static final int PORTS_PER_DEVICE = 32;
+
+    private Inventories() {
+    }
+
+    /**
+     * Builds an inventory of the given number of transceivers, spread over devices
+     * of {@link #PORTS_PER_DEVICE} ports. The strings of each transceiver are built
+     * anew, as the reply parser does.
+     * @param transceivers number of transceivers
+     * @return the pluggables of the devices
+     */
+    public static List<DevicePluggablesData> inventory(int transceivers) {
+        List<DevicePluggablesData> devices = new ArrayList<>();
+        for (int first = 0; first < transceivers; first += PORTS_PER_DEVICE) {
+            List<PluggableData> pluggables = new ArrayList<>();
+            for (int port = 1; port <= PORTS_PER_DEVICE && first + port <= transceivers; port++) {
+                pluggables.add(pluggable(port));
+            }
+            devices.add(DevicePluggablesData.of(deviceId(first / PORTS_PER_DEVICE), pluggables));
+        }
+        return devices;
+    }
+
+    /**
+     * Identifier of the i-th device of an inventory.
+     * @param index device index
+     * @return the device identifier
+     */
+    public static DeviceId deviceId(int index) {
+        return DeviceId.deviceId("netconf:10.30." + index + ":830");
+    }
+
+    /**
+     * Builds the transceiver plugged in a port.
+     * @param port the port number
+     * @return the transceiver
+     */
+    public static PluggableData pluggable(int port) {
+        PluggableData pluggableData = PluggableData.of(new StringBuilder("transceiver-").append(port).toString());
+        pluggableData.setPort(PortNumber.portNumber(port));
+        pluggableData.setPortType(Port.Type.OCH);
+        pluggableData.setPortSpeed(400_000L);
+        pluggableData.setIsEnable(port % 2 == 0);
+        pluggableData.setPluggableType(new StringBuilder("QSFP56_DD").append("_TYPE1").toString());
+        pluggableData.setPluggableSpeed(400_000L);
+        pluggableData.setOpMode(String.valueOf(4000 + port % 4));
+        pluggableData.setFrequency(Frequency.ofGHz(191_300 + 50 * port));
+        pluggableData.setPower((float) -port / 10);
+        return pluggableData;
+    }
+}
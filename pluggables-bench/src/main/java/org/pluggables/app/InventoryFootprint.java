@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.pluggables.app.api.DevicePluggablesData;
+
+import java.util.List;
+
+/**
+ * Measures the heap retained by the pluggables inventory, in bytes per transceiver.
+ * The strings of each transceiver are built anew, as the reply parser does, so
+ * that the sharing of the repeated ones is accounted for.
+ * Run with {@code java -cp target/benchmarks.jar org.pluggables.app.InventoryFootprint [transceivers]}.
+ */
+public final class InventoryFootprint {
+
+    private static final int DEFAULT_TRANSCEIVERS = 100_000;
+
+    private InventoryFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int transceivers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TRANSCEIVERS;
+        List<DevicePluggablesData> devices = Inventories.inventory(transceivers);
+
+        long data = GraphLayout.parseInstance(devices).totalSize();
+        SimplePluggableStore store = new SimplePluggableStore();
+        devices.forEach(store::putDevicePluggables);
+        long stored = GraphLayout.parseInstance(store).totalSize();
+
+        System.out.printf("%d transceivers on %d devices%n", transceivers, devices.size());
+        System.out.printf("data:  %,d bytes, %d bytes per transceiver%n", data, data / transceivers);
+        System.out.printf("store: %,d bytes, %d bytes per transceiver%n", stored, stored / transceivers);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.onosproject.net.DefaultPort;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Port;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceServiceAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OpenConfig platform replies used as benchmark input.
+ */
+final class PlatformReplies {
+
+    static final DeviceId DEVICE_ID = DeviceId.deviceId("device:10.30.2.44:50001");
+
+    private PlatformReplies() {
+    }
+
+    /**
+     * Builds a get-config reply carrying the given number of components, one out of
+     * four being a transceiver and the others ports, line cards and optical channels.
+     * @param components number of components in the reply
+     * @return the reply
+     */
+    static String platformReply(int components) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"1\">");
+        sb.append("<data><components xmlns=\"http://openconfig.net/yang/platform\">");
+        for (int i = 0; i < components; i++) {
+            int port = i / 4 + 1;
+            switch (i % 4) {
+                case 0:
+                    transceiver(sb, port);
+                    break;
+                case 1:
+                    component(sb, "port-" + port, "oc-platform-types:PORT");
+                    break;
+                case 2:
+                    component(sb, "linecard-" + port, "oc-platform-types:LINECARD");
+                    break;
+                default:
+                    opticalChannel(sb, port);
+                    break;
+            }
+        }
+        sb.append("</components></data></rpc-reply>");
+        return sb.toString();
+    }
+
+    private static void transceiver(StringBuilder sb, int port) {
+        sb.append("<component><name>transceiver-").append(port).append("</name>")
+                .append("<config><name>transceiver-").append(port).append("</name></config>")
+                .append("<state><name>transceiver-").append(port).append("</name>")
+                .append("<type xmlns:oc-platform-types=\"http://openconfig.net/yang/platform-types\">")
+                .append("oc-platform-types:TRANSCEIVER</type>")
+                .append("<oper-status>oc-platform-types:ACTIVE</oper-status></state>")
+                .append("<transceiver xmlns=\"http://openconfig.net/yang/platform/transceiver\">")
+                .append("<config><enabled>true</enabled></config>")
+                .append("<state><enabled>true</enabled>")
+                .append("<form-factor>oc-opt-types:QSFP56_DD_TYPE1</form-factor>")
+                .append("<ethernet-pmd-preconf>oc-opt-types:ETH_400GBASE_ZR</ethernet-pmd-preconf>")
+                .append("<module-functional-type>oc-opt-types:TYPE_DIGITAL_COHERENT_OPTIC</module-functional-type>")
+                .append("<vendor>Cisco</vendor><vendor-part>400zr-QSFP-DD</vendor-part>")
+                .append("<vendor-rev>01</vendor-rev><serial-no>SN").append(port).append("</serial-no>")
+                .append("<output-power><instant>-8.5</instant><avg>-8.4</avg><min>-8.6</min><max>-8.3</max>")
+                .append("</output-power></state></transceiver></component>");
+    }
+
+    private static void component(StringBuilder sb, String name, String type) {
+        sb.append("<component><name>").append(name).append("</name>")
+                .append("<config><name>").append(name).append("</name></config>")
+                .append("<state><name>").append(name).append("</name>")
+                .append("<type xmlns:oc-platform-types=\"http://openconfig.net/yang/platform-types\">")
+                .append(type).append("</type>")
+                .append("<oper-status>oc-platform-types:ACTIVE</oper-status>")
+                .append("<temperature><instant>41.0</instant><avg>40.5</avg></temperature></state>")
+                .append("</component>");
+    }
+
+    private static void opticalChannel(StringBuilder sb, int port) {
+        sb.append("<component><name>channel-").append(port).append("</name>")
+                .append("<state><type xmlns:oc-opt-types=\"http://openconfig.net/yang/transport-types\">")
+                .append("oc-opt-types:OPTICAL_CHANNEL</type></state>")
+                .append("<optical-channel xmlns=\"http://openconfig.net/yang/terminal-device\">")
+                .append("<config><frequency>193100000</frequency><target-output-power>-8.0</target-output-power>")
+                .append("<operational-mode>1</operational-mode></config>")
+                .append("<state><frequency>193100000</frequency><target-output-power>-8.0</target-output-power>")
+                .append("<operational-mode>1</operational-mode></state>")
+                .append("</optical-channel></component>");
+    }
+
+    /**
+     * Device service exposing a number of 400G optical ports on every device.
+     */
+    static final class PortDeviceService extends DeviceServiceAdapter {
+        private final List<Port> ports = new ArrayList<>();
+
+        PortDeviceService(int ports) {
+            for (int i = 1; i <= ports; i++) {
+                this.ports.add(new DefaultPort(null, PortNumber.portNumber(i), true, Port.Type.OCH, 400000));
+            }
+        }
+
+        @Override
+        public List<Port> getPorts(DeviceId deviceId) {
+            return ports;
+        }
+
+        @Override
+        public Port getPort(DeviceId deviceId, PortNumber portNumber) {
+            int index = (int) portNumber.toLong() - 1;
+            return index >= 0 && index < ports.size() ? ports.get(index) : null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.commons.configuration.tree.xpath.XPathExpressionEngine;
+import org.onosproject.drivers.utilities.XmlConfigParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pluggables.app.api.PluggableData;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.pluggables.app.PlatformReplies.DEVICE_ID;
+
+/**
+ * Compares the DOM/XPath parsing of the transceiver inventory with the streaming one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplyParserBenchmark {
+
+    @Param({"16", "256", "1024"})
+    public int components;
+
+    private String reply;
+    private PluggableManager manager;
+
+    @Setup
+    public void setUp() {
+        reply = PlatformReplies.platformReply(components);
+        manager = new PluggableManager();
+        manager.store = new SimplePluggableStore();
+        manager.deviceService = new PlatformReplies.PortDeviceService(components);
+    }
+
+    @Benchmark
+    public List<PluggableData> domParser() {
+        XMLConfiguration xconf = (XMLConfiguration) XmlConfigParser.loadXmlString(reply);
+        xconf.setExpressionEngine(new XPathExpressionEngine());
+        HierarchicalConfiguration platform = xconf.configurationAt("data/components");
+        return DomReplyParser.parse(manager.deviceService, DEVICE_ID, platform);
+    }
+
+    @Benchmark
+    public List<PluggableData> streamingParser() throws XMLStreamException {
+        return manager.parseTransceivers(DEVICE_ID, reply);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pluggables.app.api.DevicePluggablesData;
+import org.pluggables.app.api.PluggableData;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups and the writes of the in-memory pluggable store at several
+ * inventory sizes. The looked up pluggables are drawn from a fixed seed, so that
+ * the runs are comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+    private static final int KEYS = 1024;
+
+    @Param({"10", "1000", "100000"})
+    public int pluggables;
+
+    private SimplePluggableStore store;
+    private DeviceId[] deviceIds;
+    private PortNumber[] ports;
+    private String[] pluggableIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        store = new SimplePluggableStore();
+        List<DevicePluggablesData> devices = Inventories.inventory(pluggables);
+        devices.forEach(store::putDevicePluggables);
+
+        Random random = new Random(42);
+        deviceIds = new DeviceId[KEYS];
+        ports = new PortNumber[KEYS];
+        pluggableIds = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            DevicePluggablesData device = devices.get(random.nextInt(devices.size()));
+            PluggableData pluggable = device.getPluggables().get(random.nextInt(device.getPluggables().size()));
+            deviceIds[i] = device.getDeviceId();
+            ports[i] = pluggable.getPort();
+            pluggableIds[i] = pluggable.getPluggableID();
+        }
+    }
+
+    private int nextKey() {
+        next = (next + 1) % KEYS;
+        return next;
+    }
+
+    @Benchmark
+    public PluggableData getPluggableByPort() {
+        int key = nextKey();
+        return store.getPluggable(deviceIds[key], ports[key]);
+    }
+
+    @Benchmark
+    public Collection<PluggableData> getPluggablesById() {
+        int key = nextKey();
+        return store.getPluggables(deviceIds[key], pluggableIds[key]);
+    }
+
+    @Benchmark
+    public DevicePluggablesData getDevicePluggables() {
+        return store.getDevicePluggables(deviceIds[nextKey()]);
+    }
+
+    @Benchmark
+    public void walkInventory(Blackhole blackhole) {
+        for (DevicePluggablesData device : store.getSnapshot().getDevicePluggables()) {
+            for (PluggableData pluggable : device.getPluggables()) {
+                blackhole.consume(pluggable);
+            }
+        }
+    }
+
+    @Benchmark
+    public void updatePluggable() {
+        int key = nextKey();
+        store.updatePluggable(deviceIds[key], Inventories.pluggable((int) ports[key].toLong()));
+    }
+
+    @Benchmark
+    public void putDevicePluggables() {
+        // Rewrites a device as the inventory refresh does when its ports changed
+        store.putDevicePluggables(store.getDevicePluggables(deviceIds[nextKey()]));
+    }
+}
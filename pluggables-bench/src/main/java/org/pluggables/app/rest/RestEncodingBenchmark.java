@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pluggables.app.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pluggables.app.Inventories;
+import org.pluggables.app.api.DevicePluggablesData;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streamed GET /pluggables listing, copying the cached JSON of each
+ * pluggable, with the former encoding building an ObjectNode tree of the whole response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestEncodingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int pluggables;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private List<DevicePluggablesData> devices;
+    private PluggablesQuery query;
+
+    @Setup
+    public void setUp() {
+        // The sink is reused by every invocation
+        mapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        devices = Inventories.inventory(pluggables);
+        query = new PluggablesQuery(null, null, null, null, 0, null);
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(sink)) {
+            PluggablesWebResource.writePluggables(generator, query, devices);
+        }
+    }
+
+    @Benchmark
+    public void tree() throws IOException {
+        ObjectNode root = mapper.createObjectNode();
+        ArrayNode pluggablesNode = root.putArray("pluggables");
+        devices.forEach(entry -> entry.getPluggables().forEach(pluggableData -> pluggablesNode.addObject()
+                .put("device-id", entry.getDeviceId().toString())
+                .put("pluggable-id", pluggableData.getPluggableID())
+                .put("port", pluggableData.getPort().toString())
+                .put("portType", pluggableData.getPortType().toString())
+                .put("portSpeed", pluggableData.getPortSpeed().toString())
+                .put("isEnable", pluggableData.getIsEnable().toString())
+                .put("pluggableType", pluggableData.getPluggableType())
+                .put("pluggableSpeed", pluggableData.getPluggableSpeed().toString())
+                .put("opmode", pluggableData.getOpMode())
+                .put("frequency", pluggableData.getFrequency().asGHz())
+                .put("power", pluggableData.getPower().toString())));
+        mapper.writeValue(sink, root);
+    }
+}